@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.vertx.reactivex.core.buffer.Buffer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Allocation benchmark of {@link BufferBridge} compared to copying buffers.
+ * <p>
+ * Each operation transfers one megabyte split into chunks, so with
+ * {@code -prof gc} the {@code gc.alloc.rate.norm} metric shows bytes
+ * allocated per megabyte transferred.
+ * </p>
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class BufferBridgeBench {
+
+    /**
+     * Bytes transferred per operation.
+     */
+    private static final int MEGABYTE = 1024 * 1024;
+
+    /**
+     * Chunk size.
+     */
+    @Param({"8192", "65536"})
+    private int chunk;
+
+    /**
+     * Request chunks as received from Vert.x.
+     */
+    private Buffer[] incoming;
+
+    /**
+     * Response chunks as emitted by slices.
+     */
+    private ByteBuffer[] outgoing;
+
+    @Setup
+    public void setup() {
+        final int count = BufferBridgeBench.MEGABYTE / this.chunk;
+        this.incoming = new Buffer[count];
+        this.outgoing = new ByteBuffer[count];
+        for (int idx = 0; idx < count; ++idx) {
+            this.incoming[idx] = Buffer.buffer(new byte[this.chunk]);
+            this.outgoing[idx] = ByteBuffer.allocate(this.chunk);
+        }
+    }
+
+    @Benchmark
+    public void requestCopy(final Blackhole bhl) {
+        for (final Buffer buf : this.incoming) {
+            bhl.consume(ByteBuffer.wrap(buf.getBytes()));
+        }
+    }
+
+    @Benchmark
+    public void requestView(final Blackhole bhl) {
+        for (final Buffer buf : this.incoming) {
+            bhl.consume(BufferBridge.view(buf));
+        }
+    }
+
+    @Benchmark
+    public void responseCopy(final Blackhole bhl) {
+        for (final ByteBuffer buf : this.outgoing) {
+            final ByteBuffer src = buf.duplicate();
+            final byte[] bytes = new byte[src.remaining()];
+            src.get(bytes);
+            bhl.consume(Buffer.buffer(bytes));
+        }
+    }
+
+    @Benchmark
+    public void responseWrap(final Blackhole bhl) {
+        for (final ByteBuffer buf : this.outgoing) {
+            bhl.consume(BufferBridge.wrap(buf));
+        }
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetSocket;
+import io.vertx.reactivex.core.Vertx;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Chunked response built from many small pieces, written as is or coalesced.
+ * <p>
+ * The slice emits metadata document as {@code pieces} buffers of
+ * {@code piece} bytes. The client reads the response from raw socket over
+ * keep-alive connection: {@code bytes} counter shows bytes on the wire
+ * including chunked encoding framing and {@code reads} counter shows socket
+ * reads, which follow server writes and flushes. Divide counters by
+ * operations to get per response values.
+ * </p>
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CoalescingBench {
+
+    /**
+     * Raw HTTP request.
+     */
+    private static final Buffer REQUEST = Buffer.buffer(
+        "GET /maven-metadata.xml HTTP/1.1\r\nHost: localhost\r\n\r\n"
+    );
+
+    /**
+     * Last chunk of chunked encoding.
+     */
+    private static final byte[] LAST = "\r\n0\r\n\r\n".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Coalescing size in bytes, zero to write chunks as is.
+     */
+    @Param({"0", "8192"})
+    public int coalescing;
+
+    /**
+     * Size of one piece in bytes.
+     */
+    @Param({"64"})
+    public int piece;
+
+    /**
+     * Number of pieces.
+     */
+    @Param({"2000"})
+    public int pieces;
+
+    /**
+     * Server Vert.x.
+     */
+    private Vertx vertx;
+
+    /**
+     * Client Vert.x.
+     */
+    private io.vertx.core.Vertx cvertx;
+
+    /**
+     * Server.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Client socket.
+     */
+    private NetSocket socket;
+
+    /**
+     * Completion of current response.
+     */
+    private volatile CompletableFuture<Void> response;
+
+    /**
+     * Bytes received for current response.
+     */
+    private long received;
+
+    /**
+     * Socket reads for current response.
+     */
+    private long reads;
+
+    /**
+     * Tail of received bytes to find the last chunk.
+     */
+    private Buffer tail;
+
+    @Setup
+    public void setup() {
+        final byte[] data = new byte[this.piece];
+        final int count = this.pieces;
+        this.vertx = Vertx.vertx();
+        final SliceServerOptions opts = new SliceServerOptions();
+        if (this.coalescing > 0) {
+            opts.setCoalescing(this.coalescing, Duration.ofMillis(1L));
+        }
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK,
+                Headers.EMPTY,
+                Flowable.range(0, count).map(idx -> ByteBuffer.wrap(data))
+            ),
+            new HttpServerOptions().setPort(0),
+            opts
+        );
+        final int port = this.server.start();
+        this.cvertx = io.vertx.core.Vertx.vertx();
+        final NetClient client = this.cvertx.createNetClient();
+        this.socket = client.connect(port, "localhost")
+            .toCompletionStage().toCompletableFuture().join();
+        this.tail = Buffer.buffer();
+        this.socket.handler(this::read);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.socket.close();
+        this.cvertx.close();
+        this.server.stop();
+        this.vertx.close();
+    }
+
+    @Benchmark
+    public void metadata(final Wire wire) {
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        this.cvertx.runOnContext(
+            ignored -> {
+                this.received = 0L;
+                this.reads = 0L;
+                this.tail = Buffer.buffer();
+                this.response = done;
+                this.socket.write(CoalescingBench.REQUEST);
+            }
+        );
+        done.join();
+        wire.bytes += this.received;
+        wire.reads += this.reads;
+    }
+
+    /**
+     * Count received bytes, complete response on the last chunk.
+     * @param buf Received bytes
+     */
+    private void read(final Buffer buf) {
+        this.received += buf.length();
+        this.reads += 1L;
+        this.tail.appendBuffer(buf);
+        if (this.tail.length() > CoalescingBench.LAST.length) {
+            this.tail = this.tail.getBuffer(
+                this.tail.length() - CoalescingBench.LAST.length, this.tail.length()
+            );
+        }
+        if (Buffer.buffer(CoalescingBench.LAST).equals(this.tail)) {
+            this.response.complete(null);
+        }
+    }
+
+    /**
+     * Wire counters.
+     * @since 0.4
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Wire {
+
+        /**
+         * Received bytes.
+         */
+        public long bytes;
+
+        /**
+         * Socket reads.
+         */
+        public long reads;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.bytes = 0L;
+            this.reads = 0L;
+        }
+    }
+}
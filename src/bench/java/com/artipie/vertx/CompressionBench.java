@@ -0,0 +1,204 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CPU cost and bytes saved by response compression.
+ * <p>
+ * Client requests a metadata XML document accepting gzip encoding, the
+ * server sends it uncompressed ({@code off}), compressed on the fly with
+ * level 1 or 6, or as precompressed variant. {@code bytes} counter shows
+ * received bytes per second, divide it by operations per second to get
+ * response size.
+ * </p>
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompressionBench {
+
+    /**
+     * Compression mode: {@code off}, {@code level1}, {@code level6}
+     * or {@code precompressed}.
+     */
+    @Param({"off", "level1", "level6", "precompressed"})
+    public String mode;
+
+    /**
+     * Server Vert.x.
+     */
+    private Vertx vertx;
+
+    /**
+     * Client Vert.x.
+     */
+    private io.vertx.core.Vertx cvertx;
+
+    /**
+     * Server.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Client.
+     */
+    private HttpClient client;
+
+    @Setup
+    public void setup() throws IOException {
+        final byte[] xml = CompressionBench.metadata();
+        final byte[] gzipped = CompressionBench.gzip(xml);
+        final Slice slice = (line, headers, body) -> {
+            final byte[] content;
+            final String type;
+            if (new RequestLineFrom(line).uri().getPath().endsWith(".gz")) {
+                content = gzipped;
+                type = "application/gzip";
+            } else {
+                content = xml;
+                type = "text/xml";
+            }
+            return connection -> connection.accept(
+                RsStatus.OK,
+                new Headers.From(
+                    new Header("Content-Type", type),
+                    new Header("Content-Length", String.valueOf(content.length))
+                ),
+                Flowable.just(ByteBuffer.wrap(content))
+            );
+        };
+        final HttpServerOptions options = new HttpServerOptions().setPort(0);
+        if ("level1".equals(this.mode)) {
+            options.setCompressionSupported(true).setCompressionLevel(1);
+        } else if ("level6".equals(this.mode)) {
+            options.setCompressionSupported(true).setCompressionLevel(6);
+        } else if ("precompressed".equals(this.mode)) {
+            options.setCompressionSupported(true);
+        }
+        this.vertx = Vertx.vertx();
+        final Slice served;
+        if ("precompressed".equals(this.mode)) {
+            served = new PrecompressedSlice(slice);
+        } else {
+            served = slice;
+        }
+        this.server = new VertxSliceServer(this.vertx, served, options);
+        final int port = this.server.start();
+        this.cvertx = io.vertx.core.Vertx.vertx();
+        this.client = this.cvertx.createHttpClient(
+            new HttpClientOptions().setDefaultPort(port).setTryUseCompression(false)
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.client.close();
+        this.cvertx.close();
+        this.server.stop();
+        this.vertx.close();
+    }
+
+    @Benchmark
+    public int metadata(final Received received) {
+        final int size = this.client.request(HttpMethod.GET, "/maven-metadata.xml")
+            .compose(
+                req -> req.putHeader("Accept-Encoding", "gzip").send()
+                    .compose(rsp -> rsp.body())
+            )
+            .toCompletionStage().toCompletableFuture().join().length();
+        received.bytes += size;
+        return size;
+    }
+
+    /**
+     * Metadata document with many versions.
+     * @return XML bytes
+     */
+    private static byte[] metadata() {
+        final StringBuilder xml = new StringBuilder(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<metadata>\n"
+        ).append("  <groupId>com.artipie</groupId>\n  <artifactId>vertx-server</artifactId>\n")
+            .append("  <versioning>\n    <versions>\n");
+        for (int idx = 0; idx < 2000; ++idx) {
+            xml.append("      <version>").append(idx / 100).append('.').append(idx % 100)
+                .append(".0</version>\n");
+        }
+        xml.append("    </versions>\n  </versioning>\n</metadata>\n");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Gzip content with best compression.
+     * @param content Content
+     * @return Compressed content
+     * @throws IOException On error
+     */
+    private static byte[] gzip(final byte[] content) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Received bytes counter.
+     * @since 0.4
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Received {
+
+        /**
+         * Received bytes.
+         */
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            this.bytes = 0L;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link VertxSliceServer} with one and several instances.
+ * <p>
+ * The slice does some CPU work per request, so with one instance the
+ * single event loop becomes the bottleneck. Compare results of
+ * {@code instances} parameter values on a multi-core machine.
+ * </p>
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class InstancesBench {
+
+    /**
+     * Concurrent requests per operation.
+     */
+    private static final int BATCH = 64;
+
+    /**
+     * Number of server instances.
+     */
+    @Param({"1", "4"})
+    public int instances;
+
+    /**
+     * Server Vert.x.
+     */
+    private Vertx vertx;
+
+    /**
+     * Client Vert.x.
+     */
+    private io.vertx.core.Vertx cvertx;
+
+    /**
+     * Server.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Client.
+     */
+    private HttpClient client;
+
+    @Setup
+    public void setup() {
+        this.vertx = Vertx.vertx();
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK, Headers.EMPTY, Flowable.just(ByteBuffer.wrap(InstancesBench.work()))
+            ),
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setInstances(this.instances)
+        );
+        final int port = this.server.start();
+        this.cvertx = io.vertx.core.Vertx.vertx();
+        this.client = this.cvertx.createHttpClient(
+            new HttpClientOptions().setDefaultPort(port).setMaxPoolSize(InstancesBench.BATCH)
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.client.close();
+        this.cvertx.close();
+        this.server.stop();
+        this.vertx.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(InstancesBench.BATCH)
+    public void requests() {
+        final CompletableFuture<?>[] all = new CompletableFuture<?>[InstancesBench.BATCH];
+        for (int idx = 0; idx < all.length; ++idx) {
+            all[idx] = this.client.request(HttpMethod.GET, "/")
+                .compose(req -> req.send().compose(HttpClientResponse::body))
+                .toCompletionStage().toCompletableFuture();
+        }
+        CompletableFuture.allOf(all).join();
+    }
+
+    /**
+     * Some CPU work of the slice.
+     * @return Digest
+     */
+    private static byte[] work() {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final byte[] data = new byte[16 * 1024];
+            for (int idx = 0; idx < 8; ++idx) {
+                digest.update(data);
+            }
+            return digest.digest();
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Overhead of server metrics: loopback requests with metrics off and on,
+ * and cost of recording one exchange.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MetricsBench {
+
+    /**
+     * Concurrent requests per operation.
+     */
+    private static final int BATCH = 16;
+
+    /**
+     * Metrics kind: {@code none}, {@code histogram} or {@code micrometer}.
+     */
+    @Param({"none", "histogram", "micrometer"})
+    public String metrics;
+
+    /**
+     * Server Vert.x.
+     */
+    private Vertx vertx;
+
+    /**
+     * Client Vert.x.
+     */
+    private io.vertx.core.Vertx cvertx;
+
+    /**
+     * Server.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Client.
+     */
+    private HttpClient client;
+
+    /**
+     * Metrics to record to in {@link #record()}.
+     */
+    private ServerMetrics recorder;
+
+    @Setup
+    public void setup() {
+        if ("histogram".equals(this.metrics)) {
+            this.recorder = new HistogramMetrics();
+        } else if ("micrometer".equals(this.metrics)) {
+            this.recorder = new MicrometerMetrics(new SimpleMeterRegistry());
+        } else {
+            this.recorder = ServerMetrics.NONE;
+        }
+        this.vertx = Vertx.vertx();
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK, new Headers.From("Content-Length", "2"),
+                Flowable.just(ByteBuffer.wrap(new byte[]{'o', 'k'}))
+            ),
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setMetrics(this.recorder)
+        );
+        final int port = this.server.start();
+        this.cvertx = io.vertx.core.Vertx.vertx();
+        this.client = this.cvertx.createHttpClient(
+            new HttpClientOptions().setDefaultPort(port).setMaxPoolSize(MetricsBench.BATCH)
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.client.close();
+        this.cvertx.close();
+        this.server.stop();
+        this.vertx.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(MetricsBench.BATCH)
+    public void requests() {
+        final CompletableFuture<?>[] all = new CompletableFuture<?>[MetricsBench.BATCH];
+        for (int idx = 0; idx < all.length; ++idx) {
+            all[idx] = this.client.request(HttpMethod.GET, "/")
+                .compose(req -> req.send().compose(HttpClientResponse::body))
+                .toCompletionStage().toCompletableFuture();
+        }
+        CompletableFuture.allOf(all).join();
+    }
+
+    @Benchmark
+    public void record() {
+        this.recorder.started();
+        this.recorder.completed("GET", 200, 150_000L, 420_000L, 120L, 2L);
+    }
+}
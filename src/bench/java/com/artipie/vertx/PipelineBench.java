@@ -0,0 +1,212 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivestreams.Publisher;
+
+/**
+ * Loopback benchmarks of request/response pipeline of {@link VertxSliceServer}:
+ * small GET latency, streamed upload and download, chunked and
+ * {@code Content-Length} responses.
+ * <p>
+ * The slice is routed by request path: {@code /small} responds with a few
+ * bytes, {@code /download} streams {@code size} bytes, {@code /file} sends
+ * a file of {@code size} bytes as {@link FileBody}, {@code /upload}
+ * consumes request body. Responses have {@code Content-Length} header unless
+ * {@code chunked} is set.
+ * </p>
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PipelineBench {
+
+    /**
+     * Size of response chunks emitted by slice.
+     */
+    private static final int CHUNK = 64 * 1024;
+
+    /**
+     * Size of streamed body in bytes.
+     */
+    @Param({"8388608"})
+    public int size;
+
+    /**
+     * Whether responses are chunked instead of having {@code Content-Length}.
+     */
+    @Param({"false", "true"})
+    public boolean chunked;
+
+    /**
+     * Server Vert.x.
+     */
+    private Vertx vertx;
+
+    /**
+     * Client Vert.x.
+     */
+    private io.vertx.core.Vertx cvertx;
+
+    /**
+     * Server.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Client.
+     */
+    private HttpClient client;
+
+    /**
+     * Body to upload.
+     */
+    private Buffer upload;
+
+    /**
+     * File to download.
+     */
+    private Path file;
+
+    @Setup
+    public void setup() throws IOException {
+        this.file = Files.createTempFile("bench", ".bin");
+        Files.write(this.file, new byte[this.size]);
+        final FileBody fbody = new FileBody(this.file);
+        this.vertx = Vertx.vertx();
+        final ByteBuffer chunk = ByteBuffer.allocateDirect(PipelineBench.CHUNK);
+        final int chunks = this.size / PipelineBench.CHUNK;
+        final boolean chnk = this.chunked;
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> {
+                final String path = new RequestLineFrom(line).uri().getPath();
+                final Publisher<ByteBuffer> rsbody;
+                final long length;
+                if ("/download".equals(path)) {
+                    rsbody = Flowable.range(0, chunks).map(idx -> chunk.duplicate());
+                    length = (long) chunks * PipelineBench.CHUNK;
+                } else if ("/file".equals(path)) {
+                    rsbody = fbody;
+                    length = fbody.length();
+                } else {
+                    rsbody = Flowable.fromPublisher(body).ignoreElements()
+                        .andThen(Flowable.just(ByteBuffer.wrap(new byte[]{'o', 'k'})));
+                    length = 2L;
+                }
+                final Headers hdrs;
+                if (chnk) {
+                    hdrs = Headers.EMPTY;
+                } else {
+                    hdrs = new Headers.From("Content-Length", String.valueOf(length));
+                }
+                return connection -> connection.accept(RsStatus.OK, hdrs, rsbody);
+            },
+            new HttpServerOptions().setPort(0)
+        );
+        final int port = this.server.start();
+        this.cvertx = io.vertx.core.Vertx.vertx();
+        this.client = this.cvertx.createHttpClient(
+            new HttpClientOptions().setDefaultPort(port).setDefaultHost("localhost")
+        );
+        this.upload = Buffer.buffer(new byte[this.size]);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        this.client.close();
+        this.cvertx.close();
+        this.server.stop();
+        this.vertx.close();
+        Files.delete(this.file);
+    }
+
+    @Benchmark
+    public Buffer smallGet() {
+        return this.client.request(HttpMethod.GET, "/small")
+            .compose(req -> req.send().compose(HttpClientResponse::body))
+            .toCompletionStage().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long download() {
+        return this.received("/download");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public long file() {
+        return this.received("/file");
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Buffer upload() {
+        return this.client.request(HttpMethod.PUT, "/upload")
+            .compose(req -> req.send(this.upload).compose(HttpClientResponse::body))
+            .toCompletionStage().toCompletableFuture().join();
+    }
+
+    /**
+     * Download body and count received bytes.
+     * @param path Request path
+     * @return Number of bytes received
+     */
+    private long received(final String path) {
+        final long[] received = new long[1];
+        final CompletableFuture<Void> done = this.client.request(HttpMethod.GET, path)
+            .compose(
+                req -> req.send().compose(
+                    rsp -> {
+                        rsp.handler(buf -> received[0] += buf.length());
+                        return rsp.end();
+                    }
+                )
+            ).toCompletionStage().toCompletableFuture();
+        done.join();
+        return received[0];
+    }
+}
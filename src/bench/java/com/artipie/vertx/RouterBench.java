@@ -0,0 +1,147 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import io.reactivex.Flowable;
+import io.vertx.core.http.impl.headers.HeadersMultiMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of routing request to one of many mounted slices by {@link SliceRouter}
+ * compared to linear matching of path prefixes, as slice-level routers do.
+ * Trie routing cost should not depend on the number of mounts.
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RouterBench {
+
+    /**
+     * Number of prepared request lines, power of two.
+     */
+    private static final int LINES = 1024;
+
+    /**
+     * Response of mounted slices.
+     */
+    private static final Response RESPONSE =
+        connection -> CompletableFuture.allOf();
+
+    /**
+     * Number of mounted slices.
+     */
+    @Param({"10", "1000", "10000"})
+    public int mounts;
+
+    /**
+     * Mounted slice.
+     */
+    private Slice slice;
+
+    /**
+     * Router.
+     */
+    private SliceRouter router;
+
+    /**
+     * Mount prefixes in order of mounting, for linear matching.
+     */
+    private List<String> prefixes;
+
+    /**
+     * Request lines to route.
+     */
+    private String[] lines;
+
+    /**
+     * Request headers.
+     */
+    private Iterable<Map.Entry<String, String>> headers;
+
+    /**
+     * Index of next request line.
+     */
+    private int next;
+
+    @Setup
+    public void setup() {
+        this.slice = (line, hdrs, body) -> RouterBench.RESPONSE;
+        this.router = new SliceRouter();
+        this.prefixes = new ArrayList<>(this.mounts);
+        for (int idx = 0; idx < this.mounts; ++idx) {
+            final String prefix = String.format("/maven/repo-%d/", idx);
+            this.router.mount(prefix, this.slice);
+            this.prefixes.add(prefix);
+        }
+        final Random random = new Random(42L);
+        this.lines = new String[RouterBench.LINES];
+        for (int idx = 0; idx < this.lines.length; ++idx) {
+            this.lines[idx] = String.format(
+                "GET %scom/artipie/vertx-server/0.4/vertx-server-0.4.jar HTTP/1.1\r\n",
+                this.prefixes.get(random.nextInt(this.mounts))
+            );
+        }
+        this.headers = new RequestHeaders(
+            HeadersMultiMap.httpHeaders()
+                .add("Host", "localhost:8080")
+                .add("Accept", "*/*")
+                .add("User-Agent", "Apache-Maven/3.8.4")
+        );
+    }
+
+    @Benchmark
+    public Response trie() {
+        return this.router.response(this.line(), this.headers, Flowable.empty());
+    }
+
+    @Benchmark
+    public Response linear() {
+        final String line = this.line();
+        final String path = line.substring(line.indexOf(' ') + 1, line.lastIndexOf(' '));
+        Response res = null;
+        for (final String prefix : this.prefixes) {
+            if (path.startsWith(prefix)) {
+                res = this.slice.response(line, this.headers, Flowable.empty());
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Next request line.
+     * @return Request line
+     */
+    private String line() {
+        this.next = (this.next + 1) & (RouterBench.LINES - 1);
+        return this.lines[this.next];
+    }
+}
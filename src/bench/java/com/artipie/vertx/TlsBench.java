@@ -0,0 +1,255 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.net.PemKeyCertOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.SSLSocketFactory;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * TLS handshake rate and bulk throughput of {@link VertxSliceServer}
+ * with JDK and OpenSSL engines of {@link ServerTls}.
+ * <p>
+ * OpenSSL engine is {@code netty-tcnative-boringssl-static} which is added
+ * to {@code bench} profile. Server certificate is self-signed RSA 2048
+ * certificate from test resources. Clients use JDK TLS in both cases,
+ * so the difference of results is the difference of server engines.
+ * Handshake benchmarks open a new connection for each request: full
+ * handshakes connect to a new peer name each time so the client has no
+ * session to resume, resumed handshakes reuse the session or ticket
+ * of previous connections.
+ * </p>
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TlsBench {
+
+    /**
+     * Concurrent bulk requests per operation.
+     */
+    private static final int BATCH = 16;
+
+    /**
+     * Bulk response body size in bytes.
+     */
+    private static final int BULK = 1024 * 1024;
+
+    /**
+     * Request of handshake benchmarks.
+     */
+    private static final byte[] REQUEST = String.join(
+        "\r\n", "GET / HTTP/1.1", "Host: localhost", "Connection: close", "", ""
+    ).getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Server TLS engine: {@code jdk} or {@code openssl}.
+     */
+    @Param({"jdk", "openssl"})
+    public String engine;
+
+    /**
+     * Server Vert.x.
+     */
+    private Vertx vertx;
+
+    /**
+     * Client Vert.x.
+     */
+    private io.vertx.core.Vertx cvertx;
+
+    /**
+     * Server.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Bulk client.
+     */
+    private HttpClient client;
+
+    /**
+     * Factory of client sockets.
+     */
+    private SSLSocketFactory sockets;
+
+    /**
+     * Server port.
+     */
+    private int port;
+
+    /**
+     * Counter of peer names of full handshakes.
+     */
+    private AtomicLong peers;
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        final ServerTls tls = new ServerTls(
+            new PemKeyCertOptions()
+                .setCertPath("tls/localhost.crt")
+                .setKeyPath("tls/localhost.key")
+        ).setOpenSsl("openssl".equals(this.engine));
+        if ("openssl".equals(this.engine) && !tls.isOpenSsl()) {
+            throw new IllegalStateException("OpenSSL engine is not available");
+        }
+        final byte[] bulk = new byte[TlsBench.BULK];
+        this.vertx = Vertx.vertx();
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> {
+                final byte[] content;
+                if (line.startsWith("GET /bulk ")) {
+                    content = bulk;
+                } else {
+                    content = new byte[0];
+                }
+                return connection -> connection.accept(
+                    RsStatus.OK,
+                    new Headers.From("Content-Length", String.valueOf(content.length)),
+                    Flowable.just(ByteBuffer.wrap(content))
+                );
+            },
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setTls(tls)
+        );
+        this.port = this.server.start();
+        final SSLContext ctx = SSLContext.getInstance("TLS");
+        ctx.init(null, new TrustManager[]{new TrustAll()}, new SecureRandom());
+        this.sockets = ctx.getSocketFactory();
+        this.peers = new AtomicLong();
+        this.cvertx = io.vertx.core.Vertx.vertx();
+        this.client = this.cvertx.createHttpClient(
+            new HttpClientOptions().setDefaultPort(this.port).setMaxPoolSize(TlsBench.BATCH)
+                .setSsl(true).setTrustAll(true).setVerifyHost(false)
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.client.close();
+        this.cvertx.close();
+        this.server.stop();
+        this.vertx.close();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int fullHandshake() throws IOException {
+        return this.exchange(
+            String.format("peer-%d.localhost", this.peers.incrementAndGet())
+        );
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int resumedHandshake() throws IOException {
+        return this.exchange("localhost");
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TlsBench.BATCH)
+    public void bulk() {
+        final CompletableFuture<?>[] all = new CompletableFuture<?>[TlsBench.BATCH];
+        for (int idx = 0; idx < all.length; ++idx) {
+            all[idx] = this.client.request(HttpMethod.GET, "/bulk")
+                .compose(req -> req.send().compose(HttpClientResponse::body))
+                .toCompletionStage().toCompletableFuture();
+        }
+        CompletableFuture.allOf(all).join();
+    }
+
+    /**
+     * Connect to server, send request which closes connection and read
+     * response to the end.
+     * @param peer Peer name to cache TLS session with
+     * @return Number of response bytes
+     * @throws IOException On error
+     */
+    private int exchange(final String peer) throws IOException {
+        final Socket plain = new Socket("localhost", this.port);
+        plain.setTcpNoDelay(true);
+        try (SSLSocket socket = (SSLSocket) this.sockets.createSocket(
+            plain, peer, this.port, true
+        )) {
+            socket.getOutputStream().write(TlsBench.REQUEST);
+            socket.getOutputStream().flush();
+            final InputStream input = socket.getInputStream();
+            final byte[] buf = new byte[1024];
+            int total = 0;
+            for (int read = input.read(buf); read >= 0; read = input.read(buf)) {
+                total += read;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Trust manager which trusts self-signed benchmark certificate.
+     * @since 0.4
+     */
+    private static final class TrustAll implements X509TrustManager {
+
+        @Override
+        public void checkClientTrusted(final X509Certificate[] chain, final String auth) {
+            // all clients are trusted
+        }
+
+        @Override
+        public void checkServerTrusted(final X509Certificate[] chain, final String auth) {
+            // all servers are trusted
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
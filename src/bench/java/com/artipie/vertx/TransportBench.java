@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link VertxSliceServer} with NIO and native transport.
+ * <p>
+ * Native transport is epoll from {@code netty-transport-native-epoll}
+ * which is added to {@code bench} profile for Linux x86-64. On other
+ * platforms {@code native} falls back to NIO and the results are the same.
+ * Socket options which require native transport are enabled in both cases.
+ * </p>
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ * @checkstyle DesignForExtensionCheck (500 lines)
+ * @checkstyle JavadocMethodCheck (500 lines)
+ * @checkstyle VisibilityModifierCheck (500 lines)
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TransportBench {
+
+    /**
+     * Concurrent requests per operation.
+     */
+    private static final int BATCH = 64;
+
+    /**
+     * Transport: {@code nio} or {@code native}.
+     */
+    @Param({"nio", "native"})
+    public String transport;
+
+    /**
+     * Response body size in bytes.
+     */
+    @Param({"128", "65536"})
+    public int size;
+
+    /**
+     * Server Vert.x.
+     */
+    private Vertx vertx;
+
+    /**
+     * Client Vert.x.
+     */
+    private io.vertx.core.Vertx cvertx;
+
+    /**
+     * Server.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Client.
+     */
+    private HttpClient client;
+
+    @Setup
+    public void setup() {
+        final boolean nat = "native".equals(this.transport);
+        this.vertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(nat));
+        final byte[] body = new byte[this.size];
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, rqbody) -> connection -> connection.accept(
+                RsStatus.OK,
+                new Headers.From("Content-Length", String.valueOf(body.length)),
+                Flowable.just(ByteBuffer.wrap(body))
+            ),
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setNativeTransport(nat)
+                .setTcpQuickAck(true).setTcpFastOpen(true)
+        );
+        final int port = this.server.start();
+        this.cvertx = io.vertx.core.Vertx.vertx(
+            new VertxOptions().setPreferNativeTransport(nat)
+        );
+        this.client = this.cvertx.createHttpClient(
+            new HttpClientOptions().setDefaultPort(port).setMaxPoolSize(TransportBench.BATCH)
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.client.close();
+        this.cvertx.close();
+        this.server.stop();
+        this.vertx.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TransportBench.BATCH)
+    public void requests() {
+        final CompletableFuture<?>[] all = new CompletableFuture<?>[TransportBench.BATCH];
+        for (int idx = 0; idx < all.length; ++idx) {
+            all[idx] = this.client.request(HttpMethod.GET, "/")
+                .compose(req -> req.send().compose(HttpClientResponse::body))
+                .toCompletionStage().toCompletableFuture();
+        }
+        CompletableFuture.allOf(all).join();
+    }
+}
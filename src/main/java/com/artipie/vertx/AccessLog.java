@@ -0,0 +1,456 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.jcabi.log.Logger;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Access log of {@link VertxSliceServer}: an entry per finished request.
+ * <p>
+ * Entries are recorded on event loop into preallocated ring buffer without
+ * locks and allocations, and a background thread formats them and writes
+ * to the sink. If the buffer is full, because the sink can't keep up,
+ * entries are dropped instead of blocking event loop: number of dropped
+ * entries is reported to the log and by {@link #dropped()}.
+ * </p>
+ * <p>
+ * Access log thread is started when the log is created, and it's stopped
+ * by {@link #close()} after writing the remaining entries, so the log
+ * should be closed after the server is stopped.
+ * </p>
+ * @since 0.4
+ */
+public final class AccessLog implements Closeable {
+
+    /**
+     * Default buffer capacity in entries.
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    /**
+     * Time to wait for new entries when buffer is empty.
+     */
+    private static final long IDLE = TimeUnit.MILLISECONDS.toNanos(10L);
+
+    /**
+     * Line format.
+     */
+    private final AccessLogFormat format;
+
+    /**
+     * Sink of lines.
+     */
+    private final AccessLogSink sink;
+
+    /**
+     * Preallocated entries of ring buffer.
+     */
+    private final Slot[] slots;
+
+    /**
+     * Sequences of slots: slot at position is free to record if its
+     * sequence equals the position, and is recorded if it's one more.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * Mask of position to slot index.
+     */
+    private final int mask;
+
+    /**
+     * Next position to record to.
+     */
+    private final AtomicLong tail;
+
+    /**
+     * Number of dropped entries.
+     */
+    private final AtomicLong drops;
+
+    /**
+     * Access log thread.
+     */
+    private final Thread thread;
+
+    /**
+     * Next position to write, used by access log thread only.
+     */
+    private long head;
+
+    /**
+     * Number of dropped entries which were reported,
+     * used by access log thread only.
+     */
+    private long reported;
+
+    /**
+     * Whether log was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Access log with default capacity.
+     * @param format Line format, e.g. {@link AccessLogFormat#COMBINED}
+     * @param sink Sink of lines, e.g. {@link RollingFileSink}
+     */
+    public AccessLog(final AccessLogFormat format, final AccessLogSink sink) {
+        this(format, sink, AccessLog.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Ctor.
+     * @param format Line format, e.g. {@link AccessLogFormat#COMBINED}
+     * @param sink Sink of lines, e.g. {@link RollingFileSink}
+     * @param capacity Buffer capacity in entries, power of two
+     */
+    public AccessLog(final AccessLogFormat format, final AccessLogSink sink,
+        final int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Access log capacity must be power of two");
+        }
+        this.format = format;
+        this.sink = sink;
+        this.slots = new Slot[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int idx = 0; idx < capacity; ++idx) {
+            this.slots[idx] = new Slot();
+            this.sequences.set(idx, idx);
+        }
+        this.mask = capacity - 1;
+        this.tail = new AtomicLong();
+        this.drops = new AtomicLong();
+        this.thread = new Thread(this::run, "access-log");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Number of entries which were dropped because buffer was full.
+     * @return Number of entries
+     */
+    public long dropped() {
+        return this.drops.get();
+    }
+
+    /**
+     * Write remaining entries, stop access log thread and close the sink.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.thread);
+        try {
+            this.thread.join();
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Record finished exchange, it's called on event loop.
+     * @param exchange Exchange
+     */
+    void record(final Exchange exchange) {
+        long pos = this.tail.get();
+        int idx = -1;
+        while (idx < 0) {
+            final int next = (int) pos & this.mask;
+            final long seq = this.sequences.get(next);
+            if (seq == pos) {
+                if (this.tail.compareAndSet(pos, pos + 1L)) {
+                    idx = next;
+                } else {
+                    pos = this.tail.get();
+                }
+            } else if (seq < pos) {
+                break;
+            } else {
+                pos = this.tail.get();
+            }
+        }
+        if (idx < 0) {
+            this.drops.incrementAndGet();
+        } else {
+            this.slots[idx].fill(exchange);
+            this.sequences.lazySet(idx, pos + 1L);
+        }
+    }
+
+    /**
+     * Write entries until the log is closed.
+     */
+    private void run() {
+        final StringBuilder line = new StringBuilder(256);
+        while (!this.closed) {
+            if (!this.drain(line)) {
+                LockSupport.parkNanos(this, AccessLog.IDLE);
+            }
+        }
+        this.drain(line);
+        try {
+            this.sink.close();
+        } catch (final IOException ex) {
+            Logger.warn(this, "Failed to close access log: %[exception]s", ex);
+        }
+    }
+
+    /**
+     * Write recorded entries, flush the sink and report dropped entries.
+     * @param line Line builder
+     * @return True if any entries were written
+     */
+    private boolean drain(final StringBuilder line) {
+        final long start = this.head;
+        boolean ready = true;
+        while (ready) {
+            final int idx = (int) this.head & this.mask;
+            ready = this.sequences.get(idx) == this.head + 1L;
+            if (ready) {
+                final Slot slot = this.slots[idx];
+                final boolean formatted = this.format(slot, line);
+                slot.clear();
+                this.sequences.lazySet(idx, this.head + this.slots.length);
+                this.head += 1L;
+                if (formatted) {
+                    this.write(line);
+                }
+            }
+        }
+        final boolean res = this.head != start;
+        if (res) {
+            try {
+                this.sink.flush();
+            } catch (final IOException ex) {
+                Logger.warn(this, "Failed to flush access log: %[exception]s", ex);
+            }
+        }
+        final long dropped = this.drops.get();
+        if (dropped != this.reported) {
+            Logger.warn(
+                this, "%d access log entries were dropped, buffer is full",
+                dropped - this.reported
+            );
+            this.reported = dropped;
+        }
+        return res;
+    }
+
+    /**
+     * Format entry, entries which can't be formatted are skipped.
+     * @param entry Entry
+     * @param line Line builder
+     * @return True if entry was formatted
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private boolean format(final AccessLogEntry entry, final StringBuilder line) {
+        line.setLength(0);
+        boolean res = true;
+        try {
+            this.format.format(entry, line);
+            //@checkstyle IllegalCatchCheck (1 line)
+        } catch (final RuntimeException ex) {
+            Logger.warn(this, "Failed to format access log entry: %[exception]s", ex);
+            res = false;
+        }
+        return res;
+    }
+
+    /**
+     * Write line to the sink.
+     * @param line Line
+     */
+    private void write(final CharSequence line) {
+        try {
+            this.sink.write(line);
+        } catch (final IOException ex) {
+            Logger.warn(this, "Failed to write access log: %[exception]s", ex);
+        }
+    }
+
+    /**
+     * Preallocated entry of ring buffer.
+     * @since 0.4
+     */
+    private static final class Slot implements AccessLogEntry {
+
+        /**
+         * Time when request was received in milliseconds since epoch.
+         */
+        private long time;
+
+        /**
+         * Client address.
+         */
+        private String client;
+
+        /**
+         * Request method.
+         */
+        private String method;
+
+        /**
+         * Request URI.
+         */
+        private String uri;
+
+        /**
+         * Request protocol.
+         */
+        private String protocol;
+
+        /**
+         * Response status code.
+         */
+        private int status;
+
+        /**
+         * Request bytes received.
+         */
+        private long received;
+
+        /**
+         * Response body bytes sent.
+         */
+        private long sent;
+
+        /**
+         * Duration in nanoseconds.
+         */
+        private long duration;
+
+        /**
+         * Referer header.
+         */
+        private String referer;
+
+        /**
+         * User-Agent header.
+         */
+        private String agent;
+
+        /**
+         * Whether exchange was aborted.
+         */
+        private boolean aborted;
+
+        @Override
+        public long time() {
+            return this.time;
+        }
+
+        @Override
+        public String client() {
+            return this.client;
+        }
+
+        @Override
+        public String method() {
+            return this.method;
+        }
+
+        @Override
+        public String uri() {
+            return this.uri;
+        }
+
+        @Override
+        public String protocol() {
+            return this.protocol;
+        }
+
+        @Override
+        public int status() {
+            return this.status;
+        }
+
+        @Override
+        public long received() {
+            return this.received;
+        }
+
+        @Override
+        public long sent() {
+            return this.sent;
+        }
+
+        @Override
+        public long duration() {
+            return this.duration;
+        }
+
+        @Override
+        public String referer() {
+            return this.referer;
+        }
+
+        @Override
+        public String agent() {
+            return this.agent;
+        }
+
+        @Override
+        public boolean aborted() {
+            return this.aborted;
+        }
+
+        /**
+         * Fill entry with finished exchange.
+         * @param exchange Exchange
+         */
+        void fill(final Exchange exchange) {
+            final HttpServerRequest req = exchange.request();
+            this.duration = exchange.duration();
+            this.time = System.currentTimeMillis()
+                - TimeUnit.NANOSECONDS.toMillis(this.duration);
+            this.client = VertxSliceServer.client(req);
+            this.method = exchange.method();
+            this.uri = req.uri();
+            this.protocol = VertxSliceServer.version(req.version());
+            this.status = exchange.status();
+            this.received = exchange.received();
+            this.sent = exchange.sent();
+            this.referer = Slot.header(req, "Referer");
+            this.agent = Slot.header(req, "User-Agent");
+            this.aborted = exchange.aborted();
+        }
+
+        /**
+         * Release strings of request, so they can be collected.
+         */
+        void clear() {
+            this.client = null;
+            this.method = null;
+            this.uri = null;
+            this.protocol = null;
+            this.referer = null;
+            this.agent = null;
+        }
+
+        /**
+         * Request header.
+         * @param req Request
+         * @param name Header name
+         * @return Header value, empty if there is no header
+         */
+        private static String header(final HttpServerRequest req, final String name) {
+            final String value = req.getHeader(name);
+            final String res;
+            if (value == null) {
+                res = "";
+            } else {
+                res = value;
+            }
+            return res;
+        }
+    }
+}
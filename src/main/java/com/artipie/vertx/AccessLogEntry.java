@@ -0,0 +1,88 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+/**
+ * Access log entry of finished request, see {@link AccessLogFormat}.
+ * <p>
+ * Entries are reused by {@link AccessLog}, so they must not be kept
+ * after formatting.
+ * </p>
+ * @since 0.4
+ */
+public interface AccessLogEntry {
+
+    /**
+     * Time when request was received.
+     * @return Milliseconds since epoch
+     */
+    long time();
+
+    /**
+     * Client address.
+     * @return Host address, empty if unknown
+     */
+    String client();
+
+    /**
+     * Request method.
+     * @return Method name
+     */
+    String method();
+
+    /**
+     * Request URI.
+     * @return URI as it was sent by the client
+     */
+    String uri();
+
+    /**
+     * Request protocol.
+     * @return Protocol, e.g. {@code HTTP/1.1}
+     */
+    String protocol();
+
+    /**
+     * Response status code.
+     * @return Status code
+     */
+    int status();
+
+    /**
+     * Request bytes received.
+     * @return Bytes
+     */
+    long received();
+
+    /**
+     * Response body bytes sent.
+     * @return Bytes
+     */
+    long sent();
+
+    /**
+     * Request duration.
+     * @return Nanoseconds
+     */
+    long duration();
+
+    /**
+     * Request {@code Referer} header.
+     * @return Header value, empty if there is no header
+     */
+    String referer();
+
+    /**
+     * Request {@code User-Agent} header.
+     * @return Header value, empty if there is no header
+     */
+    String agent();
+
+    /**
+     * Whether connection was closed before response was ended.
+     * @return True if aborted
+     */
+    boolean aborted();
+}
@@ -0,0 +1,40 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+/**
+ * Format of {@link AccessLog} lines.
+ * <p>
+ * Lines are formatted by the access log thread, not on event loop,
+ * one at a time, into a reused builder.
+ * </p>
+ * @since 0.4
+ */
+public interface AccessLogFormat {
+
+    /**
+     * Common log format: client, user, time, request line,
+     * status and response bytes.
+     */
+    AccessLogFormat COMMON = new CommonLogFormat(false);
+
+    /**
+     * Combined log format: common log format with {@code Referer} and
+     * {@code User-Agent} headers.
+     */
+    AccessLogFormat COMBINED = new CommonLogFormat(true);
+
+    /**
+     * JSON object per line with all fields of entry.
+     */
+    AccessLogFormat JSON = new JsonLogFormat();
+
+    /**
+     * Format entry.
+     * @param entry Access log entry
+     * @param line Builder to append line to, without line separator
+     */
+    void format(AccessLogEntry entry, StringBuilder line);
+}
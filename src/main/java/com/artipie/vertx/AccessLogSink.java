@@ -0,0 +1,33 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Destination of {@link AccessLog} lines, e.g. {@link RollingFileSink}.
+ * <p>
+ * Sink is called by the access log thread only, so it doesn't need to be
+ * thread safe and may block. Lines are written one by one and flushed
+ * when there are no more lines to write.
+ * </p>
+ * @since 0.4
+ */
+public interface AccessLogSink extends Closeable {
+
+    /**
+     * Write line.
+     * @param line Line without line separator
+     * @throws IOException On error
+     */
+    void write(CharSequence line) throws IOException;
+
+    /**
+     * Flush written lines.
+     * @throws IOException On error
+     */
+    void flush() throws IOException;
+}
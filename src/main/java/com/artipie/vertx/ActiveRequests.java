@@ -0,0 +1,103 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.vertx.core.Vertx;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Requests being served by the server.
+ * <p>
+ * Once draining is started no more requests are admitted, and the drain
+ * completes when all admitted requests are finished or the grace period
+ * is over, whichever comes first.
+ * </p>
+ * @since 0.4
+ */
+final class ActiveRequests {
+
+    /**
+     * Number of admitted requests which are not finished yet.
+     */
+    private final AtomicInteger count;
+
+    /**
+     * Completed when there are no active requests after draining was started.
+     */
+    private final CompletableFuture<Void> idle;
+
+    /**
+     * Whether draining was started.
+     */
+    private volatile boolean draining;
+
+    /**
+     * Ctor.
+     */
+    ActiveRequests() {
+        this.count = new AtomicInteger();
+        this.idle = new CompletableFuture<>();
+    }
+
+    /**
+     * Admit new request.
+     * @return False if server is draining and request must be rejected
+     */
+    boolean enter() {
+        this.count.incrementAndGet();
+        final boolean res = !this.draining;
+        if (!res) {
+            this.exit();
+        }
+        return res;
+    }
+
+    /**
+     * Finish admitted request.
+     */
+    void exit() {
+        if (this.count.decrementAndGet() == 0 && this.draining) {
+            this.idle.complete(null);
+        }
+    }
+
+    /**
+     * Number of active requests.
+     * @return Count
+     */
+    int active() {
+        return this.count.get();
+    }
+
+    /**
+     * Stop admitting requests and wait for active ones.
+     * @param vertx Vert.x to schedule the deadline timer with
+     * @param grace Max time to wait for active requests
+     * @return Number of requests which were not finished within the grace period
+     */
+    CompletionStage<Integer> drain(final Vertx vertx, final Duration grace) {
+        this.draining = true;
+        if (this.count.get() == 0) {
+            this.idle.complete(null);
+        }
+        final CompletableFuture<Integer> res = new CompletableFuture<>();
+        this.idle.thenRun(() -> res.complete(0));
+        if (!this.idle.isDone()) {
+            final long millis = grace.toMillis();
+            if (millis > 0L) {
+                final long timer = vertx.setTimer(
+                    millis, ignored -> res.complete(this.count.get())
+                );
+                this.idle.thenRun(() -> vertx.cancelTimer(timer));
+            } else {
+                res.complete(this.count.get());
+            }
+        }
+        return res;
+    }
+}
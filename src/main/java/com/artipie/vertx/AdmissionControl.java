@@ -0,0 +1,258 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control of {@link VertxSliceServer}: limits of requests served
+ * concurrently by the server and by one client IP address.
+ * <p>
+ * Requests over the limits are rejected before the slice is invoked:
+ * with {@code 503 Service Unavailable} when the server limit is reached
+ * and with {@code 429 Too Many Requests} when the client limit is reached,
+ * both with {@code Retry-After} header.
+ * </p>
+ * <p>
+ * Server limit is either fixed or adaptive. Adaptive limit follows AIMD
+ * (additive increase, multiplicative decrease) algorithm driven by time to
+ * first byte of responses: when it's over the target latency the limit is
+ * decreased by 10%, at most once per target latency period, otherwise it's
+ * increased by one while at least half of it is used.
+ * </p>
+ * <p>
+ * Current limit, number of active requests and rejection counters
+ * can be read at any time for monitoring.
+ * </p>
+ * @since 0.4
+ */
+public final class AdmissionControl {
+
+    /**
+     * Admission control without limits.
+     */
+    public static final AdmissionControl UNLIMITED =
+        new AdmissionControl(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+    /**
+     * Status code of request rejected by client limit.
+     */
+    static final int TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Multiplier of adaptive limit on latency over the target.
+     */
+    private static final double BACKOFF = 0.9;
+
+    /**
+     * Min server limit.
+     */
+    private final int min;
+
+    /**
+     * Max server limit.
+     */
+    private final int max;
+
+    /**
+     * Client limit.
+     */
+    private final int perclient;
+
+    /**
+     * Target latency in nanoseconds, zero for fixed limit.
+     */
+    private final long target;
+
+    /**
+     * Number of active requests.
+     */
+    private final AtomicInteger active;
+
+    /**
+     * Number of active requests by client address.
+     */
+    private final Map<String, Integer> clients;
+
+    /**
+     * Number of requests rejected by server limit.
+     */
+    private final LongAdder unavailable;
+
+    /**
+     * Number of requests rejected by client limit.
+     */
+    private final LongAdder throttled;
+
+    /**
+     * Current server limit.
+     */
+    private volatile int current;
+
+    /**
+     * Time of last limit decrease in nanoseconds.
+     */
+    private long decreased;
+
+    /**
+     * Fixed limits.
+     * @param max Max number of requests served concurrently
+     * @param perclient Max number of requests served concurrently for one client
+     */
+    public AdmissionControl(final int max, final int perclient) {
+        this(max, max, perclient, Duration.ZERO);
+    }
+
+    /**
+     * Adaptive server limit, it starts from max value.
+     * @param min Min value of the limit
+     * @param max Max value of the limit
+     * @param perclient Max number of requests served concurrently for one client
+     * @param target Target time to first byte, zero for fixed limit
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    public AdmissionControl(final int min, final int max, final int perclient,
+        final Duration target) {
+        if (min <= 0 || max < min) {
+            throw new IllegalArgumentException(
+                String.format("Invalid limit range: %d..%d", min, max)
+            );
+        }
+        if (perclient <= 0) {
+            throw new IllegalArgumentException("Client limit must be positive");
+        }
+        this.min = min;
+        this.max = max;
+        this.perclient = perclient;
+        this.target = target.toNanos();
+        this.active = new AtomicInteger();
+        this.clients = new ConcurrentHashMap<>();
+        this.unavailable = new LongAdder();
+        this.throttled = new LongAdder();
+        this.current = max;
+        this.decreased = System.nanoTime() - this.target;
+    }
+
+    /**
+     * Current limit of requests served concurrently.
+     * @return Limit
+     */
+    public int limit() {
+        return this.current;
+    }
+
+    /**
+     * Number of requests being served.
+     * @return Count
+     */
+    public int active() {
+        return this.active.get();
+    }
+
+    /**
+     * Number of requests rejected because server limit was reached.
+     * @return Count
+     */
+    public long rejected() {
+        return this.unavailable.sum();
+    }
+
+    /**
+     * Number of requests rejected because client limit was reached.
+     * @return Count
+     */
+    public long throttled() {
+        return this.throttled.sum();
+    }
+
+    /**
+     * Admit request.
+     * @param client Client address
+     * @return Status code: {@code 200} if request is admitted, {@code 503} or
+     *  {@code 429} if it's rejected
+     */
+    int admit(final String client) {
+        final int res;
+        if (this.active.incrementAndGet() > this.current) {
+            this.active.decrementAndGet();
+            this.unavailable.increment();
+            res = HttpURLConnection.HTTP_UNAVAILABLE;
+        } else if (this.perclient < Integer.MAX_VALUE
+            && this.clients.merge(client, 1, AdmissionControl::sum) > this.perclient) {
+            this.clients.merge(client, -1, AdmissionControl::sum);
+            this.active.decrementAndGet();
+            this.throttled.increment();
+            res = AdmissionControl.TOO_MANY_REQUESTS;
+        } else {
+            res = HttpURLConnection.HTTP_OK;
+        }
+        return res;
+    }
+
+    /**
+     * Release admitted request.
+     * @param client Client address
+     * @param latency Time to first byte in nanoseconds, negative if unknown
+     */
+    void release(final String client, final long latency) {
+        final int inflight = this.active.getAndDecrement();
+        if (this.perclient < Integer.MAX_VALUE) {
+            this.clients.merge(client, -1, AdmissionControl::sum);
+        }
+        if (this.target > 0L && latency >= 0L) {
+            this.sample(latency, inflight);
+        }
+    }
+
+    /**
+     * Adjust adaptive limit by latency sample.
+     * @param latency Time to first byte in nanoseconds
+     * @param inflight Number of active requests including sampled one
+     */
+    private synchronized void sample(final long latency, final int inflight) {
+        final int limit = this.current;
+        if (latency > this.target) {
+            final long now = System.nanoTime();
+            if (now - this.decreased >= this.target) {
+                this.decreased = now;
+                this.current = Math.max(this.min, (int) (limit * AdmissionControl.BACKOFF));
+            }
+        } else if (limit < this.max && inflight * 2 >= limit) {
+            this.current = limit + 1;
+        }
+    }
+
+    /**
+     * Sum of client requests, zero removes the client.
+     * @param count Current count
+     * @param delta Delta
+     * @return New count or null if it's zero
+     */
+    private static Integer sum(final Integer count, final Integer delta) {
+        final int sum = count + delta;
+        final Integer res;
+        if (sum == 0) {
+            res = null;
+        } else {
+            res = sum;
+        }
+        return res;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "limit=%d, active=%d, rejected=%d, throttled=%d, target=%dms",
+            this.current, this.active.get(), this.rejected(), this.throttled(),
+            TimeUnit.NANOSECONDS.toMillis(this.target)
+        );
+    }
+}
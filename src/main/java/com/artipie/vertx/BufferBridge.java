@@ -0,0 +1,63 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.reactivex.core.buffer.Buffer;
+import java.nio.ByteBuffer;
+
+/**
+ * Zero-copy bridge between Vert.x {@link Buffer} and Java {@link ByteBuffer}.
+ * <p>
+ * Ownership rules:
+ * </p>
+ * <ul>
+ *     <li>Request chunks are unpooled heap buffers (Vert.x copies pooled
+ *     socket data before passing it to request handlers), so a view of such
+ *     chunk is owned by garbage collector and never needs to be released.</li>
+ *     <li>Response chunks are wrapped without copying, the connection takes
+ *     ownership of the emitted {@link ByteBuffer}: body publisher must not
+ *     modify or reuse it after emission. Wrapped direct buffers are not freed
+ *     on release, their memory is still managed by the publisher or by GC.</li>
+ * </ul>
+ * @since 0.4
+ */
+final class BufferBridge {
+
+    /**
+     * Ctor.
+     */
+    private BufferBridge() {
+    }
+
+    /**
+     * Expose Vert.x buffer as {@link ByteBuffer} view of the same memory.
+     * @param buffer Vert.x buffer
+     * @return Byte buffer sharing content with Vert.x buffer
+     */
+    static ByteBuffer view(final Buffer buffer) {
+        return BufferBridge.view(buffer.getDelegate());
+    }
+
+    /**
+     * Expose Vert.x core buffer as {@link ByteBuffer} view of the same memory.
+     * @param buffer Vert.x core buffer
+     * @return Byte buffer sharing content with Vert.x buffer
+     */
+    static ByteBuffer view(final io.vertx.core.buffer.Buffer buffer) {
+        return buffer.getByteBuf().nioBuffer();
+    }
+
+    /**
+     * Wrap remaining bytes of {@link ByteBuffer} into Vert.x buffer without copying.
+     * @param buffer Java byte buffer
+     * @return Vert.x buffer sharing content with byte buffer
+     */
+    static Buffer wrap(final ByteBuffer buffer) {
+        return Buffer.newInstance(
+            io.vertx.core.buffer.Buffer.buffer(Unpooled.wrappedBuffer(buffer))
+        );
+    }
+}
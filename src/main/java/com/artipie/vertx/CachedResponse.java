@@ -0,0 +1,216 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response of {@link ResponseCache}: headers and body of {@code 200 OK}
+ * response with validators and expiration time.
+ * @since 0.4
+ */
+final class CachedResponse {
+
+    /**
+     * Headers which are sent with {@code 304 Not Modified} response,
+     * RFC 7232, section 4.1.
+     */
+    private static final String[] NOT_MODIFIED = {
+        "Cache-Control", "Content-Location", "Date", "ETag", "Expires", "Last-Modified", "Vary",
+    };
+
+    /**
+     * Response headers.
+     */
+    private final List<Map.Entry<String, String>> headers;
+
+    /**
+     * Response body, read-only direct buffer.
+     */
+    private final ByteBuffer body;
+
+    /**
+     * Expiration time as {@link System#nanoTime()}.
+     */
+    private final long expires;
+
+    /**
+     * Ctor.
+     * @param headers Response headers
+     * @param body Response body
+     * @param expires Expiration time as {@link System#nanoTime()}
+     */
+    CachedResponse(final List<Map.Entry<String, String>> headers, final ByteBuffer body,
+        final long expires) {
+        this.headers = headers;
+        this.body = body;
+        this.expires = expires;
+    }
+
+    /**
+     * Body size.
+     * @return Size in bytes
+     */
+    long size() {
+        return this.body.remaining();
+    }
+
+    /**
+     * Whether response is not expired.
+     * @param now Current {@link System#nanoTime()}
+     * @return True if fresh
+     */
+    boolean fresh(final long now) {
+        return now - this.expires < 0L;
+    }
+
+    /**
+     * Response to request, it's {@code 304 Not Modified} if
+     * request preconditions are not met.
+     * @param rqheaders Request headers
+     * @param head Whether it's {@code HEAD} request
+     * @return Response
+     */
+    Response response(final Iterable<Map.Entry<String, String>> rqheaders, final boolean head) {
+        final Response res;
+        if (this.modified(rqheaders)) {
+            final Flowable<ByteBuffer> content;
+            if (head) {
+                content = Flowable.empty();
+            } else {
+                content = Flowable.just(this.body.duplicate());
+            }
+            res = connection -> connection.accept(
+                RsStatus.OK, new Headers.From(this.headers), content
+            );
+        } else {
+            final List<Map.Entry<String, String>> validators =
+                new ArrayList<>(CachedResponse.NOT_MODIFIED.length);
+            for (final Map.Entry<String, String> header : this.headers) {
+                for (final String name : CachedResponse.NOT_MODIFIED) {
+                    if (name.equalsIgnoreCase(header.getKey())) {
+                        validators.add(header);
+                    }
+                }
+            }
+            res = connection -> connection.accept(
+                RsStatus.NOT_MODIFIED, new Headers.From(validators), Flowable.empty()
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Whether the response is modified according to conditional request
+     * headers, RFC 7232, section 6: {@code If-Modified-Since} is ignored if
+     * {@code If-None-Match} is present.
+     * @param rqheaders Request headers
+     * @return True if full response should be sent
+     */
+    private boolean modified(final Iterable<Map.Entry<String, String>> rqheaders) {
+        String match = null;
+        String since = null;
+        for (final Map.Entry<String, String> header : rqheaders) {
+            if ("If-None-Match".equalsIgnoreCase(header.getKey())) {
+                match = header.getValue();
+            } else if ("If-Modified-Since".equalsIgnoreCase(header.getKey())) {
+                since = header.getValue();
+            }
+        }
+        final boolean res;
+        if (match != null) {
+            res = !CachedResponse.matches(match, this.header("ETag"));
+        } else if (since != null) {
+            final long modified = CachedResponse.time(this.header("Last-Modified"));
+            final long threshold = CachedResponse.time(since);
+            res = modified < 0L || threshold < 0L || modified > threshold;
+        } else {
+            res = true;
+        }
+        return res;
+    }
+
+    /**
+     * Value of response header.
+     * @param name Header name
+     * @return Value or null if there is no such header
+     */
+    private String header(final String name) {
+        String res = null;
+        for (final Map.Entry<String, String> header : this.headers) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                res = header.getValue();
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Whether {@code If-None-Match} value matches entity tag,
+     * weak comparison is used.
+     * @param match Value of {@code If-None-Match}
+     * @param etag Entity tag, null if unknown
+     * @return True if it matches
+     */
+    private static boolean matches(final String match, final String etag) {
+        boolean res = false;
+        if (etag != null) {
+            final String tag = CachedResponse.opaque(etag);
+            for (final String item : match.split(",")) {
+                final String candidate = item.trim();
+                if ("*".equals(candidate) || CachedResponse.opaque(candidate).equals(tag)) {
+                    res = true;
+                    break;
+                }
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Opaque tag of entity tag, without weakness indicator.
+     * @param etag Entity tag
+     * @return Opaque tag
+     */
+    private static String opaque(final String etag) {
+        final String res;
+        if (etag.startsWith("W/")) {
+            res = etag.substring(2);
+        } else {
+            res = etag;
+        }
+        return res;
+    }
+
+    /**
+     * Parse HTTP date in seconds, comparisons of HTTP dates are done
+     * with seconds precision.
+     * @param date HTTP date, null if unknown
+     * @return Epoch seconds or negative value if it's unknown or invalid
+     */
+    private static long time(final String date) {
+        long res = -1L;
+        if (date != null) {
+            try {
+                res = ZonedDateTime.parse(date, DateTimeFormatter.RFC_1123_DATE_TIME)
+                    .toEpochSecond();
+            } catch (final DateTimeParseException ex) {
+                res = -1L;
+            }
+        }
+        return res;
+    }
+}
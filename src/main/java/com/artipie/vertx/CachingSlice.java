@@ -0,0 +1,341 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Connection;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which answers {@code GET} and {@code HEAD} requests from
+ * {@link ResponseCache} and stores cacheable responses of origin slice.
+ * <p>
+ * Requests with {@code Cache-Control: no-cache} or {@code Pragma: no-cache}
+ * headers are passed to origin slice as is. Range requests are answered with
+ * full cached response, ranges are cut by the server.
+ * Responses to requests with {@code Authorization} are cached only if
+ * they are explicitly {@code public}.
+ * </p>
+ * @since 0.4
+ */
+final class CachingSlice implements Slice {
+
+    /**
+     * Response headers which are not stored in the cache, since they are
+     * specific to the response: cookies of the client, date of the response
+     * and hop-by-hop headers of its connection.
+     */
+    private static final String[] UNSTORED = {
+        "Set-Cookie", "Set-Cookie2", "Date", "Connection", "Keep-Alive", "Proxy-Connection",
+        "Transfer-Encoding", "Upgrade",
+    };
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Response cache.
+     */
+    private final ResponseCache cache;
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     * @param cache Response cache
+     */
+    CachingSlice(final Slice origin, final ResponseCache cache) {
+        this.origin = origin;
+        this.cache = cache;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        final RequestLineFrom rql = new RequestLineFrom(line);
+        final RqMethod method = rql.method();
+        final Response res;
+        if ((method == RqMethod.GET || method == RqMethod.HEAD) && CachingSlice.cached(headers)) {
+            final String key = this.key(rql.uri().toString(), headers);
+            final CachedResponse cached = this.cache.get(key);
+            if (cached != null) {
+                res = cached.response(headers, method == RqMethod.HEAD);
+            } else if (method == RqMethod.GET) {
+                final Response rsp = this.origin.response(line, headers, body);
+                final boolean auth = CachingSlice.authorized(headers);
+                res = connection -> rsp.send(this.storing(key, auth, connection));
+            } else {
+                res = this.origin.response(line, headers, body);
+            }
+        } else {
+            res = this.origin.response(line, headers, body);
+        }
+        return res;
+    }
+
+    /**
+     * Connection which copies cacheable response to the cache while
+     * it's sent to the client.
+     * @param key Response key
+     * @param auth Whether request has {@code Authorization} header
+     * @param connection Origin connection
+     * @return Connection
+     */
+    private Connection storing(final String key, final boolean auth,
+        final Connection connection) {
+        return (status, headers, body) -> {
+            final long ttl;
+            if (status == RsStatus.OK) {
+                ttl = CachingSlice.ttl(headers, auth, this.cache.vary());
+            } else {
+                ttl = -1L;
+            }
+            final long length = CachingSlice.length(headers);
+            final Publisher<ByteBuffer> content;
+            if (ttl > 0L && length >= 0L && this.cache.admits(key, length)) {
+                final long expires = System.nanoTime() + TimeUnit.SECONDS.toNanos(ttl);
+                final AtomicReference<ByteBuffer> copy = new AtomicReference<>();
+                final AtomicBoolean overflow = new AtomicBoolean();
+                final List<Map.Entry<String, String>> stored = new ArrayList<>(10);
+                for (final Map.Entry<String, String> header : headers) {
+                    if (CachingSlice.storable(header.getKey())) {
+                        stored.add(header);
+                    }
+                }
+                content = Flowable.fromPublisher(body).doOnNext(
+                    item -> {
+                        if (!overflow.get()) {
+                            if (copy.get() == null) {
+                                copy.set(ByteBuffer.allocateDirect((int) length));
+                            }
+                            if (item.remaining() > copy.get().remaining()) {
+                                overflow.set(true);
+                                copy.set(null);
+                            } else {
+                                copy.get().put(item.duplicate());
+                            }
+                        }
+                    }
+                ).doOnComplete(
+                    () -> {
+                        ByteBuffer filled = copy.getAndSet(null);
+                        if (filled == null && length == 0L && !overflow.get()) {
+                            filled = ByteBuffer.allocateDirect(0);
+                        }
+                        if (filled != null && !filled.hasRemaining()) {
+                            filled.flip();
+                            this.cache.put(
+                                key, new CachedResponse(stored, filled.asReadOnlyBuffer(), expires)
+                            );
+                        }
+                    }
+                ).doOnCancel(() -> copy.set(null));
+            } else {
+                content = body;
+            }
+            return connection.accept(status, headers, content);
+        };
+    }
+
+    /**
+     * Whether response header is stored in the cache.
+     * @param name Header name
+     * @return False for headers which are specific to the response
+     */
+    private static boolean storable(final String name) {
+        boolean res = true;
+        for (final String unstored : CachingSlice.UNSTORED) {
+            if (unstored.equalsIgnoreCase(name)) {
+                res = false;
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Cache key of request.
+     * @param uri Request URI
+     * @param headers Request headers
+     * @return Key
+     */
+    private String key(final String uri, final Iterable<Map.Entry<String, String>> headers) {
+        final StringBuilder res = new StringBuilder(uri);
+        for (final Map.Entry<String, String> header : headers) {
+            if ("Host".equalsIgnoreCase(header.getKey())) {
+                res.append("\nhost:").append(header.getValue());
+            }
+        }
+        for (final String name : this.cache.vary()) {
+            res.append('\n').append(name).append(':');
+            for (final Map.Entry<String, String> header : headers) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    res.append(header.getValue()).append(',');
+                }
+            }
+        }
+        return res.toString();
+    }
+
+    /**
+     * Whether response to request may be taken from the cache.
+     * @param headers Request headers
+     * @return False if request forbids cached responses
+     */
+    private static boolean cached(final Iterable<Map.Entry<String, String>> headers) {
+        boolean res = true;
+        for (final Map.Entry<String, String> header : headers) {
+            final String name = header.getKey();
+            if (("Cache-Control".equalsIgnoreCase(name) || "Pragma".equalsIgnoreCase(name))
+                && CachingSlice.directive(header.getValue(), "no-cache") != null) {
+                res = false;
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Whether request has {@code Authorization} header.
+     * @param headers Request headers
+     * @return True if it's authorized
+     */
+    private static boolean authorized(final Iterable<Map.Entry<String, String>> headers) {
+        boolean res = false;
+        for (final Map.Entry<String, String> header : headers) {
+            if ("Authorization".equalsIgnoreCase(header.getKey())) {
+                res = true;
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Time to live of response in shared cache according to its
+     * {@code Cache-Control} and {@code Vary} headers, RFC 7234, section 3.
+     * @param headers Response headers
+     * @param auth Whether request has {@code Authorization} header
+     * @param vary Names of request headers responses are keyed by
+     * @return Seconds, zero or negative if response is not cacheable
+     * @checkstyle CyclomaticComplexityCheck (40 lines)
+     */
+    private static long ttl(final Headers headers, final boolean auth,
+        final List<String> vary) {
+        long age = -1L;
+        long shared = -1L;
+        boolean allowed = !auth;
+        boolean forbidden = false;
+        for (final Map.Entry<String, String> header : headers) {
+            final String name = header.getKey();
+            final String value = header.getValue();
+            if ("Cache-Control".equalsIgnoreCase(name)) {
+                forbidden = forbidden || CachingSlice.directive(value, "no-store") != null
+                    || CachingSlice.directive(value, "no-cache") != null
+                    || CachingSlice.directive(value, "private") != null;
+                allowed = allowed || CachingSlice.directive(value, "public") != null;
+                age = Math.max(age, CachingSlice.seconds(CachingSlice.directive(value, "max-age")));
+                shared = Math.max(
+                    shared, CachingSlice.seconds(CachingSlice.directive(value, "s-maxage"))
+                );
+            } else if ("Vary".equalsIgnoreCase(name)) {
+                for (final String item : value.split(",")) {
+                    forbidden = forbidden
+                        || !vary.contains(item.trim().toLowerCase(Locale.US));
+                }
+            }
+        }
+        final long res;
+        if (forbidden || !allowed) {
+            res = -1L;
+        } else if (shared >= 0L) {
+            res = shared;
+        } else {
+            res = age;
+        }
+        return res;
+    }
+
+    /**
+     * Value of {@code Content-Length} response header.
+     * @param headers Response headers
+     * @return Length or negative value if it's unknown
+     */
+    private static long length(final Headers headers) {
+        long res = -1L;
+        for (final Map.Entry<String, String> header : headers) {
+            if ("Content-Length".equalsIgnoreCase(header.getKey())) {
+                try {
+                    res = Long.parseLong(header.getValue().trim());
+                } catch (final NumberFormatException ex) {
+                    res = -1L;
+                }
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Find directive of {@code Cache-Control} header.
+     * @param value Header value
+     * @param name Directive name
+     * @return Directive argument, empty if it has none, null if there is no directive
+     */
+    private static String directive(final String value, final String name) {
+        String res = null;
+        for (final String item : value.split(",")) {
+            final String directive = item.trim();
+            final int eqs = directive.indexOf('=');
+            final String key;
+            if (eqs < 0) {
+                key = directive;
+            } else {
+                key = directive.substring(0, eqs).trim();
+            }
+            if (key.equalsIgnoreCase(name)) {
+                if (eqs < 0) {
+                    res = "";
+                } else {
+                    res = directive.substring(eqs + 1).trim().replace("\"", "");
+                }
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Parse delta seconds argument of directive.
+     * @param arg Directive argument, null if there is no directive
+     * @return Seconds or negative value if it's absent or invalid
+     */
+    private static long seconds(final String arg) {
+        long res = -1L;
+        if (arg != null) {
+            try {
+                res = Long.parseLong(arg);
+            } catch (final NumberFormatException ex) {
+                res = -1L;
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Common and combined log formats, as Apache HTTP server writes them.
+ * User is always unknown. Quotes, backslashes and control characters
+ * of quoted fields are escaped.
+ * @since 0.4
+ */
+final class CommonLogFormat implements AccessLogFormat {
+
+    /**
+     * Format of request time.
+     */
+    private static final DateTimeFormatter TIME = DateTimeFormatter
+        .ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.US)
+        .withZone(ZoneId.systemDefault());
+
+    /**
+     * Hex digits to escape characters with.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Bits of hex digit.
+     */
+    private static final int DIGIT = 4;
+
+    /**
+     * Mask of low hex digit.
+     */
+    private static final int LOW = 0xf;
+
+    /**
+     * Delete control character.
+     */
+    private static final char DEL = 0x7f;
+
+    /**
+     * Whether {@code Referer} and {@code User-Agent} headers are appended.
+     */
+    private final boolean combined;
+
+    /**
+     * Ctor.
+     * @param combined Whether {@code Referer} and {@code User-Agent}
+     *  headers are appended
+     */
+    CommonLogFormat(final boolean combined) {
+        this.combined = combined;
+    }
+
+    @Override
+    public void format(final AccessLogEntry entry, final StringBuilder line) {
+        CommonLogFormat.field(entry.client(), line);
+        line.append(" - - [");
+        CommonLogFormat.TIME.formatTo(Instant.ofEpochMilli(entry.time()), line);
+        line.append("] \"");
+        CommonLogFormat.escaped(entry.method(), line);
+        line.append(' ');
+        CommonLogFormat.escaped(entry.uri(), line);
+        line.append(' ');
+        CommonLogFormat.escaped(entry.protocol(), line);
+        line.append("\" ").append(entry.status()).append(' ');
+        if (entry.sent() > 0L) {
+            line.append(entry.sent());
+        } else {
+            line.append('-');
+        }
+        if (this.combined) {
+            line.append(" \"");
+            CommonLogFormat.field(entry.referer(), line);
+            line.append("\" \"");
+            CommonLogFormat.field(entry.agent(), line);
+            line.append('"');
+        }
+    }
+
+    /**
+     * Append escaped field or dash if it's empty.
+     * @param value Field value
+     * @param line Line
+     */
+    private static void field(final String value, final StringBuilder line) {
+        if (value.isEmpty()) {
+            line.append('-');
+        } else {
+            CommonLogFormat.escaped(value, line);
+        }
+    }
+
+    /**
+     * Append escaped value.
+     * @param value Value
+     * @param line Line
+     */
+    private static void escaped(final String value, final StringBuilder line) {
+        final int len = value.length();
+        for (int idx = 0; idx < len; ++idx) {
+            final char chr = value.charAt(idx);
+            if (chr == '"' || chr == '\\') {
+                line.append('\\').append(chr);
+            } else if (chr < ' ' || chr == CommonLogFormat.DEL) {
+                line.append("\\x").append(CommonLogFormat.HEX[chr >> CommonLogFormat.DIGIT])
+                    .append(CommonLogFormat.HEX[chr & CommonLogFormat.LOW]);
+            } else {
+                line.append(chr);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Connection;
+import com.artipie.http.Headers;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rs.RsStatus;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import org.reactivestreams.Publisher;
+
+/**
+ * Connection which decides whether response is worth compressing.
+ * <p>
+ * Vert.x compresses responses according to {@code Accept-Encoding} request
+ * header when compression is enabled in server options. This connection
+ * excludes responses which are smaller than minimal size or have content type
+ * which is already compressed (archives, images, etc.) by setting
+ * {@code Content-Encoding: identity}, Vert.x skips compression for such responses.
+ * Responses with {@code Content-Encoding} set by slice, e.g. precompressed
+ * variants, are sent as is.
+ * </p>
+ * @since 0.4
+ */
+final class CompressionConnection implements Connection {
+
+    /**
+     * Content encoding header name.
+     */
+    private static final String ENCODING = "Content-Encoding";
+
+    /**
+     * Origin connection.
+     */
+    private final Connection origin;
+
+    /**
+     * Min size of response body to compress in bytes.
+     */
+    private final int min;
+
+    /**
+     * Content types which are not compressed, type prefixes end with slash.
+     */
+    private final Collection<String> types;
+
+    /**
+     * Ctor.
+     * @param origin Origin connection
+     * @param min Min size of response body to compress in bytes
+     * @param types Content types which are not compressed
+     */
+    CompressionConnection(final Connection origin, final int min,
+        final Collection<String> types) {
+        this.origin = origin;
+        this.min = min;
+        this.types = types;
+    }
+
+    @Override
+    public CompletionStage<Void> accept(final RsStatus status, final Headers headers,
+        final Publisher<ByteBuffer> body) {
+        boolean encoded = false;
+        boolean compress = true;
+        final List<Map.Entry<String, String>> all = new ArrayList<>(10);
+        for (final Map.Entry<String, String> header : headers) {
+            final String name = header.getKey();
+            if (CompressionConnection.ENCODING.equalsIgnoreCase(name)) {
+                encoded = true;
+            } else if ("Content-Length".equalsIgnoreCase(name)) {
+                compress = compress && this.large(header.getValue());
+            } else if ("Content-Type".equalsIgnoreCase(name)) {
+                compress = compress && this.compressible(header.getValue());
+            }
+            all.add(header);
+        }
+        final CompletionStage<Void> res;
+        if (encoded) {
+            res = this.origin.accept(status, headers, body);
+        } else {
+            if (compress) {
+                all.add(new Header("Vary", "Accept-Encoding"));
+            } else {
+                all.add(new Header(CompressionConnection.ENCODING, "identity"));
+            }
+            res = this.origin.accept(status, new Headers.From(all), body);
+        }
+        return res;
+    }
+
+    /**
+     * Whether response is large enough to compress, responses with malformed
+     * {@code Content-Length} are of unknown length, like chunked responses.
+     * @param length Content-Length header value
+     * @return True if response is not smaller than min size
+     */
+    private boolean large(final String length) {
+        boolean res;
+        try {
+            res = Long.parseLong(length.trim()) >= this.min;
+        } catch (final NumberFormatException ex) {
+            res = true;
+        }
+        return res;
+    }
+
+    /**
+     * Whether content type is worth compressing.
+     * @param type Content type header value
+     * @return True if not listed as incompressible
+     */
+    private boolean compressible(final String type) {
+        final int semicolon = type.indexOf(';');
+        final String mime;
+        if (semicolon < 0) {
+            mime = type.trim().toLowerCase(Locale.US);
+        } else {
+            mime = type.substring(0, semicolon).trim().toLowerCase(Locale.US);
+        }
+        boolean res = true;
+        for (final String excluded : this.types) {
+            if (excluded.endsWith("/") && mime.startsWith(excluded) || excluded.equals(mime)) {
+                res = false;
+                break;
+            }
+        }
+        return res;
+    }
+}
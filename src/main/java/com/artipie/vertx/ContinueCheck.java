@@ -0,0 +1,46 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Response;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Pre-check of requests with {@code Expect: 100-continue} header.
+ * <p>
+ * {@link VertxSliceServer} calls it with request line and headers before
+ * the slice is invoked and before {@code 100 Continue} is sent. A rejected
+ * request is answered with the final response and the connection is closed,
+ * so the client doesn't upload the body at all, e.g. for failed
+ * authentication or exceeded quota. Accepted requests are passed to the
+ * slice and {@code 100 Continue} is sent when the slice starts reading
+ * the body.
+ * </p>
+ * <p>
+ * The check is called on event loop threads, so it has to be cheap
+ * and non-blocking.
+ * </p>
+ * @since 0.4
+ */
+public interface ContinueCheck {
+
+    /**
+     * Check which accepts all requests.
+     */
+    ContinueCheck ACCEPT = (line, headers) -> CompletableFuture.completedFuture(Optional.empty());
+
+    /**
+     * Check request before its body is uploaded.
+     * @param line Request line
+     * @param headers Request headers
+     * @return Final response if request is rejected, empty if it's accepted
+     */
+    CompletionStage<Optional<Response>> check(
+        String line, Iterable<Map.Entry<String, String>> headers
+    );
+}
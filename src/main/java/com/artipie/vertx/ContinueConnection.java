@@ -6,40 +6,83 @@ package com.artipie.vertx;
 
 import com.artipie.http.Connection;
 import com.artipie.http.Headers;
+import com.artipie.http.headers.Header;
 import com.artipie.http.rs.RsStatus;
-import io.vertx.reactivex.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.reactivex.core.http.HttpServerRequest;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.reactivestreams.Publisher;
 
 /**
  * Connection which supports {@code 100 Continue} status code responses.
  * <p>
- * It sends continue status to client and then delegates other work to origin connection.
+ * If request expects {@code 100 Continue}, it's sent once: either when
+ * the body is read with {@link #proceed()} or when slice responds with
+ * continue status. If the final response comes first, the body wasn't
+ * requested from the client, so HTTP/1.1 connection is closed after the
+ * response instead of reading the body. Other work is delegated
+ * to origin connection.
  * </p>
  * @since 0.2
  */
 final class ContinueConnection implements Connection {
 
     /**
-     * Vertx response output.
+     * Request doesn't expect continue or it was handled by Vert.x.
      */
-    private final HttpServerResponse response;
+    private static final int NONE = 0;
+
+    /**
+     * Continue is expected but was not sent yet.
+     */
+    private static final int PENDING = 1;
+
+    /**
+     * Continue was sent.
+     */
+    private static final int SENT = 2;
+
+    /**
+     * Final response was sent instead of continue.
+     */
+    private static final int REJECTED = 3;
+
+    /**
+     * Vertx request.
+     */
+    private final HttpServerRequest request;
 
     /**
      * Origin HTTP connection.
      */
     private final Connection origin;
 
+    /**
+     * State of continue expectation.
+     */
+    private final AtomicInteger state;
+
     /**
      * Wraps origin connection with continue responses support.
-     * @param response Vertx response output
+     * @param request Vertx request
      * @param origin Origin connection
+     * @param expected Whether request expects continue which was not sent yet
      */
-    ContinueConnection(final HttpServerResponse response, final Connection origin) {
-        this.response = response;
+    ContinueConnection(final HttpServerRequest request, final Connection origin,
+        final boolean expected) {
+        this.request = request;
         this.origin = origin;
+        if (expected) {
+            this.state = new AtomicInteger(ContinueConnection.PENDING);
+        } else {
+            this.state = new AtomicInteger(ContinueConnection.NONE);
+        }
     }
 
     @Override
@@ -47,11 +90,46 @@ final class ContinueConnection implements Connection {
         final Publisher<ByteBuffer> body) {
         final CompletionStage<Void> res;
         if (status == RsStatus.CONTINUE) {
-            this.response.writeContinue();
+            if (this.state.get() == ContinueConnection.NONE) {
+                this.request.response().writeContinue();
+            } else {
+                this.proceed();
+            }
             res = CompletableFuture.completedFuture(null);
+        } else if (this.state.compareAndSet(ContinueConnection.PENDING, ContinueConnection.REJECTED)
+            && this.request.version() != HttpVersion.HTTP_2) {
+            res = this.origin.accept(
+                status, ContinueConnection.closing(headers), body
+            ).thenRun(() -> this.request.connection().close());
         } else {
             res = this.origin.accept(status, headers, body);
         }
         return res;
     }
+
+    /**
+     * Headers of rejection response with {@code Connection: close}.
+     * @param headers Response headers
+     * @return Headers
+     */
+    private static Headers closing(final Headers headers) {
+        final List<Map.Entry<String, String>> res = new ArrayList<>(10);
+        for (final Map.Entry<String, String> header : headers) {
+            if (!"Connection".equalsIgnoreCase(header.getKey())) {
+                res.add(header);
+            }
+        }
+        res.add(new Header("Connection", "close"));
+        return new Headers.From(res);
+    }
+
+    /**
+     * Send continue if it's expected and was not sent yet, it's called
+     * when request body is read.
+     */
+    void proceed() {
+        if (this.state.compareAndSet(ContinueConnection.PENDING, ContinueConnection.SENT)) {
+            this.request.response().writeContinue();
+        }
+    }
 }
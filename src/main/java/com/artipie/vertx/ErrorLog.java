@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.jcabi.log.Logger;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Log of request errors with stack traces.
+ * <p>
+ * Errors are logged on a background thread, so formatting of stack traces
+ * doesn't block event loops, and at most the given number of errors is
+ * logged per second. Errors over the rate or the queue capacity are
+ * counted and reported with the next logged error.
+ * </p>
+ * @since 0.4
+ */
+final class ErrorLog {
+
+    /**
+     * Max number of errors waiting to be logged.
+     */
+    private static final int CAPACITY = 64;
+
+    /**
+     * Max number of errors logged per second.
+     */
+    private final int rate;
+
+    /**
+     * Executor which logs errors.
+     */
+    private final ThreadPoolExecutor exec;
+
+    /**
+     * Number of errors which were not logged.
+     */
+    private final AtomicLong suppressed;
+
+    /**
+     * Current second.
+     */
+    private long second;
+
+    /**
+     * Number of errors logged in current second.
+     */
+    private int count;
+
+    /**
+     * Ctor.
+     * @param rate Max number of errors logged per second
+     */
+    ErrorLog(final int rate) {
+        this.rate = rate;
+        this.suppressed = new AtomicLong();
+        this.exec = new ThreadPoolExecutor(
+            1, 1, 1L, TimeUnit.MINUTES, new ArrayBlockingQueue<>(ErrorLog.CAPACITY),
+            task -> {
+                final Thread thread = new Thread(task, "vertx-slice-server-errors");
+                thread.setDaemon(true);
+                return thread;
+            },
+            (task, pool) -> this.suppressed.incrementAndGet()
+        );
+        this.exec.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Log error.
+     * @param id Error ID
+     * @param error Error
+     */
+    void log(final String id, final Throwable error) {
+        if (this.permit()) {
+            this.exec.execute(
+                () -> {
+                    final long skipped = this.suppressed.getAndSet(0L);
+                    if (skipped > 0L) {
+                        Logger.warn(this, "%d request errors were not logged", skipped);
+                    }
+                    Logger.error(this, "Request failed, error %s: %[exception]s", id, error);
+                }
+            );
+        } else {
+            this.suppressed.incrementAndGet();
+        }
+    }
+
+    /**
+     * Whether error can be logged according to the rate.
+     * @return True if it can be logged
+     */
+    private synchronized boolean permit() {
+        final long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        if (now != this.second) {
+            this.second = now;
+            this.count = 0;
+        }
+        final boolean res = this.count < this.rate;
+        if (res) {
+            this.count += 1;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import java.util.function.Consumer;
+
+/**
+ * HTTP request and response exchange being served.
+ * <p>
+ * It tracks timings of the exchange and notifies a callback once
+ * when the response is ended or the connection is closed before that.
+ * </p>
+ * @since 0.4
+ */
+final class Exchange {
+
+    /**
+     * Vert.x request.
+     */
+    private final HttpServerRequest req;
+
+    /**
+     * Start time in nanoseconds.
+     */
+    private final long start;
+
+    /**
+     * Time when response headers were written in nanoseconds, zero if not yet.
+     */
+    private volatile long first;
+
+    /**
+     * Time when exchange was finished in nanoseconds, zero if not yet.
+     */
+    private volatile long last;
+
+    /**
+     * New exchange, started now.
+     * @param req Vert.x request
+     */
+    Exchange(final HttpServerRequest req) {
+        this.req = req;
+        this.start = System.nanoTime();
+    }
+
+    /**
+     * Observe response of this exchange.
+     * @param done Callback to notify when exchange is finished
+     * @return Itself
+     */
+    Exchange observe(final Consumer<Exchange> done) {
+        final HttpServerResponse rsp = this.req.response();
+        rsp.headersEndHandler(ignored -> this.first = System.nanoTime());
+        rsp.endHandler(
+            ignored -> {
+                this.last = System.nanoTime();
+                done.accept(this);
+            }
+        );
+        return this;
+    }
+
+    /**
+     * Vert.x request.
+     * @return Request
+     */
+    HttpServerRequest request() {
+        return this.req;
+    }
+
+    /**
+     * Request method name.
+     * @return Method
+     */
+    String method() {
+        return this.req.method().name();
+    }
+
+    /**
+     * Response status code.
+     * @return Status code
+     */
+    int status() {
+        return this.req.response().getStatusCode();
+    }
+
+    /**
+     * Whether connection was closed before response was ended.
+     * @return True if aborted
+     */
+    boolean aborted() {
+        return !this.req.response().ended();
+    }
+
+    /**
+     * Time to first byte: from start to response headers in nanoseconds.
+     * @return Nanoseconds or -1 if headers were not written
+     */
+    long ttfb() {
+        final long time = this.first;
+        final long res;
+        if (time == 0L) {
+            res = -1L;
+        } else {
+            res = time - this.start;
+        }
+        return res;
+    }
+
+    /**
+     * Total duration of the exchange in nanoseconds.
+     * @return Nanoseconds, or time elapsed until now if not yet finished
+     */
+    long duration() {
+        long time = this.last;
+        if (time == 0L) {
+            time = System.nanoTime();
+        }
+        return time - this.start;
+    }
+
+    /**
+     * Number of request bytes received.
+     * @return Bytes
+     */
+    long received() {
+        return this.req.bytesRead();
+    }
+
+    /**
+     * Number of response body bytes sent.
+     * @return Bytes
+     */
+    long sent() {
+        return this.req.response().bytesWritten();
+    }
+}
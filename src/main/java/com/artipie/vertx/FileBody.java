@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.reactivex.Flowable;
+import io.reactivex.schedulers.Schedulers;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Response body backed by a region of a file.
+ * <p>
+ * When a slice responds with this body, {@link VertxSliceServer} sends the
+ * file region with {@code sendfile}, so the kernel copies it to the socket
+ * without reading it to user space. If it's not possible, e.g. for TLS or
+ * compressed connections, or if the body is wrapped by another publisher,
+ * the region is read and streamed in chunks as any other body.
+ * </p>
+ * @since 0.4
+ */
+public final class FileBody implements Publisher<ByteBuffer> {
+
+    /**
+     * Size of chunks to stream file with.
+     */
+    private static final int CHUNK = 64 * 1024;
+
+    /**
+     * File path.
+     */
+    private final Path file;
+
+    /**
+     * Region offset.
+     */
+    private final long start;
+
+    /**
+     * Region length.
+     */
+    private final long size;
+
+    /**
+     * Body of the whole file.
+     * @param file File path
+     * @throws IOException If failed to get file size
+     */
+    public FileBody(final Path file) throws IOException {
+        this(file, 0L, Files.size(file));
+    }
+
+    /**
+     * Body of file region.
+     * @param file File path
+     * @param offset Region offset
+     * @param length Region length
+     */
+    public FileBody(final Path file, final long offset, final long length) {
+        if (offset < 0L || length < 0L) {
+            throw new IllegalArgumentException(
+                String.format("Invalid file region: offset %d, length %d", offset, length)
+            );
+        }
+        this.file = file;
+        this.start = offset;
+        this.size = length;
+    }
+
+    /**
+     * File path.
+     * @return Path
+     */
+    public Path path() {
+        return this.file;
+    }
+
+    /**
+     * Region offset.
+     * @return Offset in bytes
+     */
+    public long offset() {
+        return this.start;
+    }
+
+    /**
+     * Region length.
+     * @return Length in bytes
+     */
+    public long length() {
+        return this.size;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+        final long end = this.start + this.size;
+        Flowable.using(
+            () -> FileChannel.open(this.file, StandardOpenOption.READ),
+            channel -> Flowable.<ByteBuffer, Long>generate(
+                () -> this.start,
+                (pos, emitter) -> {
+                    final long next;
+                    if (pos < end) {
+                        final ByteBuffer chunk = ByteBuffer.allocate(
+                            (int) Math.min(FileBody.CHUNK, end - pos)
+                        );
+                        while (chunk.hasRemaining()) {
+                            if (channel.read(chunk, pos + chunk.position()) < 0) {
+                                throw new IOException(
+                                    String.format("Unexpected end of file %s", this.file)
+                                );
+                            }
+                        }
+                        chunk.flip();
+                        emitter.onNext(chunk);
+                        next = pos + chunk.remaining();
+                    } else {
+                        emitter.onComplete();
+                        next = pos;
+                    }
+                    return next;
+                }
+            ),
+            FileChannel::close
+        ).subscribeOn(Schedulers.io()).subscribe(subscriber);
+    }
+}
@@ -0,0 +1,257 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Connection;
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.reactivex.disposables.Disposable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice invocation shared by identical requests of {@link SingleFlightSlice}.
+ * <p>
+ * Requests join the flight until the response of the slice arrives, then
+ * the flight lands: it's closed for new requests and the response body is
+ * shared by all joined requests. Each of them reads the body through its
+ * own bounded buffer, so a slow client doesn't hold back fast ones until
+ * its buffer is full. If all joined requests cancel the body, e.g. when
+ * clients disconnect, the body of the slice is cancelled too.
+ * </p>
+ * @since 0.4
+ */
+final class Flight {
+
+    /**
+     * Size of buffer of each request in body chunks.
+     */
+    private final int buffer;
+
+    /**
+     * Action to run when the flight is closed for new requests.
+     */
+    private final Runnable closed;
+
+    /**
+     * Shared response, when it arrives.
+     */
+    private final CompletableFuture<Shared> landed;
+
+    /**
+     * Number of requests sharing response.
+     */
+    private int joined;
+
+    /**
+     * Whether the flight is closed for new requests.
+     */
+    private boolean done;
+
+    /**
+     * Ctor.
+     * @param buffer Size of buffer of each request in body chunks
+     * @param closed Action to run when the flight is closed for new requests
+     */
+    Flight(final int buffer, final Runnable closed) {
+        this.buffer = buffer;
+        this.closed = closed;
+        this.landed = new CompletableFuture<>();
+        this.joined = 1;
+    }
+
+    /**
+     * Join request to the flight.
+     * @return False if the flight is closed for new requests
+     */
+    synchronized boolean join() {
+        final boolean res = !this.done;
+        if (res) {
+            this.joined += 1;
+        }
+        return res;
+    }
+
+    /**
+     * Send shared response to connection of joined request.
+     * @param connection Response connection
+     * @return Completion of response sending
+     */
+    CompletionStage<Void> send(final Connection connection) {
+        return this.landed.thenCompose(shared -> shared.send(connection));
+    }
+
+    /**
+     * Land the flight with slice response and send it to the connection
+     * of the first request.
+     * @param status Response status
+     * @param headers Response headers
+     * @param body Response body
+     * @param connection Response connection of the first request
+     * @return Completion of response sending
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    CompletionStage<Void> land(final RsStatus status, final Headers headers,
+        final Publisher<ByteBuffer> body, final Connection connection) {
+        final int count = this.close();
+        final AtomicReference<Disposable> upstream = new AtomicReference<>();
+        final Shared shared = new Shared(
+            status, headers,
+            Flowable.fromPublisher(body).publish(this.buffer).autoConnect(count, upstream::set),
+            this.buffer,
+            new Departures(count, upstream)
+        );
+        this.landed.complete(shared);
+        return shared.send(connection);
+    }
+
+    /**
+     * Fail joined requests if the flight didn't land.
+     * @param error Error of the first request
+     */
+    void fail(final Throwable error) {
+        this.close();
+        this.landed.completeExceptionally(error);
+    }
+
+    /**
+     * Close the flight for new requests.
+     * @return Number of joined requests
+     */
+    private int close() {
+        final int res;
+        synchronized (this) {
+            this.done = true;
+            res = this.joined;
+        }
+        this.closed.run();
+        return res;
+    }
+
+    /**
+     * Response shared by joined requests.
+     * @since 0.4
+     */
+    private static final class Shared {
+
+        /**
+         * Response status.
+         */
+        private final RsStatus status;
+
+        /**
+         * Response headers.
+         */
+        private final Headers headers;
+
+        /**
+         * Response body, it's connected when all requests are subscribed.
+         */
+        private final Flowable<ByteBuffer> body;
+
+        /**
+         * Size of buffer of each request in body chunks.
+         */
+        private final int buffer;
+
+        /**
+         * Requests which cancelled the body.
+         */
+        private final Departures departures;
+
+        /**
+         * Ctor.
+         * @param status Response status
+         * @param headers Response headers
+         * @param body Response body
+         * @param buffer Size of buffer of each request in body chunks
+         * @param departures Requests which cancelled the body
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Shared(final RsStatus status, final Headers headers, final Flowable<ByteBuffer> body,
+            final int buffer, final Departures departures) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+            this.buffer = buffer;
+            this.departures = departures;
+        }
+
+        /**
+         * Send response to connection. If connection fails without reading
+         * the body, its subscription is cancelled, so other requests
+         * don't wait for it.
+         * @param connection Response connection
+         * @return Completion of response sending
+         */
+        CompletionStage<Void> send(final Connection connection) {
+            final AtomicBoolean subscribed = new AtomicBoolean();
+            return connection.accept(
+                this.status, this.headers,
+                Flowable.defer(
+                    () -> {
+                        subscribed.set(true);
+                        return this.body.rebatchRequests(this.buffer)
+                            .map(ByteBuffer::duplicate)
+                            .doOnCancel(this.departures::leave);
+                    }
+                )
+            ).whenComplete(
+                (ignored, err) -> {
+                    if (err != null && !subscribed.getAndSet(true)) {
+                        this.body.subscribe().dispose();
+                        this.departures.leave();
+                    }
+                }
+            );
+        }
+    }
+
+    /**
+     * Requests which cancelled shared body, the body of the slice is
+     * cancelled when all of them have left.
+     * @since 0.4
+     */
+    private static final class Departures {
+
+        /**
+         * Number of requests which didn't cancel the body.
+         */
+        private final AtomicInteger remaining;
+
+        /**
+         * Connection of shared body to the body of the slice.
+         */
+        private final AtomicReference<Disposable> upstream;
+
+        /**
+         * Ctor.
+         * @param count Number of requests sharing the body
+         * @param upstream Connection of shared body to the body of the slice
+         */
+        Departures(final int count, final AtomicReference<Disposable> upstream) {
+            this.remaining = new AtomicInteger(count);
+            this.upstream = upstream;
+        }
+
+        /**
+         * Request cancelled the body.
+         */
+        void leave() {
+            if (this.remaining.decrementAndGet() == 0) {
+                final Disposable conn = this.upstream.get();
+                if (conn != null) {
+                    conn.dispose();
+                }
+            }
+        }
+    }
+}
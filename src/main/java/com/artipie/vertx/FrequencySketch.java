@@ -0,0 +1,121 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+/**
+ * Approximate frequency of keys, count-min sketch with 4-bit counters
+ * as used by TinyLFU admission policy.
+ * <p>
+ * Counters are halved after a number of increments equal to ten times
+ * the width of the sketch, so the frequency reflects recent popularity
+ * of keys rather than their whole history. The sketch is not thread
+ * safe, it's guarded by {@link ResponseCache}.
+ * </p>
+ * @since 0.4
+ */
+final class FrequencySketch {
+
+    /**
+     * Number of hash functions.
+     */
+    private static final int DEPTH = 4;
+
+    /**
+     * Max value of counter.
+     */
+    private static final int MAX = 15;
+
+    /**
+     * Seeds of hash functions.
+     */
+    private static final int[] SEEDS = {0x97cb3127, 0xc2b2ae35, 0x85ebca6b, 0x27d4eb2f};
+
+    /**
+     * Counters, one row of width counters per hash function.
+     */
+    private final byte[] table;
+
+    /**
+     * Width of row minus one, width is a power of two.
+     */
+    private final int mask;
+
+    /**
+     * Number of increments after which counters are halved.
+     */
+    private final int period;
+
+    /**
+     * Increments since counters were halved.
+     */
+    private int increments;
+
+    /**
+     * Ctor.
+     * @param width Min number of counters per hash function
+     */
+    FrequencySketch(final int width) {
+        final int size = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.table = new byte[size * FrequencySketch.DEPTH];
+        this.mask = size - 1;
+        this.period = size * 10;
+    }
+
+    /**
+     * Increment frequency of key.
+     * @param hash Key hash code
+     */
+    void increment(final int hash) {
+        boolean added = false;
+        for (int row = 0; row < FrequencySketch.DEPTH; ++row) {
+            final int idx = this.index(hash, row);
+            if (this.table[idx] < FrequencySketch.MAX) {
+                this.table[idx] += 1;
+                added = true;
+            }
+        }
+        if (added) {
+            this.increments += 1;
+            if (this.increments == this.period) {
+                this.reset();
+            }
+        }
+    }
+
+    /**
+     * Estimated frequency of key.
+     * @param hash Key hash code
+     * @return Frequency, at most 15
+     */
+    int frequency(final int hash) {
+        int res = FrequencySketch.MAX;
+        for (int row = 0; row < FrequencySketch.DEPTH; ++row) {
+            res = Math.min(res, this.table[this.index(hash, row)]);
+        }
+        return res;
+    }
+
+    /**
+     * Halve all counters.
+     */
+    private void reset() {
+        for (int idx = 0; idx < this.table.length; ++idx) {
+            this.table[idx] = (byte) (this.table[idx] >>> 1);
+        }
+        this.increments /= 2;
+    }
+
+    /**
+     * Index of key counter in row.
+     * @param hash Key hash code
+     * @param row Row
+     * @return Index in table
+     */
+    private int index(final int hash, final int row) {
+        int mixed = hash * FrequencySketch.SEEDS[row];
+        mixed ^= mixed >>> 16;
+        return row * (this.mask + 1) + (mixed & this.mask);
+    }
+}
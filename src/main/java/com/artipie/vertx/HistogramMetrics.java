@@ -0,0 +1,235 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Built-in lightweight metrics registry.
+ * <p>
+ * Counters are kept in preallocated arrays and latencies in
+ * {@link LatencyHistogram}s, so recording of requests doesn't allocate memory
+ * after the first request of each method and status pair. Metrics can be
+ * rendered in Prometheus text format with {@link #text()}.
+ * </p>
+ * @since 0.4
+ */
+public final class HistogramMetrics implements ServerMetrics {
+
+    /**
+     * Quantiles to render.
+     */
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    /**
+     * Metric name prefix.
+     */
+    private static final String PREFIX = "slice_server_";
+
+    /**
+     * Requests by method and status.
+     */
+    private final AtomicReferenceArray<LongAdder> requests;
+
+    /**
+     * Requests in flight.
+     */
+    private final LongAdder flight;
+
+    /**
+     * Aborted requests.
+     */
+    private final LongAdder aborts;
+
+    /**
+     * Bytes received.
+     */
+    private final LongAdder bytesin;
+
+    /**
+     * Bytes sent.
+     */
+    private final LongAdder bytesout;
+
+    /**
+     * Time to first byte.
+     */
+    private final LatencyHistogram first;
+
+    /**
+     * Total latency.
+     */
+    private final LatencyHistogram total;
+
+    /**
+     * New empty metrics.
+     */
+    public HistogramMetrics() {
+        this.requests = new AtomicReferenceArray<>(MethodStatus.SIZE);
+        this.flight = new LongAdder();
+        this.aborts = new LongAdder();
+        this.bytesin = new LongAdder();
+        this.bytesout = new LongAdder();
+        this.first = new LatencyHistogram();
+        this.total = new LatencyHistogram();
+    }
+
+    @Override
+    public void started() {
+        this.flight.increment();
+    }
+
+    @Override
+    public void completed(final String method, final int status, final long ttfb,
+        final long duration, final long received, final long sent) {
+        this.flight.decrement();
+        final int idx = MethodStatus.index(method, status);
+        LongAdder counter = this.requests.get(idx);
+        if (counter == null) {
+            this.requests.compareAndSet(idx, null, new LongAdder());
+            counter = this.requests.get(idx);
+        }
+        counter.increment();
+        if (ttfb >= 0L) {
+            this.first.record(ttfb);
+        }
+        this.total.record(duration);
+        this.bytesin.add(received);
+        this.bytesout.add(sent);
+    }
+
+    @Override
+    public void aborted(final String method, final long duration, final long received,
+        final long sent) {
+        this.flight.decrement();
+        this.aborts.increment();
+        this.bytesin.add(received);
+        this.bytesout.add(sent);
+    }
+
+    /**
+     * Number of requests being served.
+     * @return Count
+     */
+    public long inFlight() {
+        return this.flight.sum();
+    }
+
+    /**
+     * Number of completed requests with given method and status.
+     * @param method Request method
+     * @param status Response status code
+     * @return Count
+     */
+    public long requests(final String method, final int status) {
+        final LongAdder counter = this.requests.get(MethodStatus.index(method, status));
+        final long res;
+        if (counter == null) {
+            res = 0L;
+        } else {
+            res = counter.sum();
+        }
+        return res;
+    }
+
+    /**
+     * Time to first byte histogram.
+     * @return Histogram of nanoseconds
+     */
+    public LatencyHistogram ttfb() {
+        return this.first;
+    }
+
+    /**
+     * Total latency histogram.
+     * @return Histogram of nanoseconds
+     */
+    public LatencyHistogram duration() {
+        return this.total;
+    }
+
+    /**
+     * Render metrics in Prometheus text exposition format.
+     * @return Metrics text
+     */
+    public String text() {
+        final StringBuilder out = new StringBuilder(1024);
+        HistogramMetrics.single(out, "requests_in_flight", "gauge", this.flight.sum());
+        HistogramMetrics.type(out, "requests_total", "counter");
+        for (int idx = 0; idx < MethodStatus.SIZE; ++idx) {
+            final LongAdder counter = this.requests.get(idx);
+            if (counter != null) {
+                out.append(HistogramMetrics.PREFIX).append("requests_total{method=\"")
+                    .append(MethodStatus.method(idx)).append("\",status=\"")
+                    .append(MethodStatus.status(idx)).append("\"} ")
+                    .append(counter.sum()).append('\n');
+            }
+        }
+        HistogramMetrics.single(out, "requests_aborted_total", "counter", this.aborts.sum());
+        HistogramMetrics.single(out, "received_bytes_total", "counter", this.bytesin.sum());
+        HistogramMetrics.single(out, "sent_bytes_total", "counter", this.bytesout.sum());
+        HistogramMetrics.summary(out, "ttfb_seconds", this.first);
+        HistogramMetrics.summary(out, "duration_seconds", this.total);
+        return out.toString();
+    }
+
+    /**
+     * Render metric with single value.
+     * @param out Output
+     * @param name Metric name
+     * @param type Metric type
+     * @param value Metric value
+     */
+    private static void single(final StringBuilder out, final String name, final String type,
+        final long value) {
+        HistogramMetrics.type(out, name, type);
+        out.append(HistogramMetrics.PREFIX).append(name).append(' ').append(value).append('\n');
+    }
+
+    /**
+     * Render histogram as summary.
+     * @param out Output
+     * @param name Metric name
+     * @param histogram Histogram
+     */
+    private static void summary(final StringBuilder out, final String name,
+        final LatencyHistogram histogram) {
+        HistogramMetrics.type(out, name, "summary");
+        for (final double quantile : HistogramMetrics.QUANTILES) {
+            out.append(HistogramMetrics.PREFIX).append(name).append("{quantile=\"")
+                .append(quantile).append("\"} ")
+                .append(HistogramMetrics.seconds(histogram.quantile(quantile))).append('\n');
+        }
+        out.append(HistogramMetrics.PREFIX).append(name).append("_sum ")
+            .append(HistogramMetrics.seconds(histogram.sum())).append('\n')
+            .append(HistogramMetrics.PREFIX).append(name).append("_count ")
+            .append(histogram.count()).append('\n');
+    }
+
+    /**
+     * Render metric type line.
+     * @param out Output
+     * @param name Metric name
+     * @param type Metric type
+     */
+    private static void type(final StringBuilder out, final String name, final String type) {
+        out.append("# TYPE ").append(HistogramMetrics.PREFIX).append(name).append(' ')
+            .append(type).append('\n');
+    }
+
+    /**
+     * Format nanoseconds as seconds.
+     * @param nanos Nanoseconds
+     * @return Seconds text
+     */
+    private static String seconds(final long nanos) {
+        return String.format(
+            Locale.ROOT, "%.9f", (double) nanos / TimeUnit.SECONDS.toNanos(1L)
+        );
+    }
+}
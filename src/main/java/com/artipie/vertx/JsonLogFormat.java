@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON log format: one object per line with all fields of entry,
+ * time in ISO-8601 format and duration in microseconds. Absent headers
+ * are {@code null}.
+ * @since 0.4
+ */
+final class JsonLogFormat implements AccessLogFormat {
+
+    /**
+     * Hex digits to escape characters with.
+     */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Bits of hex digit.
+     */
+    private static final int DIGIT = 4;
+
+    /**
+     * Mask of low hex digit.
+     */
+    private static final int LOW = 0xf;
+
+    @Override
+    public void format(final AccessLogEntry entry, final StringBuilder line) {
+        line.append("{\"time\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(entry.time()), line);
+        line.append("\",\"client\":");
+        JsonLogFormat.string(entry.client(), line);
+        line.append(",\"method\":");
+        JsonLogFormat.string(entry.method(), line);
+        line.append(",\"uri\":");
+        JsonLogFormat.string(entry.uri(), line);
+        line.append(",\"protocol\":");
+        JsonLogFormat.string(entry.protocol(), line);
+        line.append(",\"status\":").append(entry.status())
+            .append(",\"received\":").append(entry.received())
+            .append(",\"sent\":").append(entry.sent())
+            .append(",\"duration_us\":").append(TimeUnit.NANOSECONDS.toMicros(entry.duration()))
+            .append(",\"referer\":");
+        JsonLogFormat.string(entry.referer(), line);
+        line.append(",\"user_agent\":");
+        JsonLogFormat.string(entry.agent(), line);
+        line.append(",\"aborted\":").append(entry.aborted()).append('}');
+    }
+
+    /**
+     * Append JSON string, or null if value is empty.
+     * @param value Value
+     * @param line Line
+     */
+    private static void string(final String value, final StringBuilder line) {
+        if (value.isEmpty()) {
+            line.append("null");
+        } else {
+            line.append('"');
+            final int len = value.length();
+            for (int idx = 0; idx < len; ++idx) {
+                final char chr = value.charAt(idx);
+                if (chr == '"' || chr == '\\') {
+                    line.append('\\').append(chr);
+                } else if (chr < ' ') {
+                    line.append("\\u00").append(JsonLogFormat.HEX[chr >> JsonLogFormat.DIGIT])
+                        .append(JsonLogFormat.HEX[chr & JsonLogFormat.LOW]);
+                } else {
+                    line.append(chr);
+                }
+            }
+            line.append('"');
+        }
+    }
+}
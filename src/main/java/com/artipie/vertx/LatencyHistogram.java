@@ -0,0 +1,146 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free log-linear histogram of durations, similar to HdrHistogram.
+ * <p>
+ * Each power of two range of values is split into 32 linear sub-buckets,
+ * so recorded values are kept with about 3% precision. Recording doesn't
+ * allocate memory.
+ * </p>
+ * @since 0.4
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Number of bits of sub-bucket index.
+     */
+    private static final int SUB_BITS = 5;
+
+    /**
+     * Number of sub-buckets in each power of two range.
+     */
+    private static final int SUB_COUNT = 1 << LatencyHistogram.SUB_BITS;
+
+    /**
+     * Number of buckets to cover all positive long values.
+     */
+    private static final int BUCKETS =
+        (Long.SIZE - LatencyHistogram.SUB_BITS) * LatencyHistogram.SUB_COUNT;
+
+    /**
+     * Bucket counters.
+     */
+    private final AtomicLongArray buckets;
+
+    /**
+     * Total count of recorded values.
+     */
+    private final LongAdder total;
+
+    /**
+     * Sum of recorded values.
+     */
+    private final LongAdder summ;
+
+    /**
+     * New empty histogram.
+     */
+    public LatencyHistogram() {
+        this.buckets = new AtomicLongArray(LatencyHistogram.BUCKETS);
+        this.total = new LongAdder();
+        this.summ = new LongAdder();
+    }
+
+    /**
+     * Record value.
+     * @param nanos Duration in nanoseconds, negative values are recorded as zero
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(nanos, 0L);
+        this.buckets.incrementAndGet(LatencyHistogram.index(value));
+        this.total.increment();
+        this.summ.add(value);
+    }
+
+    /**
+     * Number of recorded values.
+     * @return Count
+     */
+    public long count() {
+        return this.total.sum();
+    }
+
+    /**
+     * Sum of recorded values.
+     * @return Sum in nanoseconds
+     */
+    public long sum() {
+        return this.summ.sum();
+    }
+
+    /**
+     * Value at given quantile.
+     * @param quantile Quantile from 0 to 1
+     * @return Highest value equivalent to the value at quantile in nanoseconds,
+     *  zero if histogram is empty
+     */
+    public long quantile(final double quantile) {
+        long cnt = 0L;
+        for (int idx = 0; idx < LatencyHistogram.BUCKETS; ++idx) {
+            cnt += this.buckets.get(idx);
+        }
+        final long rank = Math.max(1L, (long) Math.ceil(quantile * cnt));
+        long seen = 0L;
+        long res = 0L;
+        for (int idx = 0; idx < LatencyHistogram.BUCKETS; ++idx) {
+            seen += this.buckets.get(idx);
+            if (seen >= rank) {
+                res = LatencyHistogram.highest(idx);
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Bucket index of value.
+     * @param value Non-negative value
+     * @return Index
+     */
+    private static int index(final long value) {
+        final int exp = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final int res;
+        if (exp < LatencyHistogram.SUB_BITS) {
+            res = (int) value;
+        } else {
+            final int shift = exp - LatencyHistogram.SUB_BITS;
+            res = (shift + 1 << LatencyHistogram.SUB_BITS)
+                + (int) ((value >>> shift) - LatencyHistogram.SUB_COUNT);
+        }
+        return res;
+    }
+
+    /**
+     * Highest value of bucket.
+     * @param idx Bucket index
+     * @return Highest value which falls into bucket
+     */
+    private static long highest(final int idx) {
+        final long res;
+        if (idx < LatencyHistogram.SUB_COUNT) {
+            res = idx;
+        } else {
+            final int shift = (idx >>> LatencyHistogram.SUB_BITS) - 1;
+            final long sub = idx & LatencyHistogram.SUB_COUNT - 1;
+            res = (LatencyHistogram.SUB_COUNT + sub + 1L << shift) - 1L;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Errors are sent with small fixed body and error ID, stack traces are
+ * logged with the same ID in background at limited rate.
+ * <p>
+ * Error ID is sent in {@code X-Error-Id} header and in the body, so
+ * the client can report it and the error can be found in the log.
+ * </p>
+ * @since 0.4
+ */
+public final class LeanErrors implements ServerErrors {
+
+    /**
+     * Error ID header name.
+     */
+    public static final String HEADER = "X-Error-Id";
+
+    /**
+     * Default max number of errors logged per second.
+     */
+    private static final int RATE = 10;
+
+    /**
+     * Prefix of error IDs of this instance.
+     */
+    private final String prefix;
+
+    /**
+     * Sequence of error IDs.
+     */
+    private final AtomicLong seq;
+
+    /**
+     * Error log.
+     */
+    private final ErrorLog log;
+
+    /**
+     * Errors with stack traces logged at most 10 times per second.
+     */
+    public LeanErrors() {
+        this(LeanErrors.RATE);
+    }
+
+    /**
+     * Ctor.
+     * @param rate Max number of errors logged per second
+     */
+    public LeanErrors(final int rate) {
+        this.prefix = Integer.toHexString(ThreadLocalRandom.current().nextInt() | 1 << 28);
+        this.seq = new AtomicLong();
+        this.log = new ErrorLog(rate);
+    }
+
+    @Override
+    public Response response(final Throwable error) {
+        final String id = this.next();
+        this.log.log(id, error);
+        final byte[] body = new StringBuilder(48).append("Internal server error, ID: ")
+            .append(id).append('\n').toString().getBytes(StandardCharsets.US_ASCII);
+        return connection -> connection.accept(
+            RsStatus.INTERNAL_ERROR,
+            new Headers.From(
+                new Header(LeanErrors.HEADER, id),
+                new Header("Content-Type", "text/plain"),
+                new Header("Content-Length", String.valueOf(body.length))
+            ),
+            Flowable.just(ByteBuffer.wrap(body))
+        );
+    }
+
+    @Override
+    public void aborted(final Throwable error) {
+        this.log.log(this.next(), error);
+    }
+
+    /**
+     * Next error ID.
+     * @return ID
+     */
+    private String next() {
+        return new StringBuilder(24).append(this.prefix).append('-')
+            .append(Long.toHexString(this.seq.incrementAndGet())).toString();
+    }
+}
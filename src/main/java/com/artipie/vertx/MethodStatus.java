@@ -0,0 +1,87 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+/**
+ * Dense index of request method and response status pairs,
+ * used to keep per-method and per-status metrics in arrays.
+ * @since 0.4
+ */
+final class MethodStatus {
+
+    /**
+     * Known methods, any other method is counted as the last one.
+     */
+    private static final String[] METHODS = {
+        "GET", "HEAD", "POST", "PUT", "DELETE", "PATCH", "OPTIONS", "TRACE", "CONNECT", "OTHER",
+    };
+
+    /**
+     * Lowest status code.
+     */
+    private static final int MIN_STATUS = 100;
+
+    /**
+     * Number of status codes, any code out of range is counted as {@code 0}.
+     */
+    private static final int STATUSES = 501;
+
+    /**
+     * Total number of pairs.
+     */
+    static final int SIZE = MethodStatus.METHODS.length * MethodStatus.STATUSES;
+
+    /**
+     * Ctor.
+     */
+    private MethodStatus() {
+    }
+
+    /**
+     * Index of method and status pair.
+     * @param method Request method
+     * @param status Response status code
+     * @return Index from zero to {@link #SIZE}
+     */
+    static int index(final String method, final int status) {
+        int mtd = MethodStatus.METHODS.length - 1;
+        for (int idx = 0; idx < mtd; ++idx) {
+            if (MethodStatus.METHODS[idx].equals(method)) {
+                mtd = idx;
+                break;
+            }
+        }
+        int code = status - MethodStatus.MIN_STATUS + 1;
+        if (code < 1 || code >= MethodStatus.STATUSES) {
+            code = 0;
+        }
+        return mtd * MethodStatus.STATUSES + code;
+    }
+
+    /**
+     * Method of pair.
+     * @param index Pair index
+     * @return Method name
+     */
+    static String method(final int index) {
+        return MethodStatus.METHODS[index / MethodStatus.STATUSES];
+    }
+
+    /**
+     * Status of pair.
+     * @param index Pair index
+     * @return Status code, zero for unknown status
+     */
+    static int status(final int index) {
+        final int code = index % MethodStatus.STATUSES;
+        final int res;
+        if (code == 0) {
+            res = 0;
+        } else {
+            res = code + MethodStatus.MIN_STATUS - 1;
+        }
+        return res;
+    }
+}
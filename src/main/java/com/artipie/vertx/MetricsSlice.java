@@ -0,0 +1,74 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which serves {@link HistogramMetrics} text on given path
+ * and delegates other requests to origin slice.
+ * @since 0.4
+ */
+final class MetricsSlice implements Slice {
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Metrics endpoint path.
+     */
+    private final String path;
+
+    /**
+     * Metrics to serve.
+     */
+    private final HistogramMetrics metrics;
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     * @param path Metrics endpoint path
+     * @param metrics Metrics to serve
+     */
+    MetricsSlice(final Slice origin, final String path, final HistogramMetrics metrics) {
+        this.origin = origin;
+        this.path = path;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        final RequestLineFrom rql = new RequestLineFrom(line);
+        final Response res;
+        if (rql.method() == RqMethod.GET && this.path.equals(rql.uri().getPath())) {
+            final byte[] text = this.metrics.text().getBytes(StandardCharsets.UTF_8);
+            res = connection -> connection.accept(
+                RsStatus.OK,
+                new Headers.From(
+                    new Header("Content-Type", "text/plain; version=0.0.4; charset=utf-8"),
+                    new Header("Content-Length", String.valueOf(text.length))
+                ),
+                Flowable.just(ByteBuffer.wrap(text))
+            );
+        } else {
+            res = this.origin.response(line, headers, body);
+        }
+        return res;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Server metrics recorded to Micrometer registry.
+ * <p>
+ * Micrometer is an optional dependency, it has to be added to classpath
+ * to use this class. Meters are registered once and cached, so recording
+ * doesn't look up the registry on each request.
+ * </p>
+ * @since 0.4
+ */
+public final class MicrometerMetrics implements ServerMetrics {
+
+    /**
+     * Meter name prefix.
+     */
+    private static final String PREFIX = "slice.server.";
+
+    /**
+     * Micrometer registry.
+     */
+    private final MeterRegistry registry;
+
+    /**
+     * Requests by method and status.
+     */
+    private final AtomicReferenceArray<Counter> requests;
+
+    /**
+     * Requests in flight.
+     */
+    private final AtomicLong flight;
+
+    /**
+     * Aborted requests.
+     */
+    private final Counter aborts;
+
+    /**
+     * Bytes received.
+     */
+    private final Counter bytesin;
+
+    /**
+     * Bytes sent.
+     */
+    private final Counter bytesout;
+
+    /**
+     * Time to first byte.
+     */
+    private final Timer first;
+
+    /**
+     * Total latency.
+     */
+    private final Timer total;
+
+    /**
+     * Ctor.
+     * @param registry Micrometer registry
+     */
+    public MicrometerMetrics(final MeterRegistry registry) {
+        this.registry = registry;
+        this.requests = new AtomicReferenceArray<>(MethodStatus.SIZE);
+        this.flight = registry.gauge(
+            MicrometerMetrics.PREFIX.concat("requests.in.flight"), new AtomicLong()
+        );
+        this.aborts = registry.counter(MicrometerMetrics.PREFIX.concat("requests.aborted"));
+        this.bytesin = registry.counter(MicrometerMetrics.PREFIX.concat("received.bytes"));
+        this.bytesout = registry.counter(MicrometerMetrics.PREFIX.concat("sent.bytes"));
+        this.first = Timer.builder(MicrometerMetrics.PREFIX.concat("ttfb"))
+            .publishPercentileHistogram().register(registry);
+        this.total = Timer.builder(MicrometerMetrics.PREFIX.concat("duration"))
+            .publishPercentileHistogram().register(registry);
+    }
+
+    @Override
+    public void started() {
+        this.flight.incrementAndGet();
+    }
+
+    @Override
+    public void completed(final String method, final int status, final long ttfb,
+        final long duration, final long received, final long sent) {
+        this.flight.decrementAndGet();
+        final int idx = MethodStatus.index(method, status);
+        Counter counter = this.requests.get(idx);
+        if (counter == null) {
+            this.requests.compareAndSet(
+                idx, null,
+                this.registry.counter(
+                    MicrometerMetrics.PREFIX.concat("requests"),
+                    "method", MethodStatus.method(idx),
+                    "status", String.valueOf(MethodStatus.status(idx))
+                )
+            );
+            counter = this.requests.get(idx);
+        }
+        counter.increment();
+        if (ttfb >= 0L) {
+            this.first.record(ttfb, TimeUnit.NANOSECONDS);
+        }
+        this.total.record(duration, TimeUnit.NANOSECONDS);
+        this.bytesin.increment(received);
+        this.bytesout.increment(sent);
+    }
+
+    @Override
+    public void aborted(final String method, final long duration, final long received,
+        final long sent) {
+        this.flight.decrementAndGet();
+        this.aborts.increment();
+        this.bytesin.increment(received);
+        this.bytesout.increment(sent);
+    }
+}
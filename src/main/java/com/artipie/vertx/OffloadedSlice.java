@@ -0,0 +1,169 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Connection;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which is invoked on an executor instead of the event loop.
+ * <p>
+ * Slice is invoked and response body is subscribed on the executor threads,
+ * when the executor queue is full the request is rejected
+ * with {@code 503 Service Unavailable} without invoking the slice.
+ * Pending body subscriptions are counted as queued requests, and if
+ * the executor rejects body subscription, the body fails with
+ * {@link RejectedExecutionException}.
+ * </p>
+ * @since 0.4
+ */
+final class OffloadedSlice implements Slice {
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Executor to invoke slice on.
+     */
+    private final Executor exec;
+
+    /**
+     * Max number of requests waiting for the executor.
+     */
+    private final int limit;
+
+    /**
+     * Number of requests waiting for the executor.
+     */
+    private final AtomicInteger queued;
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     * @param exec Executor to invoke slice on
+     * @param limit Max number of requests waiting for the executor
+     */
+    OffloadedSlice(final Slice origin, final Executor exec, final int limit) {
+        this.origin = origin;
+        this.exec = exec;
+        this.limit = limit;
+        this.queued = new AtomicInteger();
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        return connection -> {
+            CompletionStage<Void> res;
+            if (this.queued.incrementAndGet() > this.limit) {
+                this.queued.decrementAndGet();
+                res = OffloadedSlice.reject(connection);
+            } else {
+                final CompletableFuture<Void> future = new CompletableFuture<>();
+                try {
+                    this.exec.execute(
+                        () -> {
+                            this.queued.decrementAndGet();
+                            this.invoke(line, headers, body, connection, future);
+                        }
+                    );
+                    res = future;
+                } catch (final RejectedExecutionException ex) {
+                    this.queued.decrementAndGet();
+                    res = OffloadedSlice.reject(connection);
+                }
+            }
+            return res;
+        };
+    }
+
+    /**
+     * Invoke origin slice.
+     * @param line Request line
+     * @param headers Request headers
+     * @param body Request body
+     * @param connection Response connection
+     * @param future Completion of response sending
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void invoke(final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body, final Connection connection,
+        final CompletableFuture<Void> future) {
+        try {
+            this.origin.response(line, headers, body).send(
+                (status, rsheaders, rsbody) -> connection.accept(
+                    status, rsheaders, this.offloaded(rsbody)
+                )
+            ).whenComplete(
+                (ignored, err) -> {
+                    if (err == null) {
+                        future.complete(null);
+                    } else {
+                        future.completeExceptionally(err);
+                    }
+                }
+            );
+            //@checkstyle IllegalCatchCheck (1 line)
+        } catch (final Exception ex) {
+            future.completeExceptionally(ex);
+        }
+    }
+
+    /**
+     * Response body subscribed on the executor, further demand is signalled
+     * on the caller thread. {@link FileBody} is kept as is, since it's either
+     * sent by the kernel or streamed on I/O threads.
+     * @param body Response body
+     * @return Offloaded body
+     */
+    private Publisher<ByteBuffer> offloaded(final Publisher<ByteBuffer> body) {
+        final Publisher<ByteBuffer> res;
+        if (body instanceof FileBody) {
+            res = body;
+        } else {
+            res = subscriber -> {
+                this.queued.incrementAndGet();
+                try {
+                    this.exec.execute(
+                        () -> {
+                            this.queued.decrementAndGet();
+                            body.subscribe(subscriber);
+                        }
+                    );
+                } catch (final RejectedExecutionException ex) {
+                    this.queued.decrementAndGet();
+                    Flowable.<ByteBuffer>error(ex).subscribe(subscriber);
+                }
+            };
+        }
+        return res;
+    }
+
+    /**
+     * Reject request because executor is saturated.
+     * @param connection Response connection
+     * @return Completion of response sending
+     */
+    private static CompletionStage<Void> reject(final Connection connection) {
+        return connection.accept(
+            RsStatus.UNAVAILABLE, new Headers.From("Retry-After", "1"), Flowable.empty()
+        );
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Connection;
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RequestLine;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqMethod;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which serves precompressed variants of resources.
+ * <p>
+ * For {@code GET} and {@code HEAD} requests accepting {@code br} or
+ * {@code gzip} encoding it first requests the variant of resource with
+ * {@code .br} or {@code .gz} suffix from origin slice. If origin responds
+ * with {@code 200 OK}, the variant is sent with proper
+ * {@code Content-Encoding}, so the server doesn't spend CPU to compress
+ * the same resource on each request. Otherwise the resource itself is
+ * requested.
+ * </p>
+ * <p>
+ * Content type of compressed file, e.g. {@code application/gzip}, is
+ * replaced with the type of the resource, derived from its extension.
+ * </p>
+ * @since 0.4
+ */
+public final class PrecompressedSlice implements Slice {
+
+    /**
+     * Encodings of variants with suffixes, in order of preference.
+     */
+    private static final String[][] VARIANTS = {{"br", ".br"}, {"gzip", ".gz"}};
+
+    /**
+     * Content types of resource extensions, which are usually served
+     * precompressed and are missing in JDK file name map.
+     */
+    private static final String[][] TYPES = {
+        {"js", "application/javascript"},
+        {"mjs", "application/javascript"},
+        {"json", "application/json"},
+        {"map", "application/json"},
+        {"css", "text/css"},
+        {"html", "text/html"},
+        {"htm", "text/html"},
+        {"xml", "application/xml"},
+        {"pom", "application/xml"},
+        {"svg", "image/svg+xml"},
+        {"txt", "text/plain"},
+        {"wasm", "application/wasm"}
+    };
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     */
+    public PrecompressedSlice(final Slice origin) {
+        this.origin = origin;
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        final RequestLineFrom rql = new RequestLineFrom(line);
+        final List<String[]> variants = new ArrayList<>(PrecompressedSlice.VARIANTS.length);
+        if (rql.method() == RqMethod.GET || rql.method() == RqMethod.HEAD) {
+            final String accept = PrecompressedSlice.acceptEncoding(headers);
+            for (final String[] variant : PrecompressedSlice.VARIANTS) {
+                if (PrecompressedSlice.accepts(accept, variant[0])) {
+                    variants.add(variant);
+                }
+            }
+        }
+        final Response res;
+        if (variants.isEmpty()) {
+            res = this.origin.response(line, headers, body);
+        } else {
+            res = connection -> this.variant(variants, 0, line, headers, body, connection);
+        }
+        return res;
+    }
+
+    /**
+     * Send variant of resource or resource itself if there are no variants.
+     * @param variants Accepted variants
+     * @param idx Index of variant to try
+     * @param line Request line
+     * @param headers Request headers
+     * @param body Request body
+     * @param connection Response connection
+     * @return Completion of response sending
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    private CompletionStage<Void> variant(final List<String[]> variants, final int idx,
+        final String line, final Iterable<Map.Entry<String, String>> headers,
+        final Publisher<ByteBuffer> body, final Connection connection) {
+        final CompletionStage<Void> res;
+        if (idx == variants.size()) {
+            res = this.origin.response(line, headers, body).send(connection);
+        } else {
+            final String[] variant = variants.get(idx);
+            final RequestLineFrom rql = new RequestLineFrom(line);
+            final URI uri = rql.uri();
+            final StringBuilder target = new StringBuilder(uri.getRawPath()).append(variant[1]);
+            if (uri.getRawQuery() != null) {
+                target.append('?').append(uri.getRawQuery());
+            }
+            res = this.origin.response(
+                new RequestLine(rql.method().value(), target.toString(), rql.version()).toString(),
+                headers, Flowable.empty()
+            ).send(
+                (status, rsheaders, rsbody) -> {
+                    final CompletionStage<Void> sent;
+                    if (status == RsStatus.OK) {
+                        sent = connection.accept(
+                            status,
+                            PrecompressedSlice.encoded(rsheaders, variant[0], uri.getPath()),
+                            rsbody
+                        );
+                    } else {
+                        Flowable.fromPublisher(rsbody).subscribe().dispose();
+                        sent = this.variant(variants, idx + 1, line, headers, body, connection);
+                    }
+                    return sent;
+                }
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Headers of precompressed variant: its content encoding is set and
+     * content type of compressed file is replaced with type of the resource.
+     * @param headers Variant response headers
+     * @param encoding Variant encoding
+     * @param path Path of the resource
+     * @return Headers
+     */
+    private static Headers encoded(final Headers headers, final String encoding,
+        final String path) {
+        final List<Map.Entry<String, String>> res = new ArrayList<>(10);
+        boolean typed = false;
+        for (final Map.Entry<String, String> header : headers) {
+            final String name = header.getKey();
+            final boolean type = "Content-Type".equalsIgnoreCase(name);
+            final boolean archive = type && PrecompressedSlice.archive(header.getValue());
+            typed = typed || type && !archive;
+            if (!archive && !"Content-Encoding".equalsIgnoreCase(name)) {
+                res.add(header);
+            }
+        }
+        if (!typed) {
+            final String type = PrecompressedSlice.type(path);
+            if (type != null) {
+                res.add(new Header("Content-Type", type));
+            }
+        }
+        res.add(new Header("Content-Encoding", encoding));
+        res.add(new Header("Vary", "Accept-Encoding"));
+        return new Headers.From(res);
+    }
+
+    /**
+     * Content type of resource by extension of its path.
+     * @param path Path of the resource
+     * @return Content type, null if it's unknown
+     */
+    private static String type(final String path) {
+        final String name = path.substring(path.lastIndexOf('/') + 1);
+        final String ext = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.US);
+        String res = null;
+        for (final String[] type : PrecompressedSlice.TYPES) {
+            if (type[0].equals(ext)) {
+                res = type[1];
+                break;
+            }
+        }
+        if (res == null) {
+            res = URLConnection.getFileNameMap().getContentTypeFor(name);
+        }
+        return res;
+    }
+
+    /**
+     * Whether content type is a type of compressed file.
+     * @param type Content type
+     * @return True for gzip or brotli types
+     */
+    private static boolean archive(final String type) {
+        final String lower = type.toLowerCase(Locale.US);
+        return lower.startsWith("application/gzip")
+            || lower.startsWith("application/x-gzip")
+            || lower.startsWith("application/x-brotli")
+            || lower.startsWith("application/octet-stream");
+    }
+
+    /**
+     * Value of {@code Accept-Encoding} headers.
+     * @param headers Request headers
+     * @return Comma separated encodings, empty if there is no header
+     */
+    private static String acceptEncoding(final Iterable<Map.Entry<String, String>> headers) {
+        final StringBuilder res = new StringBuilder();
+        for (final Map.Entry<String, String> header : headers) {
+            if ("Accept-Encoding".equalsIgnoreCase(header.getKey())) {
+                if (res.length() > 0) {
+                    res.append(',');
+                }
+                res.append(header.getValue());
+            }
+        }
+        return res.toString();
+    }
+
+    /**
+     * Whether encoding is accepted, according to RFC 7231, section 5.3.4.
+     * @param accept Value of {@code Accept-Encoding} header
+     * @param encoding Encoding
+     * @return True if encoding is accepted
+     */
+    private static boolean accepts(final String accept, final String encoding) {
+        double explicit = -1.0;
+        double wildcard = -1.0;
+        for (final String item : accept.split(",")) {
+            final String[] parts = item.split(";");
+            final String name = parts[0].trim().toLowerCase(Locale.US);
+            double quality = 1.0;
+            for (int idx = 1; idx < parts.length; ++idx) {
+                final String param = parts[idx].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (final NumberFormatException ex) {
+                        quality = 0.0;
+                    }
+                }
+            }
+            if (name.equals(encoding)) {
+                explicit = quality;
+            } else if ("*".equals(name)) {
+                wildcard = quality;
+            }
+        }
+        final boolean res;
+        if (explicit >= 0.0) {
+            res = explicit > 0.0;
+        } else {
+            res = wildcard > 0.0;
+        }
+        return res;
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.reactivex.Flowable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Byte ranges of response body.
+ * <p>
+ * Origin body is read once, chunk by chunk: bytes before the first range
+ * and between ranges are skipped, chunks are sliced without copying, and
+ * origin body is cancelled as soon as the last range is sent. Each range
+ * may be preceded by a part header and the body may be followed by a
+ * trailer, for {@code multipart/byteranges}. Ranges are sorted and don't
+ * overlap.
+ * </p>
+ * @since 0.4
+ */
+final class RangeBody implements Publisher<ByteBuffer> {
+
+    /**
+     * Origin body.
+     */
+    private final Publisher<ByteBuffer> origin;
+
+    /**
+     * First byte positions of ranges.
+     */
+    private final long[] first;
+
+    /**
+     * Last byte positions of ranges, inclusive.
+     */
+    private final long[] last;
+
+    /**
+     * Part headers of ranges, empty if there are none.
+     */
+    private final List<ByteBuffer> parts;
+
+    /**
+     * Trailer after the last range, null if there is none.
+     */
+    private final ByteBuffer trailer;
+
+    /**
+     * Single range of body.
+     * @param origin Origin body
+     * @param first First byte position
+     * @param last Last byte position, inclusive
+     */
+    RangeBody(final Publisher<ByteBuffer> origin, final long first, final long last) {
+        this(origin, new long[]{first}, new long[]{last}, Collections.emptyList(), null);
+    }
+
+    /**
+     * Ctor.
+     * @param origin Origin body
+     * @param first First byte positions of ranges
+     * @param last Last byte positions of ranges, inclusive
+     * @param parts Part headers of ranges, empty if there are none
+     * @param trailer Trailer after the last range, null if there is none
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    RangeBody(final Publisher<ByteBuffer> origin, final long[] first, final long[] last,
+        final List<ByteBuffer> parts, final ByteBuffer trailer) {
+        this.origin = origin;
+        this.first = first.clone();
+        this.last = last.clone();
+        this.parts = parts;
+        this.trailer = trailer;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+        Flowable.defer(
+            () -> {
+                final AtomicLong pos = new AtomicLong();
+                final AtomicInteger idx = new AtomicInteger();
+                final AtomicBoolean started = new AtomicBoolean();
+                final AtomicReference<ByteBuffer> tail = new AtomicReference<>();
+                return Flowable.fromPublisher(this.origin)
+                    .concatMapIterable(chunk -> this.select(chunk, pos, idx, started, tail), 1)
+                    .takeUntil(slice -> slice == tail.get())
+                    .concatWith(
+                        Flowable.defer(
+                            () -> {
+                                final Flowable<ByteBuffer> end;
+                                if (idx.get() < this.first.length) {
+                                    end = Flowable.error(
+                                        new IOException("Response body is shorter than expected")
+                                    );
+                                } else if (this.trailer == null) {
+                                    end = Flowable.empty();
+                                } else {
+                                    end = Flowable.just(this.trailer.duplicate());
+                                }
+                                return end;
+                            }
+                        )
+                    );
+            }
+        ).subscribe(subscriber);
+    }
+
+    /**
+     * Select parts of chunk which are in ranges.
+     * @param chunk Chunk of origin body
+     * @param pos Position of chunk in origin body, it's moved after the chunk
+     * @param idx Index of current range, it's moved after finished ranges
+     * @param started Whether current range was started
+     * @param tail Last slice of the last range, it's set when the range is finished
+     * @return Slices of chunk and part headers
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private List<ByteBuffer> select(final ByteBuffer chunk, final AtomicLong pos,
+        final AtomicInteger idx, final AtomicBoolean started,
+        final AtomicReference<ByteBuffer> tail) {
+        final long start = pos.get();
+        final long end = start + chunk.remaining();
+        pos.set(end);
+        final List<ByteBuffer> res = new ArrayList<>(2);
+        while (idx.get() < this.first.length && this.first[idx.get()] < end) {
+            final int cur = idx.get();
+            if (!started.getAndSet(true) && !this.parts.isEmpty()) {
+                res.add(this.parts.get(cur).duplicate());
+            }
+            final long from = Math.max(this.first[cur], start);
+            final long upto = Math.min(this.last[cur] + 1L, end);
+            if (from < upto) {
+                final ByteBuffer slice = chunk.duplicate();
+                slice.position(chunk.position() + (int) (from - start));
+                slice.limit(chunk.position() + (int) (upto - start));
+                res.add(slice.slice());
+            }
+            if (this.last[cur] < end) {
+                if (idx.incrementAndGet() == this.first.length) {
+                    tail.set(res.get(res.size() - 1));
+                }
+                started.set(false);
+            } else {
+                break;
+            }
+        }
+        return res;
+    }
+}
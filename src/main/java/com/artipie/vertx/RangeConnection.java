@@ -0,0 +1,378 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Connection;
+import com.artipie.http.Headers;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ThreadLocalRandom;
+import org.reactivestreams.Publisher;
+
+/**
+ * Connection which sends byte ranges of response to {@code GET} request
+ * with {@code Range} header, RFC 7233.
+ * <p>
+ * Ranges are served for {@code 200 OK} responses with
+ * {@code Content-Length}, if {@code If-Range} precondition of request
+ * holds. One range is sent as {@code 206 Partial Content}, several ranges
+ * are sorted, overlapping ones are merged and sent as
+ * {@code multipart/byteranges}. If none of ranges is satisfiable,
+ * {@code 416 Range Not Satisfiable} is sent. Responses with
+ * {@link FileBody} are sliced to file regions, so a single range is still
+ * sent with {@code sendfile}. Invalid {@code Range} header is ignored.
+ * </p>
+ * @since 0.4
+ */
+final class RangeConnection implements Connection {
+
+    /**
+     * Max number of ranges in request, larger sets are ignored.
+     */
+    private static final int MAX_RANGES = 32;
+
+    /**
+     * Unit prefix of range header.
+     */
+    private static final String BYTES = "bytes=";
+
+    /**
+     * Origin connection.
+     */
+    private final Connection origin;
+
+    /**
+     * Vert.x connection to send partial responses to, since
+     * {@link RsStatus} has no {@code 206 Partial Content} status.
+     */
+    private final VertxConnection partial;
+
+    /**
+     * Whether responses are compressed by Vert.x.
+     */
+    private final boolean compression;
+
+    /**
+     * Value of {@code Range} request header.
+     */
+    private final String range;
+
+    /**
+     * Value of {@code If-Range} request header, null if there is none.
+     */
+    private final String condition;
+
+    /**
+     * Ctor.
+     * @param origin Origin connection
+     * @param partial Vert.x connection to send partial responses to
+     * @param compression Whether responses are compressed by Vert.x
+     * @param range Value of {@code Range} request header
+     * @param condition Value of {@code If-Range} request header, null if there is none
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    RangeConnection(final Connection origin, final VertxConnection partial,
+        final boolean compression, final String range, final String condition) {
+        this.origin = origin;
+        this.partial = partial;
+        this.compression = compression;
+        this.range = range;
+        this.condition = condition;
+    }
+
+    @Override
+    public CompletionStage<Void> accept(final RsStatus status, final Headers headers,
+        final Publisher<ByteBuffer> body) {
+        long length = -1L;
+        boolean ranged = false;
+        String type = null;
+        String etag = null;
+        String modified = null;
+        for (final Map.Entry<String, String> header : headers) {
+            final String name = header.getKey();
+            if ("Content-Length".equalsIgnoreCase(name)) {
+                try {
+                    length = Long.parseLong(header.getValue().trim());
+                } catch (final NumberFormatException ex) {
+                    length = -1L;
+                }
+            } else if ("Content-Range".equalsIgnoreCase(name)) {
+                ranged = true;
+            } else if ("Content-Type".equalsIgnoreCase(name)) {
+                type = header.getValue();
+            } else if ("ETag".equalsIgnoreCase(name)) {
+                etag = header.getValue();
+            } else if ("Last-Modified".equalsIgnoreCase(name)) {
+                modified = header.getValue();
+            }
+        }
+        long[][] ranges = null;
+        if (status == RsStatus.OK && length >= 0L && !ranged
+            && this.current(etag, modified)) {
+            ranges = RangeConnection.parse(this.range, length);
+        }
+        final CompletionStage<Void> res;
+        if (ranges == null) {
+            res = this.origin.accept(status, headers, body);
+        } else if (ranges.length == 0) {
+            Flowable.fromPublisher(body).subscribe().dispose();
+            res = this.origin.accept(
+                RsStatus.BAD_RANGE,
+                new Headers.From(
+                    new Header("Content-Range", String.format("bytes */%d", length)),
+                    new Header("Content-Length", "0")
+                ),
+                Flowable.empty()
+            );
+        } else if (ranges.length == 1) {
+            res = this.partial.accept(
+                HttpURLConnection.HTTP_PARTIAL,
+                this.headers(
+                    headers, ranges[0][1] - ranges[0][0] + 1L,
+                    new Header("Content-Range", RangeConnection.content(ranges[0], length))
+                ),
+                RangeConnection.slice(body, ranges[0][0], ranges[0][1])
+            );
+        } else {
+            res = this.multipart(headers, body, ranges, length, type);
+        }
+        return res;
+    }
+
+    /**
+     * Send several ranges as {@code multipart/byteranges}.
+     * @param headers Response headers
+     * @param body Response body
+     * @param ranges Sorted ranges
+     * @param length Length of response body
+     * @param type Content type of response body, null if unknown
+     * @return Completion of sending
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    private CompletionStage<Void> multipart(final Headers headers,
+        final Publisher<ByteBuffer> body, final long[][] ranges, final long length,
+        final String type) {
+        final String boundary = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        final List<ByteBuffer> parts = new ArrayList<>(ranges.length);
+        final long[] first = new long[ranges.length];
+        final long[] last = new long[ranges.length];
+        long total = 0L;
+        for (int idx = 0; idx < ranges.length; ++idx) {
+            final StringBuilder part = new StringBuilder(96).append("\r\n--").append(boundary);
+            if (type != null) {
+                part.append("\r\nContent-Type: ").append(type);
+            }
+            part.append("\r\nContent-Range: ")
+                .append(RangeConnection.content(ranges[idx], length)).append("\r\n\r\n");
+            final byte[] bytes = part.toString().getBytes(StandardCharsets.US_ASCII);
+            parts.add(ByteBuffer.wrap(bytes));
+            first[idx] = ranges[idx][0];
+            last[idx] = ranges[idx][1];
+            total += bytes.length + ranges[idx][1] - ranges[idx][0] + 1L;
+        }
+        final byte[] trailer = new StringBuilder(boundary.length() + 8)
+            .append("\r\n--").append(boundary).append("--\r\n")
+            .toString().getBytes(StandardCharsets.US_ASCII);
+        total += trailer.length;
+        final Publisher<ByteBuffer> content;
+        if (body instanceof FileBody) {
+            final List<Publisher<ByteBuffer>> all = new ArrayList<>(ranges.length * 2 + 1);
+            for (int idx = 0; idx < ranges.length; ++idx) {
+                all.add(Flowable.just(parts.get(idx)));
+                all.add(RangeConnection.slice(body, first[idx], last[idx]));
+            }
+            all.add(Flowable.just(ByteBuffer.wrap(trailer)));
+            content = Flowable.concat(all);
+        } else {
+            content = new RangeBody(body, first, last, parts, ByteBuffer.wrap(trailer));
+        }
+        return this.partial.accept(
+            HttpURLConnection.HTTP_PARTIAL,
+            this.headers(
+                headers, total,
+                new Header(
+                    "Content-Type", String.format("multipart/byteranges; boundary=%s", boundary)
+                )
+            ),
+            content
+        );
+    }
+
+    /**
+     * Whether {@code If-Range} precondition holds: the representation
+     * is the same as client has, strong comparison is used.
+     * @param etag Entity tag of response, null if unknown
+     * @param modified Last modified date of response, null if unknown
+     * @return True if ranges may be sent
+     */
+    private boolean current(final String etag, final String modified) {
+        final boolean res;
+        if (this.condition == null) {
+            res = true;
+        } else if (this.condition.startsWith("\"") || this.condition.startsWith("W/")) {
+            res = etag != null && !etag.startsWith("W/") && etag.equals(this.condition);
+        } else {
+            res = this.condition.equals(modified);
+        }
+        return res;
+    }
+
+    /**
+     * Headers of partial response: content length is replaced, content
+     * encoding is set to identity if compression is enabled, so it doesn't
+     * change the ranges.
+     * @param headers Response headers
+     * @param length Length of partial body
+     * @param extra Additional header
+     * @return Headers
+     */
+    private Headers headers(final Headers headers, final long length,
+        final Map.Entry<String, String> extra) {
+        final boolean multipart = "Content-Type".equalsIgnoreCase(extra.getKey());
+        final List<Map.Entry<String, String>> res = new ArrayList<>(10);
+        boolean encoded = false;
+        for (final Map.Entry<String, String> header : headers) {
+            final String name = header.getKey();
+            encoded = encoded || "Content-Encoding".equalsIgnoreCase(name);
+            if (!"Content-Length".equalsIgnoreCase(name)
+                && !(multipart && "Content-Type".equalsIgnoreCase(name))) {
+                res.add(header);
+            }
+        }
+        if (this.compression && !encoded) {
+            res.add(new Header("Content-Encoding", "identity"));
+        }
+        res.add(new Header("Content-Length", String.valueOf(length)));
+        res.add(extra);
+        return new Headers.From(res);
+    }
+
+    /**
+     * Range of body.
+     * @param body Response body
+     * @param first First byte position
+     * @param last Last byte position, inclusive
+     * @return Body of range
+     */
+    private static Publisher<ByteBuffer> slice(final Publisher<ByteBuffer> body,
+        final long first, final long last) {
+        final Publisher<ByteBuffer> res;
+        if (body instanceof FileBody) {
+            final FileBody file = (FileBody) body;
+            res = new FileBody(file.path(), file.offset() + first, last - first + 1L);
+        } else {
+            res = new RangeBody(body, first, last);
+        }
+        return res;
+    }
+
+    /**
+     * Value of {@code Content-Range} header.
+     * @param range Range
+     * @param length Length of body
+     * @return Header value
+     */
+    private static String content(final long[] range, final long length) {
+        return new StringBuilder(48).append("bytes ").append(range[0]).append('-')
+            .append(range[1]).append('/').append(length).toString();
+    }
+
+    /**
+     * Parse satisfiable ranges of {@code Range} header, sort and merge them.
+     * @param header Header value
+     * @param length Length of body
+     * @return Ranges of first and last byte positions, empty if none
+     *  of ranges is satisfiable, null if header is invalid
+     * @checkstyle CyclomaticComplexityCheck (50 lines)
+     */
+    @SuppressWarnings("PMD.ReturnEmptyArrayRatherThanNull")
+    private static long[][] parse(final String header, final long length) {
+        final String value = header.trim();
+        long[][] res = null;
+        final int unit = RangeConnection.BYTES.length();
+        if (value.regionMatches(true, 0, RangeConnection.BYTES, 0, unit)) {
+            final String[] specs = value.substring(unit).split(",");
+            final List<long[]> ranges = new ArrayList<>(specs.length);
+            boolean valid = specs.length <= RangeConnection.MAX_RANGES;
+            for (int idx = 0; valid && idx < specs.length; ++idx) {
+                final long[] range = RangeConnection.spec(specs[idx].trim(), length);
+                if (range == null) {
+                    valid = false;
+                } else if (range[0] <= range[1]) {
+                    ranges.add(range);
+                }
+            }
+            if (valid) {
+                ranges.sort(Comparator.comparingLong(range -> range[0]));
+                final List<long[]> merged = new ArrayList<>(ranges.size());
+                for (final long[] range : ranges) {
+                    final long[] prev;
+                    if (merged.isEmpty()) {
+                        prev = null;
+                    } else {
+                        prev = merged.get(merged.size() - 1);
+                    }
+                    if (prev != null && range[0] <= prev[1] + 1L) {
+                        prev[1] = Math.max(prev[1], range[1]);
+                    } else {
+                        merged.add(Arrays.copyOf(range, 2));
+                    }
+                }
+                res = merged.toArray(new long[0][]);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Parse byte range spec, RFC 7233, section 2.1.
+     * @param spec Range spec, e.g. {@code 0-499}, {@code 500-} or {@code -500}
+     * @param length Length of body
+     * @return First and last byte positions, first is greater than last
+     *  if range is not satisfiable, null if spec is invalid
+     */
+    private static long[] spec(final String spec, final long length) {
+        final int dash = spec.indexOf('-');
+        long[] res = null;
+        try {
+            if (dash == 0) {
+                final long suffix = Long.parseLong(spec.substring(1).trim());
+                if (suffix > 0L) {
+                    res = new long[]{Math.max(length - suffix, 0L), length - 1L};
+                } else if (suffix == 0L) {
+                    res = new long[]{length, length - 1L};
+                }
+            } else if (dash > 0) {
+                final long first = Long.parseLong(spec.substring(0, dash).trim());
+                final String tail = spec.substring(dash + 1).trim();
+                final long last;
+                if (tail.isEmpty()) {
+                    last = length - 1L;
+                } else {
+                    last = Math.min(Long.parseLong(tail), length - 1L);
+                }
+                if (tail.isEmpty() || Long.parseLong(tail) >= first) {
+                    res = new long[]{first, last};
+                }
+            }
+        } catch (final NumberFormatException ex) {
+            res = null;
+        }
+        if (res != null && res[0] < 0L) {
+            res = null;
+        }
+        return res;
+    }
+}
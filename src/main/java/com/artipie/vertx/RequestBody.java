@@ -0,0 +1,315 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Request body publisher which reads chunks from the socket on demand.
+ * <p>
+ * Request stream is paused from the start and chunks are fetched
+ * from it only to satisfy demand of the subscriber plus a prefetch window,
+ * so at most {@code demand + prefetch} chunks are held in memory. When
+ * there is no demand Vert.x stops reading from the socket once its own
+ * inbound buffer is full, and TCP flow control slows the client down.
+ * </p>
+ * <p>
+ * Reading callback is run once on subscription before the first chunk is
+ * fetched, e.g. to send {@code 100 Continue} to the client only when the body
+ * is actually read.
+ * </p>
+ * <p>
+ * If the client disconnects or resets the stream, the subscriber gets
+ * an error, even if it subscribes after that.
+ * </p>
+ * <p>
+ * Body can be subscribed only once. All signals are emitted on the request
+ * context, demand from other threads is passed to that context.
+ * </p>
+ * @since 0.4
+ */
+final class RequestBody implements Publisher<ByteBuffer> {
+
+    /**
+     * Request stream.
+     */
+    private final ReadStream<Buffer> stream;
+
+    /**
+     * Request context.
+     */
+    private final Context ctx;
+
+    /**
+     * Number of chunks to fetch in advance of demand.
+     */
+    private final int prefetch;
+
+    /**
+     * Callback to run when body is read.
+     */
+    private final Runnable reading;
+
+    /**
+     * Whether body was subscribed.
+     */
+    private final AtomicBoolean subscribed;
+
+    /**
+     * Error of the stream before body was subscribed, null if there is none.
+     */
+    private volatile Throwable failure;
+
+    /**
+     * New request body, the stream is paused.
+     * @param stream Request stream
+     * @param ctx Request context
+     * @param prefetch Number of chunks to fetch in advance of demand
+     * @param reading Callback to run when body is read
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    RequestBody(final ReadStream<Buffer> stream, final Context ctx, final int prefetch,
+        final Runnable reading) {
+        this.stream = stream.pause();
+        this.ctx = ctx;
+        this.prefetch = prefetch;
+        this.reading = reading;
+        this.subscribed = new AtomicBoolean();
+        this.stream.exceptionHandler(err -> this.failure = err);
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+        if (this.subscribed.compareAndSet(false, true)) {
+            new BodySubscription(subscriber).start();
+        } else {
+            subscriber.onSubscribe(
+                new Subscription() {
+                    @Override
+                    public void request(final long num) {
+                        // nothing to emit
+                    }
+
+                    @Override
+                    public void cancel() {
+                        // nothing to cancel
+                    }
+                }
+            );
+            subscriber.onError(
+                new IllegalStateException("Request body can be subscribed only once")
+            );
+        }
+    }
+
+    /**
+     * Subscription to request body. Its state is accessed on request context only.
+     * @since 0.4
+     */
+    private final class BodySubscription implements Subscription {
+
+        /**
+         * Body subscriber.
+         */
+        private final Subscriber<? super ByteBuffer> subscriber;
+
+        /**
+         * Chunks received but not emitted yet.
+         */
+        private final Queue<Buffer> queue;
+
+        /**
+         * Demand of subscriber.
+         */
+        private long demand;
+
+        /**
+         * Number of chunks fetched from stream but not received yet.
+         */
+        private long pending;
+
+        /**
+         * Whether the stream has ended.
+         */
+        private boolean ended;
+
+        /**
+         * Whether subscription was cancelled or terminated.
+         */
+        private boolean done;
+
+        /**
+         * Whether chunks are being emitted now.
+         */
+        private boolean emitting;
+
+        /**
+         * Ctor.
+         * @param subscriber Body subscriber
+         */
+        BodySubscription(final Subscriber<? super ByteBuffer> subscriber) {
+            this.subscriber = subscriber;
+            this.queue = new ArrayDeque<>(RequestBody.this.prefetch + 1);
+        }
+
+        @Override
+        public void request(final long num) {
+            this.onContext(
+                () -> {
+                    if (num <= 0L) {
+                        this.fail(
+                            new IllegalArgumentException(
+                                String.format("Non-positive request: %d", num)
+                            )
+                        );
+                    } else if (!this.done) {
+                        this.demand = RequestBody.add(this.demand, num);
+                        this.fetch();
+                        this.emit();
+                    }
+                }
+            );
+        }
+
+        @Override
+        public void cancel() {
+            this.onContext(
+                () -> {
+                    if (!this.done) {
+                        this.release();
+                    }
+                }
+            );
+        }
+
+        /**
+         * Start reading the stream.
+         */
+        void start() {
+            this.onContext(
+                () -> {
+                    RequestBody.this.stream.handler(
+                        chunk -> {
+                            if (this.pending > 0L && this.pending < Long.MAX_VALUE) {
+                                this.pending -= 1L;
+                            }
+                            this.queue.add(chunk);
+                            this.emit();
+                        }
+                    );
+                    RequestBody.this.stream.endHandler(
+                        ignored -> {
+                            this.ended = true;
+                            this.emit();
+                        }
+                    );
+                    RequestBody.this.stream.exceptionHandler(this::fail);
+                    RequestBody.this.reading.run();
+                    this.subscriber.onSubscribe(this);
+                    if (RequestBody.this.failure == null) {
+                        this.fetch();
+                    } else {
+                        this.fail(RequestBody.this.failure);
+                    }
+                }
+            );
+        }
+
+        /**
+         * Fetch chunks from the stream to cover demand and prefetch window.
+         */
+        private void fetch() {
+            final long need = RequestBody.add(this.demand, RequestBody.this.prefetch)
+                - this.queue.size() - this.pending;
+            if (!this.done && !this.ended && need > 0L) {
+                this.pending = RequestBody.add(this.pending, need);
+                RequestBody.this.stream.fetch(need);
+            }
+        }
+
+        /**
+         * Emit received chunks while there is demand, complete when
+         * all chunks are emitted and the stream has ended.
+         */
+        private void emit() {
+            if (!this.emitting) {
+                this.emitting = true;
+                while (!this.done && this.demand > 0L && !this.queue.isEmpty()) {
+                    if (this.demand < Long.MAX_VALUE) {
+                        this.demand -= 1L;
+                    }
+                    this.subscriber.onNext(BufferBridge.view(this.queue.poll()));
+                }
+                if (!this.done && this.ended && this.queue.isEmpty()) {
+                    this.done = true;
+                    this.subscriber.onComplete();
+                }
+                this.emitting = false;
+            }
+        }
+
+        /**
+         * Fail the subscriber.
+         * @param err Error
+         */
+        private void fail(final Throwable err) {
+            if (!this.done) {
+                this.release();
+                this.subscriber.onError(err);
+            }
+        }
+
+        /**
+         * Stop emitting, the rest of the stream is discarded.
+         */
+        private void release() {
+            this.done = true;
+            this.queue.clear();
+            RequestBody.this.stream.handler(null);
+            RequestBody.this.stream.exceptionHandler(null);
+            RequestBody.this.stream.endHandler(null);
+            RequestBody.this.stream.resume();
+        }
+
+        /**
+         * Run action on request context.
+         * @param action Action
+         */
+        private void onContext(final Runnable action) {
+            if (Context.isOnEventLoopThread() && Vertx.currentContext() == RequestBody.this.ctx) {
+                action.run();
+            } else {
+                RequestBody.this.ctx.runOnContext(ignored -> action.run());
+            }
+        }
+    }
+
+    /**
+     * Add longs, capped by {@link Long#MAX_VALUE}.
+     * @param left Left
+     * @param right Right
+     * @return Sum
+     */
+    private static long add(final long left, final long right) {
+        final long sum = left + right;
+        final long res;
+        if (sum < 0L) {
+            res = Long.MAX_VALUE;
+        } else {
+            res = sum;
+        }
+        return res;
+    }
+}
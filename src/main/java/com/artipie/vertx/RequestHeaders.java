@@ -0,0 +1,90 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.vertx.core.MultiMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Request headers passed to slice.
+ * <p>
+ * Iterating Vert.x headers creates new entry objects on each iteration,
+ * while slices usually iterate headers several times: to find authorization,
+ * content type, etc. Entries of Vert.x request headers are collected
+ * here once, so iterating them allocates nothing but the iterator.
+ * </p>
+ * @since 0.4
+ */
+final class RequestHeaders implements Iterable<Map.Entry<String, String>> {
+
+    /**
+     * Initial capacity, enough for most requests.
+     */
+    private static final int INITIAL = 16;
+
+    /**
+     * Header entries.
+     */
+    private final Map.Entry<String, String>[] entries;
+
+    /**
+     * Number of entries.
+     */
+    private final int size;
+
+    /**
+     * Copy of Vert.x request headers.
+     * @param headers Vert.x headers
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    RequestHeaders(final MultiMap headers) {
+        Map.Entry<String, String>[] all = new Map.Entry[RequestHeaders.INITIAL];
+        int count = 0;
+        for (final Map.Entry<String, String> header : headers) {
+            if (count == all.length) {
+                all = Arrays.copyOf(all, count * 2);
+            }
+            all[count] = header;
+            count += 1;
+        }
+        this.entries = all;
+        this.size = count;
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+        return new Iterator<Map.Entry<String, String>>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return this.next < RequestHeaders.this.size;
+            }
+
+            @Override
+            public Map.Entry<String, String> next() {
+                if (!this.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Map.Entry<String, String> res = RequestHeaders.this.entries[this.next];
+                this.next += 1;
+                return res;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder res = new StringBuilder(this.size * 32);
+        for (int idx = 0; idx < this.size; ++idx) {
+            res.append(this.entries[idx].getKey()).append(": ")
+                .append(this.entries[idx].getValue()).append('\n');
+        }
+        return res.toString();
+    }
+}
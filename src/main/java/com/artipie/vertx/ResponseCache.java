@@ -0,0 +1,234 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * In-process cache of responses of {@link VertxSliceServer}.
+ * <p>
+ * It keeps bodies of {@code 200 OK} responses to {@code GET} requests in
+ * direct (off-heap) buffers, when the slice allows it with
+ * {@code Cache-Control: max-age} or {@code s-maxage} and sends
+ * {@code Content-Length}. Cached responses are sent to clients without
+ * invoking the slice, {@code HEAD} requests and conditional requests with
+ * {@code If-None-Match} or {@code If-Modified-Since} are answered from
+ * the cache too. It's intended for immutable artifacts, e.g.
+ * {@code Cache-Control: public, max-age=31536000, immutable}.
+ * </p>
+ * <p>
+ * Responses are keyed by request URI and values of configured request
+ * headers. Responses with {@code Vary} by other headers are not cached.
+ * Total size of bodies is bounded: least recently used responses are
+ * evicted, but a new response is admitted only if it's requested more
+ * often than the responses it would evict (TinyLFU admission), so
+ * one-off downloads don't wash popular artifacts out of the cache.
+ * </p>
+ * @since 0.4
+ */
+public final class ResponseCache {
+
+    /**
+     * Min number of frequency sketch counters.
+     */
+    private static final int MIN_SKETCH = 1024;
+
+    /**
+     * Max number of frequency sketch counters.
+     */
+    private static final int MAX_SKETCH = 1 << 20;
+
+    /**
+     * Capacity in bytes.
+     */
+    private final long capacity;
+
+    /**
+     * Max size of one response body in bytes.
+     */
+    private final long max;
+
+    /**
+     * Names of request headers responses are keyed by, lower case.
+     */
+    private final List<String> vary;
+
+    /**
+     * Cached responses in access order.
+     */
+    private final LinkedHashMap<String, CachedResponse> entries;
+
+    /**
+     * Frequency of requested keys.
+     */
+    private final FrequencySketch sketch;
+
+    /**
+     * Total size of cached bodies in bytes.
+     */
+    private long weight;
+
+    /**
+     * Cache of given capacity, responses larger than 1/16 of the capacity
+     * are not cached.
+     * @param capacity Capacity in bytes
+     */
+    public ResponseCache(final long capacity) {
+        this(capacity, capacity / 16L, Collections.emptyList());
+    }
+
+    /**
+     * Ctor.
+     * @param capacity Capacity in bytes
+     * @param max Max size of one response body in bytes
+     * @param vary Names of request headers responses are keyed by,
+     *  e.g. {@code Accept} for slices which respond with different content types
+     */
+    public ResponseCache(final long capacity, final long max, final Collection<String> vary) {
+        if (capacity < 1L) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        if (max < 0L || max > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid max size of cached response");
+        }
+        this.capacity = capacity;
+        this.max = max;
+        final List<String> names = new ArrayList<>(vary.size());
+        for (final String name : vary) {
+            names.add(name.toLowerCase(Locale.US));
+        }
+        this.vary = Collections.unmodifiableList(names);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch(
+            (int) Math.min(
+                Math.max(capacity / 4096L, ResponseCache.MIN_SKETCH), ResponseCache.MAX_SKETCH
+            )
+        );
+    }
+
+    /**
+     * Total size of cached response bodies.
+     * @return Size in bytes
+     */
+    public synchronized long size() {
+        return this.weight;
+    }
+
+    /**
+     * Number of cached responses.
+     * @return Number of responses
+     */
+    public synchronized int count() {
+        return this.entries.size();
+    }
+
+    /**
+     * Remove all cached responses.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+        this.weight = 0L;
+    }
+
+    /**
+     * Names of request headers responses are keyed by.
+     * @return Lower case names
+     */
+    List<String> vary() {
+        return this.vary;
+    }
+
+    /**
+     * Cached response, the request is counted for admission
+     * whether it's cached or not.
+     * @param key Response key
+     * @return Fresh response or null if it's not cached
+     */
+    synchronized CachedResponse get(final String key) {
+        this.sketch.increment(key.hashCode());
+        CachedResponse res = this.entries.get(key);
+        if (res != null && !res.fresh(System.nanoTime())) {
+            this.remove(key);
+            res = null;
+        }
+        return res;
+    }
+
+    /**
+     * Whether response of given size might be cached, it's checked before
+     * the body is copied.
+     * @param key Response key
+     * @param size Body size in bytes
+     * @return True if it might be cached
+     */
+    synchronized boolean admits(final String key, final long size) {
+        return size <= this.max && this.victims(key, size) != null;
+    }
+
+    /**
+     * Cache response if it's admitted.
+     * @param key Response key
+     * @param rsp Response
+     */
+    synchronized void put(final String key, final CachedResponse rsp) {
+        this.remove(key);
+        final List<String> victims = this.victims(key, rsp.size());
+        if (rsp.size() <= this.max && victims != null) {
+            for (final String victim : victims) {
+                this.remove(victim);
+            }
+            this.entries.put(key, rsp);
+            this.weight += rsp.size();
+        }
+    }
+
+    /**
+     * Responses to evict to make room for the new one.
+     * @param key Key of new response
+     * @param size Body size of new response
+     * @return Keys to evict or null if new response is not admitted
+     */
+    private List<String> victims(final String key, final long size) {
+        List<String> res = new ArrayList<>(0);
+        long free = this.capacity - this.weight;
+        final int frequency = this.sketch.frequency(key.hashCode());
+        final Iterator<Map.Entry<String, CachedResponse>> iter =
+            this.entries.entrySet().iterator();
+        while (free < size && res != null) {
+            if (iter.hasNext()) {
+                final Map.Entry<String, CachedResponse> eldest = iter.next();
+                if (eldest.getKey().equals(key)) {
+                    free += eldest.getValue().size();
+                } else if (this.sketch.frequency(eldest.getKey().hashCode()) < frequency) {
+                    res.add(eldest.getKey());
+                    free += eldest.getValue().size();
+                } else {
+                    res = null;
+                }
+            } else {
+                res = null;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Remove cached response.
+     * @param key Response key
+     */
+    private void remove(final String key) {
+        final CachedResponse removed = this.entries.remove(key);
+        if (removed != null) {
+            this.weight -= removed.size();
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxException;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.http.HttpServerResponse;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Subscriber which writes response body to {@link HttpServerResponse}.
+ * <p>
+ * It requests next chunk from upstream only while response write queue
+ * has room, otherwise it waits for the drain event, so slow clients
+ * don't cause whole body to be buffered in memory.
+ * </p>
+ * <p>
+ * With coalescing enabled, chunks smaller than coalescing size are copied
+ * to one buffer which is written when it reaches that size, when the delay
+ * passes since the first chunk was added to it, or when the body ends. So
+ * a body built from many small pieces is written in a few large writes,
+ * each of them is one chunk of chunked encoding and one flush. The first
+ * chunk of body and large chunks are written as is, without delay.
+ * </p>
+ * <p>
+ * If the client disconnects, resets the stream or writing fails, upstream
+ * subscription is cancelled right away and completion fails, so resources
+ * of response body (storage handles, upstream connections) are released
+ * instead of being drained to the closed response.
+ * </p>
+ * @since 0.4
+ */
+final class ResponseWriter implements Subscriber<ByteBuffer> {
+
+    /**
+     * Error of response which was closed before it was ended.
+     */
+    private static final VertxException CLOSED =
+        new VertxException("Connection was closed before response was ended", true);
+
+    /**
+     * Vert.x server response.
+     */
+    private final HttpServerResponse rsp;
+
+    /**
+     * Vert.x to schedule coalescing timer with.
+     */
+    private final Vertx vertx;
+
+    /**
+     * Coalescing size in bytes, zero if disabled.
+     */
+    private final int size;
+
+    /**
+     * Coalescing delay in milliseconds.
+     */
+    private final long delay;
+
+    /**
+     * Completion of writing.
+     */
+    private final CompletableFuture<Void> done;
+
+    /**
+     * Lock of coalesced chunks, they are written by upstream and by the timer.
+     */
+    private final Object lock;
+
+    /**
+     * Whether writer is waiting for the drain event.
+     */
+    private final AtomicBoolean waiting;
+
+    /**
+     * Upstream subscription.
+     */
+    private volatile Subscription subscription;
+
+    /**
+     * Whether next chunk is the first one.
+     */
+    private boolean first;
+
+    /**
+     * Coalesced chunks, null if there are none.
+     */
+    private ByteBuf pending;
+
+    /**
+     * Coalescing timer ID, negative if not scheduled.
+     */
+    private long timer;
+
+    /**
+     * New writer.
+     * @param rsp Vert.x server response
+     * @param vertx Vert.x to schedule coalescing timer with
+     * @param size Coalescing size in bytes, zero to disable coalescing
+     * @param delay Coalescing delay in milliseconds
+     */
+    ResponseWriter(final HttpServerResponse rsp, final Vertx vertx, final int size,
+        final long delay) {
+        this.rsp = rsp;
+        this.vertx = vertx;
+        this.size = size;
+        this.delay = delay;
+        this.done = new CompletableFuture<>();
+        this.lock = new Object();
+        this.waiting = new AtomicBoolean();
+        this.first = true;
+        this.timer = -1L;
+    }
+
+    /**
+     * Completion of writing, it is completed when response was ended
+     * and fails on body error or when response is closed.
+     * @return Completion stage
+     */
+    CompletionStage<Void> completion() {
+        return this.done;
+    }
+
+    @Override
+    public void onSubscribe(final Subscription sub) {
+        this.subscription = sub;
+        this.rsp.drainHandler(ignored -> this.resume());
+        this.rsp.closeHandler(ignored -> this.abort(ResponseWriter.CLOSED));
+        this.rsp.exceptionHandler(this::abort);
+        if (this.rsp.closed()) {
+            this.abort(ResponseWriter.CLOSED);
+        } else {
+            sub.request(1L);
+        }
+    }
+
+    @Override
+    public void onNext(final ByteBuffer item) {
+        if (!this.done.isDone()) {
+            this.write(item);
+        }
+    }
+
+    @Override
+    public void onError(final Throwable err) {
+        synchronized (this.lock) {
+            this.take();
+        }
+        this.done.completeExceptionally(err);
+    }
+
+    @Override
+    public void onComplete() {
+        if (!this.done.isDone()) {
+            synchronized (this.lock) {
+                final ByteBuf last = this.take();
+                if (last == null) {
+                    this.rsp.end();
+                } else {
+                    this.rsp.end(ResponseWriter.buffer(last));
+                }
+            }
+            this.done.complete(null);
+        }
+    }
+
+    /**
+     * Write chunk and request next one while write queue has room.
+     * @param item Chunk
+     */
+    private void write(final ByteBuffer item) {
+        if (this.size > 0 && !this.first && item.remaining() < this.size) {
+            this.coalesce(item);
+        } else {
+            this.first = false;
+            if (this.size > 0) {
+                this.flush();
+            }
+            this.rsp.write(BufferBridge.wrap(item));
+        }
+        if (this.rsp.writeQueueFull()) {
+            this.waiting.set(true);
+            if (!this.rsp.writeQueueFull()) {
+                this.resume();
+            }
+        } else {
+            this.subscription.request(1L);
+        }
+    }
+
+    /**
+     * Stop writing: cancel upstream, drop coalesced chunks and fail completion.
+     * @param err Error
+     */
+    private void abort(final Throwable err) {
+        if (this.done.completeExceptionally(err)) {
+            this.subscription.cancel();
+            synchronized (this.lock) {
+                this.take();
+            }
+        }
+    }
+
+    /**
+     * Add small chunk to coalesced ones, write them when they reach
+     * coalescing size or schedule the timer to write them.
+     * @param item Chunk
+     */
+    private void coalesce(final ByteBuffer item) {
+        synchronized (this.lock) {
+            if (this.pending == null) {
+                this.pending = Unpooled.buffer(this.size);
+            }
+            this.pending.writeBytes(item);
+            if (this.pending.readableBytes() >= this.size) {
+                this.rsp.write(ResponseWriter.buffer(this.take()));
+            } else if (this.timer < 0L) {
+                this.timer = this.vertx.setTimer(this.delay, ignored -> this.expire());
+            }
+        }
+    }
+
+    /**
+     * Write coalesced chunks when the delay has passed.
+     */
+    private void expire() {
+        synchronized (this.lock) {
+            this.timer = -1L;
+            this.flush();
+        }
+    }
+
+    /**
+     * Write coalesced chunks if there are any.
+     */
+    private void flush() {
+        synchronized (this.lock) {
+            final ByteBuf buf = this.take();
+            if (buf != null) {
+                this.rsp.write(ResponseWriter.buffer(buf));
+            }
+        }
+    }
+
+    /**
+     * Take coalesced chunks and cancel the timer.
+     * @return Coalesced chunks or null if there are none
+     */
+    private ByteBuf take() {
+        final ByteBuf res = this.pending;
+        this.pending = null;
+        if (this.timer >= 0L) {
+            this.vertx.cancelTimer(this.timer);
+            this.timer = -1L;
+        }
+        return res;
+    }
+
+    /**
+     * Request next chunk if writer is waiting for the write queue to drain.
+     */
+    private void resume() {
+        if (this.waiting.compareAndSet(true, false)) {
+            this.subscription.request(1L);
+        }
+    }
+
+    /**
+     * Vert.x buffer of coalesced chunks.
+     * @param buf Coalesced chunks
+     * @return Buffer
+     */
+    private static Buffer buffer(final ByteBuf buf) {
+        return Buffer.newInstance(io.vertx.core.buffer.Buffer.buffer(buf));
+    }
+}
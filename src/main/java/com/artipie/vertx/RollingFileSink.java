@@ -0,0 +1,164 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Access log sink which appends lines to a file and rolls it over when
+ * it grows over max size: {@code access.log} is renamed to
+ * {@code access.log.1}, {@code access.log.1} to {@code access.log.2} and so
+ * on, the oldest file is deleted. Size is counted in characters, which is
+ * the size in bytes for ASCII lines.
+ * @since 0.4
+ */
+public final class RollingFileSink implements AccessLogSink {
+
+    /**
+     * Default max size of file.
+     */
+    public static final long DEFAULT_MAX_SIZE = 100L * 1024L * 1024L;
+
+    /**
+     * Default number of rolled over files to keep.
+     */
+    public static final int DEFAULT_KEEP = 10;
+
+    /**
+     * Size of write buffer in characters.
+     */
+    private static final int BUFFER = 64 * 1024;
+
+    /**
+     * Log file.
+     */
+    private final Path file;
+
+    /**
+     * Max size of file.
+     */
+    private final long max;
+
+    /**
+     * Number of rolled over files to keep.
+     */
+    private final int keep;
+
+    /**
+     * Writer of log file, null if it's not open.
+     */
+    private Writer writer;
+
+    /**
+     * Size of log file.
+     */
+    private long size;
+
+    /**
+     * Sink with default max size and number of files to keep.
+     * @param file Log file
+     */
+    public RollingFileSink(final Path file) {
+        this(file, RollingFileSink.DEFAULT_MAX_SIZE, RollingFileSink.DEFAULT_KEEP);
+    }
+
+    /**
+     * Ctor.
+     * @param file Log file
+     * @param max Max size of file
+     * @param keep Number of rolled over files to keep, zero to delete
+     *  the file when it grows over max size
+     */
+    public RollingFileSink(final Path file, final long max, final int keep) {
+        if (max <= 0L) {
+            throw new IllegalArgumentException("Max size of access log must be positive");
+        }
+        if (keep < 0) {
+            throw new IllegalArgumentException("Number of access logs must not be negative");
+        }
+        this.file = file;
+        this.max = max;
+        this.keep = keep;
+    }
+
+    @Override
+    public void write(final CharSequence line) throws IOException {
+        if (this.writer == null) {
+            if (Files.exists(this.file)) {
+                this.size = Files.size(this.file);
+            } else {
+                this.size = 0L;
+            }
+            this.writer = new BufferedWriter(
+                new OutputStreamWriter(
+                    Files.newOutputStream(
+                        this.file, StandardOpenOption.CREATE, StandardOpenOption.APPEND
+                    ),
+                    StandardCharsets.UTF_8
+                ),
+                RollingFileSink.BUFFER
+            );
+        }
+        this.writer.append(line).append('\n');
+        this.size += line.length() + 1;
+        if (this.size >= this.max) {
+            this.roll();
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (this.writer != null) {
+            this.writer.flush();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.writer != null) {
+            this.writer.close();
+            this.writer = null;
+        }
+    }
+
+    /**
+     * Close log file and roll it over, next line opens new file.
+     * @throws IOException On error
+     */
+    private void roll() throws IOException {
+        this.close();
+        if (this.keep == 0) {
+            Files.delete(this.file);
+        } else {
+            Files.deleteIfExists(this.rolled(this.keep));
+            for (int idx = this.keep - 1; idx > 0; --idx) {
+                final Path older = this.rolled(idx);
+                if (Files.exists(older)) {
+                    Files.move(older, this.rolled(idx + 1), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            Files.move(this.file, this.rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Rolled over log file.
+     * @param number Number of file, one for the newest
+     * @return File
+     */
+    private Path rolled(final int number) {
+        return this.file.resolveSibling(
+            String.format("%s.%d", this.file.getFileName(), number)
+        );
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Strategy of {@link VertxSliceServer} for requests failed by slice.
+ * <p>
+ * Implementations are called on event loop threads, so they have to be
+ * cheap and non-blocking even when every request fails, see
+ * {@link LeanErrors}.
+ * </p>
+ * @since 0.4
+ */
+public interface ServerErrors {
+
+    /**
+     * Errors are sent to client with full stack trace, for debugging only:
+     * it's expensive and exposes internals of the server.
+     */
+    ServerErrors VERBOSE = new ServerErrors() {
+        @Override
+        public Response response(final Throwable error) {
+            final StringWriter text = new StringWriter();
+            text.append(error.toString()).append("\n");
+            error.printStackTrace(new PrintWriter(text));
+            final byte[] body = text.toString().getBytes(StandardCharsets.UTF_8);
+            return connection -> connection.accept(
+                RsStatus.INTERNAL_ERROR,
+                new Headers.From(
+                    new Header("Content-Type", "text/plain; charset=utf-8"),
+                    new Header("Content-Length", String.valueOf(body.length))
+                ),
+                Flowable.just(ByteBuffer.wrap(body))
+            );
+        }
+
+        @Override
+        public void aborted(final Throwable error) {
+            // nothing to report
+        }
+    };
+
+    /**
+     * Response for request failed before response headers were sent.
+     * @param error Error
+     * @return Error response
+     */
+    Response response(Throwable error);
+
+    /**
+     * Request failed after response headers were sent,
+     * the connection or the stream is reset.
+     * @param error Error
+     */
+    void aborted(Throwable error);
+}
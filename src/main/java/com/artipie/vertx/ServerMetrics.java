@@ -0,0 +1,69 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+/**
+ * Metrics registry of {@link VertxSliceServer}.
+ * <p>
+ * Implementations are called on event loop threads for every request,
+ * so recording has to be cheap, non-blocking and thread safe. Method calls
+ * map directly to common metric types: in-flight requests gauge, counters
+ * by method and status, time to first byte and total latency timers and
+ * transferred bytes counters, e.g. Micrometer meters, see
+ * {@link MicrometerMetrics}.
+ * </p>
+ * @since 0.4
+ */
+public interface ServerMetrics {
+
+    /**
+     * Metrics which record nothing.
+     */
+    ServerMetrics NONE = new ServerMetrics() {
+        @Override
+        public void started() {
+            // nothing to record
+        }
+
+        @Override
+        public void completed(final String method, final int status, final long ttfb,
+            final long duration, final long received, final long sent) {
+            // nothing to record
+        }
+
+        @Override
+        public void aborted(final String method, final long duration, final long received,
+            final long sent) {
+            // nothing to record
+        }
+    };
+
+    /**
+     * Request was accepted by server.
+     */
+    void started();
+
+    /**
+     * Response was completed.
+     * @param method Request method
+     * @param status Response status code
+     * @param ttfb Time to first byte (response headers) in nanoseconds
+     * @param duration Total request duration in nanoseconds
+     * @param received Request bytes received
+     * @param sent Response body bytes sent
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    void completed(String method, int status, long ttfb, long duration, long received,
+        long sent);
+
+    /**
+     * Connection was closed before response was completed.
+     * @param method Request method
+     * @param duration Request duration until connection was closed in nanoseconds
+     * @param received Request bytes received
+     * @param sent Response body bytes sent
+     */
+    void aborted(String method, long duration, long received, long sent);
+}
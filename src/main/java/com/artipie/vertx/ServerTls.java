@@ -0,0 +1,443 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.net.JdkSSLEngineOptions;
+import io.vertx.core.net.KeyCertOptions;
+import io.vertx.core.net.OpenSSLEngineOptions;
+import java.net.Socket;
+import java.security.Principal;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.net.ssl.KeyManager;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.X509ExtendedKeyManager;
+import javax.net.ssl.X509KeyManager;
+
+/**
+ * TLS of {@link VertxSliceServer}: server certificate which can be reloaded
+ * while the server is running and SSL engine to terminate TLS with.
+ * <p>
+ * OpenSSL engine is used if it's preferred and {@code netty-tcnative} is in
+ * classpath, e.g. {@code netty-tcnative-boringssl-static}, otherwise JDK
+ * engine is used. Both engines resume sessions: OpenSSL with server session
+ * cache and session tickets, JDK with its default session cache and
+ * TLS 1.3 session tickets. TLS 1.3 and 1.2 are enabled by default,
+ * ALPN is enabled by the server.
+ * </p>
+ * <p>
+ * Certificate is served by key manager which delegates to the last loaded
+ * certificate, so {@link #reload()} replaces it atomically: new handshakes
+ * use new certificate, established connections and resumed sessions keep
+ * the old one and are not dropped.
+ * </p>
+ * @since 0.4
+ */
+public final class ServerTls {
+
+    /**
+     * Default TLS protocols: Vert.x enables TLS 1.3 only if it's requested.
+     */
+    public static final List<String> DEFAULT_PROTOCOLS = Collections.unmodifiableList(
+        Arrays.asList("TLSv1.3", "TLSv1.2")
+    );
+
+    /**
+     * Key manager of the last loaded certificate.
+     */
+    private final ReloadableKeys keys;
+
+    /**
+     * Certificate source.
+     */
+    private KeyCertOptions source;
+
+    /**
+     * Whether OpenSSL engine is preferred.
+     */
+    private boolean openssl;
+
+    /**
+     * Enabled TLS protocols.
+     */
+    private List<String> protocols;
+
+    /**
+     * Vert.x of started server, null if server was not started.
+     */
+    private Vertx vertx;
+
+    /**
+     * Ctor.
+     * @param certificate Server certificate and private key, e.g.
+     *  {@link io.vertx.core.net.PemKeyCertOptions}
+     */
+    public ServerTls(final KeyCertOptions certificate) {
+        this.keys = new ReloadableKeys();
+        this.source = certificate;
+        this.openssl = true;
+        this.protocols = ServerTls.DEFAULT_PROTOCOLS;
+    }
+
+    /**
+     * Whether OpenSSL engine is used.
+     * @return True if OpenSSL is preferred and available
+     */
+    public boolean isOpenSsl() {
+        return this.openssl && OpenSSLEngineOptions.isAvailable();
+    }
+
+    /**
+     * Prefer OpenSSL engine, which is preferred by default.
+     * @param preferred Whether OpenSSL engine is preferred
+     * @return This TLS
+     */
+    public ServerTls setOpenSsl(final boolean preferred) {
+        this.openssl = preferred;
+        return this;
+    }
+
+    /**
+     * Enabled TLS protocols.
+     * @return Protocols, e.g. {@code TLSv1.3}
+     */
+    public List<String> getProtocols() {
+        return this.protocols;
+    }
+
+    /**
+     * Set enabled TLS protocols.
+     * @param names Protocols, e.g. {@code TLSv1.3}
+     * @return This TLS
+     */
+    public ServerTls setProtocols(final String... names) {
+        if (names.length == 0) {
+            throw new IllegalArgumentException("At least one TLS protocol must be enabled");
+        }
+        this.protocols = Collections.unmodifiableList(Arrays.asList(names.clone()));
+        return this;
+    }
+
+    /**
+     * Reload certificate from its source, e.g. after certificate files
+     * were renewed. If certificate can't be loaded, the old one is still used.
+     * Certificate files are read by the caller, so it should not be called
+     * on event loop.
+     */
+    public void reload() {
+        final KeyCertOptions certificate;
+        final Vertx owner;
+        synchronized (this.keys) {
+            certificate = this.source;
+            owner = this.vertx;
+        }
+        if (owner != null) {
+            this.keys.update(ServerTls.load(certificate, owner));
+        }
+    }
+
+    /**
+     * Replace certificate source and reload certificate from it.
+     * @param certificate Server certificate and private key
+     * @see #reload()
+     */
+    public void reload(final KeyCertOptions certificate) {
+        synchronized (this.keys) {
+            this.source = certificate;
+        }
+        this.reload();
+    }
+
+    /**
+     * Configure server options to terminate TLS with this certificate,
+     * certificate is loaded when it's configured first time.
+     * @param opts Server options
+     * @param owner Vert.x of the server
+     */
+    void configure(final HttpServerOptions opts, final Vertx owner) {
+        final KeyCertOptions certificate;
+        final boolean loaded;
+        synchronized (this.keys) {
+            certificate = this.source;
+            loaded = this.vertx != null;
+        }
+        if (!loaded) {
+            this.keys.update(ServerTls.load(certificate, owner));
+            synchronized (this.keys) {
+                this.vertx = owner;
+            }
+        }
+        opts.setSsl(true).setKeyCertOptions(KeyCertOptions.wrap(this.keys))
+            .setEnabledSecureTransportProtocols(new LinkedHashSet<>(this.protocols));
+        if (this.isOpenSsl()) {
+            opts.setOpenSslEngineOptions(new OpenSSLEngineOptions().setSessionCacheEnabled(true));
+        } else {
+            opts.setJdkSslEngineOptions(new JdkSSLEngineOptions());
+        }
+    }
+
+    /**
+     * Load key manager of certificate. Certificate options cache loaded
+     * certificate, so it's loaded from their copy.
+     * @param certificate Certificate
+     * @param owner Vert.x to read certificate files with
+     * @return Key manager
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private static X509KeyManager load(final KeyCertOptions certificate, final Vertx owner) {
+        X509KeyManager res = null;
+        try {
+            for (final KeyManager manager
+                : certificate.copy().getKeyManagerFactory(owner).getKeyManagers()) {
+                if (manager instanceof X509KeyManager) {
+                    res = (X509KeyManager) manager;
+                    break;
+                }
+            }
+            //@checkstyle IllegalCatchCheck (1 line)
+        } catch (final Exception ex) {
+            throw new IllegalStateException("Failed to load server certificate", ex);
+        }
+        if (res == null) {
+            throw new IllegalStateException("Server certificate has no X.509 key manager");
+        }
+        return res;
+    }
+
+    /**
+     * Key manager which delegates to the last loaded one. Aliases are
+     * prefixed with generation of key manager which has chosen them,
+     * so the certificate chain and the private key of a handshake are
+     * taken from the same certificate even if it's reloaded in between.
+     * @since 0.4
+     */
+    private static final class ReloadableKeys extends X509ExtendedKeyManager {
+
+        /**
+         * Last loaded generation, null until certificate is loaded.
+         */
+        private final AtomicReference<Generation> last;
+
+        /**
+         * Ctor.
+         */
+        ReloadableKeys() {
+            super();
+            this.last = new AtomicReference<>();
+        }
+
+        @Override
+        public String[] getClientAliases(final String type, final Principal[] issuers) {
+            return null;
+        }
+
+        @Override
+        public String chooseClientAlias(final String[] types, final Principal[] issuers,
+            final Socket socket) {
+            return null;
+        }
+
+        @Override
+        public String[] getServerAliases(final String type, final Principal[] issuers) {
+            final Generation gen = this.last.get();
+            String[] res = null;
+            if (gen != null) {
+                final String[] aliases = gen.keys.getServerAliases(type, issuers);
+                if (aliases != null) {
+                    res = new String[aliases.length];
+                    for (int idx = 0; idx < aliases.length; ++idx) {
+                        res[idx] = gen.alias(aliases[idx]);
+                    }
+                }
+            }
+            return res;
+        }
+
+        @Override
+        public String chooseServerAlias(final String type, final Principal[] issuers,
+            final Socket socket) {
+            final Generation gen = this.last.get();
+            String res = null;
+            if (gen != null) {
+                res = gen.alias(gen.keys.chooseServerAlias(type, issuers, socket));
+            }
+            return res;
+        }
+
+        @Override
+        public String chooseEngineServerAlias(final String type, final Principal[] issuers,
+            final SSLEngine engine) {
+            final Generation gen = this.last.get();
+            String res = null;
+            if (gen != null) {
+                final String alias;
+                if (gen.keys instanceof X509ExtendedKeyManager) {
+                    alias = ((X509ExtendedKeyManager) gen.keys)
+                        .chooseEngineServerAlias(type, issuers, engine);
+                } else {
+                    alias = gen.keys.chooseServerAlias(type, issuers, null);
+                }
+                res = gen.alias(alias);
+            }
+            return res;
+        }
+
+        @Override
+        public X509Certificate[] getCertificateChain(final String alias) {
+            final Generation gen = this.generation(alias);
+            X509Certificate[] res = null;
+            if (gen != null) {
+                res = gen.keys.getCertificateChain(Generation.origin(alias));
+            }
+            return res;
+        }
+
+        @Override
+        public PrivateKey getPrivateKey(final String alias) {
+            final Generation gen = this.generation(alias);
+            PrivateKey res = null;
+            if (gen != null) {
+                res = gen.keys.getPrivateKey(Generation.origin(alias));
+            }
+            return res;
+        }
+
+        /**
+         * Replace key manager, previous one is kept for handshakes which
+         * have chosen its alias already.
+         * @param keys Key manager of new certificate
+         */
+        void update(final X509KeyManager keys) {
+            Generation prev;
+            do {
+                prev = this.last.get();
+            } while (!this.last.compareAndSet(prev, Generation.after(prev, keys)));
+        }
+
+        /**
+         * Generation which has chosen alias.
+         * @param alias Alias with generation prefix
+         * @return Generation, null if it's unknown or was replaced twice
+         */
+        private Generation generation(final String alias) {
+            final Generation gen = this.last.get();
+            Generation res = null;
+            if (alias != null && gen != null) {
+                final long number = Generation.number(alias);
+                if (gen.number == number) {
+                    res = gen;
+                } else if (gen.previous != null && gen.previous.number == number) {
+                    res = gen.previous;
+                }
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Loaded certificate key manager.
+     * @since 0.4
+     */
+    private static final class Generation {
+
+        /**
+         * Separator of generation number and origin alias.
+         */
+        private static final char SEP = ':';
+
+        /**
+         * Generation number.
+         */
+        private final long number;
+
+        /**
+         * Key manager.
+         */
+        private final X509KeyManager keys;
+
+        /**
+         * Previous generation without its own previous one, null if none.
+         */
+        private final Generation previous;
+
+        /**
+         * Ctor.
+         * @param number Generation number
+         * @param keys Key manager
+         * @param previous Previous generation
+         */
+        Generation(final long number, final X509KeyManager keys, final Generation previous) {
+            this.number = number;
+            this.keys = keys;
+            this.previous = previous;
+        }
+
+        /**
+         * Generation which replaces previous one.
+         * @param prev Previous generation, null if there is none
+         * @param keys Key manager
+         * @return Generation
+         */
+        static Generation after(final Generation prev, final X509KeyManager keys) {
+            final Generation res;
+            if (prev == null) {
+                res = new Generation(0L, keys, null);
+            } else {
+                res = new Generation(
+                    prev.number + 1L, keys, new Generation(prev.number, prev.keys, null)
+                );
+            }
+            return res;
+        }
+
+        /**
+         * Alias of this generation.
+         * @param origin Alias of key manager, may be null
+         * @return Alias with generation prefix, null if origin alias is null
+         */
+        String alias(final String origin) {
+            String res = null;
+            if (origin != null) {
+                res = new StringBuilder().append(this.number).append(Generation.SEP)
+                    .append(origin).toString();
+            }
+            return res;
+        }
+
+        /**
+         * Generation number of alias.
+         * @param alias Alias with generation prefix
+         * @return Number, negative if alias has no prefix
+         */
+        static long number(final String alias) {
+            final int sep = alias.indexOf(Generation.SEP);
+            long res = -1L;
+            if (sep > 0) {
+                try {
+                    res = Long.parseLong(alias.substring(0, sep));
+                } catch (final NumberFormatException ex) {
+                    res = -1L;
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Alias of key manager.
+         * @param alias Alias with generation prefix
+         * @return Origin alias
+         */
+        static String origin(final String alias) {
+            return alias.substring(alias.indexOf(Generation.SEP) + 1);
+        }
+    }
+}
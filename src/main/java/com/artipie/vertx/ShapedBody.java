@@ -0,0 +1,136 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.reactivex.Flowable;
+import io.reactivex.Scheduler;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+
+/**
+ * Response body shaped by {@link TrafficShaper}: chunks are split into
+ * quanta and each quantum is emitted when rate limits allow it.
+ * Chunks are sliced without copying.
+ * @since 0.4
+ */
+final class ShapedBody implements Publisher<ByteBuffer> {
+
+    /**
+     * Min wait time to delay quantum for, shorter waits are not delayed
+     * but still taken from buckets.
+     */
+    private static final long MIN_WAIT = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    /**
+     * Origin body.
+     */
+    private final Publisher<ByteBuffer> origin;
+
+    /**
+     * Traffic shaper.
+     */
+    private final TrafficShaper shaper;
+
+    /**
+     * Client address.
+     */
+    private final String client;
+
+    /**
+     * Connection of response.
+     */
+    private final Object connection;
+
+    /**
+     * Whether body is written without waiting.
+     */
+    private final boolean urgent;
+
+    /**
+     * Scheduler of delayed quanta.
+     */
+    private final Scheduler scheduler;
+
+    /**
+     * Ctor.
+     * @param origin Origin body
+     * @param shaper Traffic shaper
+     * @param client Client address
+     * @param connection Connection of response
+     * @param urgent Whether body is written without waiting
+     * @param scheduler Scheduler of delayed quanta
+     * @checkstyle ParameterNumberCheck (5 lines)
+     */
+    ShapedBody(final Publisher<ByteBuffer> origin, final TrafficShaper shaper,
+        final String client, final Object connection, final boolean urgent,
+        final Scheduler scheduler) {
+        this.origin = origin;
+        this.shaper = shaper;
+        this.client = client;
+        this.connection = connection;
+        this.urgent = urgent;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void subscribe(final Subscriber<? super ByteBuffer> subscriber) {
+        final int quantum = this.shaper.getQuantum();
+        Flowable.using(
+            () -> this.shaper.open(this.client, this.connection),
+            stream -> Flowable.fromPublisher(this.origin).concatMap(
+                chunk -> Flowable.fromIterable(ShapedBody.quanta(chunk, quantum))
+                    .concatMap(part -> this.delayed(stream, part), 1),
+                1
+            ),
+            TrafficShaper.Stream::close
+        ).subscribe(subscriber);
+    }
+
+    /**
+     * Quantum which is emitted when rate limits allow it.
+     * @param stream Stream of the body
+     * @param part Quantum
+     * @return Publisher of quantum
+     */
+    private Flowable<ByteBuffer> delayed(final TrafficShaper.Stream stream,
+        final ByteBuffer part) {
+        final long wait = stream.reserve(part.remaining());
+        final Flowable<ByteBuffer> res;
+        if (this.urgent || wait < ShapedBody.MIN_WAIT) {
+            res = Flowable.just(part);
+        } else {
+            res = Flowable.just(part).delay(wait, TimeUnit.NANOSECONDS, this.scheduler);
+        }
+        return res;
+    }
+
+    /**
+     * Split chunk into quanta.
+     * @param chunk Chunk
+     * @param quantum Quantum size in bytes
+     * @return Quanta
+     */
+    private static List<ByteBuffer> quanta(final ByteBuffer chunk, final int quantum) {
+        final List<ByteBuffer> res;
+        if (chunk.remaining() <= quantum) {
+            res = Collections.singletonList(chunk);
+        } else {
+            res = new ArrayList<>(chunk.remaining() / quantum + 1);
+            final int limit = chunk.limit();
+            for (int pos = chunk.position(); pos < limit; pos += quantum) {
+                final ByteBuffer part = chunk.duplicate();
+                part.position(pos);
+                part.limit(Math.min(pos + quantum, limit));
+                res.add(part.slice());
+            }
+        }
+        return res;
+    }
+}
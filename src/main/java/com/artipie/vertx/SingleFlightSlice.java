@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Connection;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rq.RqMethod;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.reactivestreams.Publisher;
+
+/**
+ * Slice which invokes origin slice once for concurrent identical
+ * {@code GET} requests.
+ * <p>
+ * Requests are identical if they have the same URI and the same values of
+ * headers which may change the response: credentials, content negotiation,
+ * range and conditional headers. While origin slice is preparing the
+ * response to the first request, identical requests wait for it; then the
+ * response is sent to all of them, see {@link Flight}. Requests which
+ * arrive after the response was started invoke the slice again. Requests
+ * with body are not coalesced.
+ * </p>
+ * @since 0.4
+ */
+final class SingleFlightSlice implements Slice {
+
+    /**
+     * Request headers which are part of the key.
+     */
+    private static final String[] KEY = {
+        "Host", "Authorization", "Cookie", "Accept", "Accept-Encoding", "Accept-Language",
+        "Range", "If-Range", "If-None-Match", "If-Modified-Since",
+        "If-Match", "If-Unmodified-Since",
+    };
+
+    /**
+     * Origin slice.
+     */
+    private final Slice origin;
+
+    /**
+     * Size of buffer of each request in body chunks.
+     */
+    private final int buffer;
+
+    /**
+     * Flights by request key.
+     */
+    private final ConcurrentMap<String, Flight> flights;
+
+    /**
+     * Ctor.
+     * @param origin Origin slice
+     * @param buffer Size of buffer of each request in body chunks
+     */
+    SingleFlightSlice(final Slice origin, final int buffer) {
+        this.origin = origin;
+        this.buffer = buffer;
+        this.flights = new ConcurrentHashMap<>();
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        final RequestLineFrom rql = new RequestLineFrom(line);
+        final Response res;
+        if (rql.method() == RqMethod.GET && !SingleFlightSlice.hasBody(headers)) {
+            final String key = SingleFlightSlice.key(rql.uri().toString(), headers);
+            final Flight[] created = new Flight[1];
+            final Flight flight = this.flights.compute(
+                key,
+                (name, current) -> {
+                    final Flight next;
+                    if (current != null && current.join()) {
+                        next = current;
+                    } else {
+                        created[0] = new Flight(
+                            this.buffer, () -> this.flights.remove(name, created[0])
+                        );
+                        next = created[0];
+                    }
+                    return next;
+                }
+            );
+            if (flight == created[0]) {
+                res = connection -> this.lead(flight, line, headers, body, connection);
+            } else {
+                res = flight::send;
+            }
+        } else {
+            res = this.origin.response(line, headers, body);
+        }
+        return res;
+    }
+
+    /**
+     * Invoke origin slice for the first request of the flight.
+     * @param flight Flight
+     * @param line Request line
+     * @param headers Request headers
+     * @param body Request body
+     * @param connection Response connection
+     * @return Completion of response sending
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private CompletionStage<Void> lead(final Flight flight, final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body,
+        final Connection connection) {
+        try {
+            return this.origin.response(line, headers, body).send(
+                (status, rsheaders, rsbody) -> flight.land(status, rsheaders, rsbody, connection)
+            ).whenComplete(
+                (ignored, err) -> {
+                    if (err != null) {
+                        flight.fail(err);
+                    }
+                }
+            );
+            //@checkstyle IllegalCatchCheck (1 line)
+        } catch (final RuntimeException ex) {
+            flight.fail(ex);
+            throw ex;
+        }
+    }
+
+    /**
+     * Key of request.
+     * @param uri Request URI
+     * @param headers Request headers
+     * @return Key
+     */
+    private static String key(final String uri,
+        final Iterable<Map.Entry<String, String>> headers) {
+        final StringBuilder res = new StringBuilder(uri);
+        for (final String name : SingleFlightSlice.KEY) {
+            for (final Map.Entry<String, String> header : headers) {
+                if (name.equalsIgnoreCase(header.getKey())) {
+                    res.append('\n').append(name).append(':').append(header.getValue());
+                }
+            }
+        }
+        return res.toString();
+    }
+
+    /**
+     * Whether request has body.
+     * @param headers Request headers
+     * @return True if it has non-empty body or chunked body
+     */
+    private static boolean hasBody(final Iterable<Map.Entry<String, String>> headers) {
+        boolean res = false;
+        for (final Map.Entry<String, String> header : headers) {
+            if ("Transfer-Encoding".equalsIgnoreCase(header.getKey())
+                || "Content-Length".equalsIgnoreCase(header.getKey())
+                && !"0".equals(header.getValue().trim())) {
+                res = true;
+                break;
+            }
+        }
+        return res;
+    }
+}
@@ -0,0 +1,380 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.reactivestreams.Publisher;
+
+/**
+ * Router of requests to slices mounted by {@code Host} header and path prefix,
+ * so one {@link VertxSliceServer} can serve many repositories.
+ * <p>
+ * Mounts of each host are kept in a trie of path segments: request is routed
+ * to the slice mounted with the longest prefix of its path, the cost of it
+ * depends on path length only, not on the number of mounts. Prefixes match
+ * whole segments, e.g. {@code /maven} matches {@code /maven/a.jar} but not
+ * {@code /mavenx}. Slices mounted for {@link #ANY_HOST} serve requests which
+ * don't match mounts of their host. Path is passed to the slice as is.
+ * </p>
+ * <p>
+ * Mounts can be changed at any time while the server is running: tries are
+ * immutable and replaced on each change, so requests are routed without
+ * locks and see either old or new mounts.
+ * </p>
+ * @since 0.4
+ */
+public final class SliceRouter implements Slice {
+
+    /**
+     * Host of mounts which serve requests to any host.
+     */
+    public static final String ANY_HOST = "*";
+
+    /**
+     * Slice for requests which don't match any mount.
+     */
+    private final Slice fallback;
+
+    /**
+     * Lock of mounts changes.
+     */
+    private final Object lock;
+
+    /**
+     * Tries of mounts by host, the map is replaced on each change.
+     */
+    private volatile Map<String, Node> hosts;
+
+    /**
+     * Router which responds with {@code 404 Not Found} to requests
+     * which don't match any mount.
+     */
+    public SliceRouter() {
+        this(
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.NOT_FOUND, Headers.EMPTY, Flowable.empty()
+            )
+        );
+    }
+
+    /**
+     * Ctor.
+     * @param fallback Slice for requests which don't match any mount
+     */
+    public SliceRouter(final Slice fallback) {
+        this.fallback = fallback;
+        this.lock = new Object();
+        this.hosts = Collections.emptyMap();
+    }
+
+    @Override
+    public Response response(final String line,
+        final Iterable<Map.Entry<String, String>> headers, final Publisher<ByteBuffer> body) {
+        return this.route(SliceRouter.host(headers), SliceRouter.path(line))
+            .response(line, headers, body);
+    }
+
+    /**
+     * Mount slice for any host, it replaces slice mounted with the same prefix.
+     * @param prefix Path prefix, e.g. {@code /maven}
+     * @param slice Slice
+     * @return This router
+     */
+    public SliceRouter mount(final String prefix, final Slice slice) {
+        return this.mount(SliceRouter.ANY_HOST, prefix, slice);
+    }
+
+    /**
+     * Mount slice for host, it replaces slice mounted with the same host and prefix.
+     * @param host Host name without port, or {@link #ANY_HOST}
+     * @param prefix Path prefix, e.g. {@code /maven}
+     * @param slice Slice
+     * @return This router
+     */
+    public SliceRouter mount(final String host, final String prefix, final Slice slice) {
+        final String name = SliceRouter.hostname(host);
+        final List<String> segments = SliceRouter.segments(prefix);
+        synchronized (this.lock) {
+            final Map<String, Node> copy = new HashMap<>(this.hosts);
+            copy.put(name, copy.getOrDefault(name, Node.EMPTY).with(segments, 0, slice));
+            this.hosts = copy;
+        }
+        return this;
+    }
+
+    /**
+     * Unmount slice mounted for any host.
+     * @param prefix Path prefix
+     * @return This router
+     */
+    public SliceRouter unmount(final String prefix) {
+        return this.unmount(SliceRouter.ANY_HOST, prefix);
+    }
+
+    /**
+     * Unmount slice mounted for host, slices mounted with longer
+     * prefixes stay mounted.
+     * @param host Host name without port, or {@link #ANY_HOST}
+     * @param prefix Path prefix
+     * @return This router
+     */
+    public SliceRouter unmount(final String host, final String prefix) {
+        final String name = SliceRouter.hostname(host);
+        final List<String> segments = SliceRouter.segments(prefix);
+        synchronized (this.lock) {
+            final Node root = this.hosts.get(name);
+            if (root != null) {
+                final Map<String, Node> copy = new HashMap<>(this.hosts);
+                final Node pruned = root.without(segments, 0);
+                if (pruned.isEmpty()) {
+                    copy.remove(name);
+                } else {
+                    copy.put(name, pruned);
+                }
+                this.hosts = copy;
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Slice to route request to.
+     * @param host Request host, lower case without port
+     * @param path Request path
+     * @return Slice
+     */
+    private Slice route(final String host, final String path) {
+        final Map<String, Node> tries = this.hosts;
+        Slice res = null;
+        final Node root = tries.get(host);
+        if (root != null) {
+            res = root.find(path);
+        }
+        if (res == null) {
+            final Node any = tries.get(SliceRouter.ANY_HOST);
+            if (any != null) {
+                res = any.find(path);
+            }
+        }
+        if (res == null) {
+            res = this.fallback;
+        }
+        return res;
+    }
+
+    /**
+     * Host of request: {@code Host} header or HTTP/2 {@code :authority}
+     * pseudo-header.
+     * @param headers Request headers
+     * @return Host name in lower case without port, empty if it's unknown
+     */
+    private static String host(final Iterable<Map.Entry<String, String>> headers) {
+        String res = "";
+        for (final Map.Entry<String, String> header : headers) {
+            final String name = header.getKey();
+            if ("Host".equalsIgnoreCase(name) || ":authority".equals(name)) {
+                res = SliceRouter.hostname(header.getValue());
+                break;
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Host name in lower case without port.
+     * @param authority Host with optional port, IPv6 addresses are in brackets
+     * @return Host name
+     */
+    private static String hostname(final String authority) {
+        final String host = authority.trim();
+        final int colon;
+        if (host.startsWith("[")) {
+            colon = host.indexOf(':', host.indexOf(']'));
+        } else {
+            colon = host.indexOf(':');
+        }
+        final String res;
+        if (colon < 0) {
+            res = host;
+        } else {
+            res = host.substring(0, colon);
+        }
+        return res.toLowerCase(Locale.US);
+    }
+
+    /**
+     * Path of request line: request URI without scheme, authority and query.
+     * @param line Request line
+     * @return Path
+     */
+    private static String path(final String line) {
+        final int start = line.indexOf(' ') + 1;
+        int end = line.indexOf(' ', start);
+        if (end < 0) {
+            end = line.length();
+        }
+        int from = start;
+        final int scheme = line.indexOf("://", start);
+        if (scheme > 0 && scheme < end) {
+            from = line.indexOf('/', scheme + 3);
+            if (from < 0 || from > end) {
+                from = end;
+            }
+        }
+        int upto = end;
+        for (int idx = from; idx < end; ++idx) {
+            final char chr = line.charAt(idx);
+            if (chr == '?' || chr == '#') {
+                upto = idx;
+                break;
+            }
+        }
+        return line.substring(from, upto);
+    }
+
+    /**
+     * Non-empty segments of path.
+     * @param path Path
+     * @return Segments
+     */
+    private static List<String> segments(final String path) {
+        final List<String> res = new ArrayList<>(4);
+        for (final String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                res.add(segment);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Immutable trie node of path segments.
+     * @since 0.4
+     */
+    private static final class Node {
+
+        /**
+         * Node without slice and children.
+         */
+        private static final Node EMPTY = new Node(null, Collections.emptyMap());
+
+        /**
+         * Slice mounted at this node, null if there is none.
+         */
+        private final Slice slice;
+
+        /**
+         * Children by path segment.
+         */
+        private final Map<String, Node> children;
+
+        /**
+         * Ctor.
+         * @param slice Slice mounted at this node, null if there is none
+         * @param children Children by path segment
+         */
+        Node(final Slice slice, final Map<String, Node> children) {
+            this.slice = slice;
+            this.children = children;
+        }
+
+        /**
+         * Slice mounted with the longest prefix of path.
+         * @param path Request path
+         * @return Slice or null if there is none
+         */
+        Slice find(final String path) {
+            Node node = this;
+            Slice res = this.slice;
+            final int len = path.length();
+            int pos = 0;
+            while (pos < len && !node.children.isEmpty()) {
+                int end = path.indexOf('/', pos);
+                if (end < 0) {
+                    end = len;
+                }
+                if (end > pos) {
+                    node = node.children.get(path.substring(pos, end));
+                    if (node == null) {
+                        break;
+                    }
+                    if (node.slice != null) {
+                        res = node.slice;
+                    }
+                }
+                pos = end + 1;
+            }
+            return res;
+        }
+
+        /**
+         * Copy of this node with slice mounted at path.
+         * @param segments Path segments
+         * @param idx Index of segment of this node's child
+         * @param mounted Slice to mount
+         * @return Node
+         */
+        Node with(final List<String> segments, final int idx, final Slice mounted) {
+            final Node res;
+            if (idx == segments.size()) {
+                res = new Node(mounted, this.children);
+            } else {
+                final String key = segments.get(idx);
+                final Map<String, Node> copy = new HashMap<>(this.children);
+                copy.put(
+                    key, copy.getOrDefault(key, Node.EMPTY).with(segments, idx + 1, mounted)
+                );
+                res = new Node(this.slice, copy);
+            }
+            return res;
+        }
+
+        /**
+         * Copy of this node without slice mounted at path,
+         * empty nodes are pruned.
+         * @param segments Path segments
+         * @param idx Index of segment of this node's child
+         * @return Node
+         */
+        Node without(final List<String> segments, final int idx) {
+            Node res = this;
+            if (idx == segments.size()) {
+                res = new Node(null, this.children);
+            } else {
+                final Node child = this.children.get(segments.get(idx));
+                if (child != null) {
+                    final Map<String, Node> copy = new HashMap<>(this.children);
+                    final Node pruned = child.without(segments, idx + 1);
+                    if (pruned.isEmpty()) {
+                        copy.remove(segments.get(idx));
+                    } else {
+                        copy.put(segments.get(idx), pruned);
+                    }
+                    res = new Node(this.slice, copy);
+                }
+            }
+            return res;
+        }
+
+        /**
+         * Whether node has neither slice nor children.
+         * @return True if empty
+         */
+        boolean isEmpty() {
+            return this.slice == null && this.children.isEmpty();
+        }
+    }
+}
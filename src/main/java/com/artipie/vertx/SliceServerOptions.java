@@ -0,0 +1,812 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Options of {@link VertxSliceServer} which are not covered by
+ * {@link io.vertx.core.http.HttpServerOptions}.
+ * @since 0.4
+ */
+public final class SliceServerOptions {
+
+    /**
+     * Default response write queue max size in bytes.
+     */
+    public static final int DEFAULT_WRITE_QUEUE_MAX_SIZE = 64 * 1024;
+
+    /**
+     * Default delay of response coalescing.
+     */
+    public static final Duration DEFAULT_COALESCING_DELAY = Duration.ofMillis(1L);
+
+    /**
+     * Default number of request body chunks read in advance of slice demand.
+     */
+    public static final int DEFAULT_REQUEST_PREFETCH = 4;
+
+    /**
+     * Default max number of requests waiting for slice executor.
+     */
+    public static final int DEFAULT_MAX_QUEUED_REQUESTS = 1024;
+
+    /**
+     * Default min size of response body to compress in bytes.
+     */
+    public static final int DEFAULT_COMPRESSION_MIN_SIZE = 1024;
+
+    /**
+     * Default content types which are not compressed: archives, images, media
+     * and other already compressed formats. Type prefixes end with slash.
+     */
+    public static final List<String> DEFAULT_INCOMPRESSIBLE_TYPES = Collections.unmodifiableList(
+        Arrays.asList(
+            "image/", "audio/", "video/", "font/woff", "font/woff2",
+            "application/zip", "application/gzip", "application/x-gzip",
+            "application/x-bzip2", "application/x-xz",
+            "application/x-7z-compressed", "application/x-rar-compressed",
+            "application/zstd", "application/java-archive", "application/x-rpm",
+            "application/vnd.debian.binary-package", "application/octet-stream"
+        )
+    );
+
+    /**
+     * Number of available CPU cores.
+     */
+    private static final int CPU_CORES = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Response write queue max size in bytes.
+     */
+    private int wqmax;
+
+    /**
+     * Number of request body chunks read in advance of slice demand.
+     */
+    private int prefetch;
+
+    /**
+     * Response coalescing size in bytes, zero if disabled.
+     */
+    private int csize;
+
+    /**
+     * Response coalescing delay.
+     */
+    private Duration cdelay;
+
+    /**
+     * Number of server instances.
+     */
+    private int instances;
+
+    /**
+     * Size of worker pool to invoke slice on, zero if not used.
+     */
+    private int wpool;
+
+    /**
+     * Executor to invoke slice on, null if not used.
+     */
+    private Executor executor;
+
+    /**
+     * Max number of requests waiting for slice executor.
+     */
+    private int maxqueued;
+
+    /**
+     * Server metrics.
+     */
+    private ServerMetrics metrics;
+
+    /**
+     * Metrics endpoint path, null if not served.
+     */
+    private String mpath;
+
+    /**
+     * Admission control.
+     */
+    private AdmissionControl admission;
+
+    /**
+     * Strategy for failed requests.
+     */
+    private ServerErrors errors;
+
+    /**
+     * Pre-check of requests expecting continue.
+     */
+    private ContinueCheck expect;
+
+    /**
+     * Response cache, null if responses are not cached.
+     */
+    private ResponseCache cache;
+
+    /**
+     * Single-flight buffer of each request in body chunks, zero if disabled.
+     */
+    private int flight;
+
+    /**
+     * Whether native transport is preferred.
+     */
+    private boolean transport;
+
+    /**
+     * Whether {@code SO_REUSEPORT} is enabled.
+     */
+    private boolean reuseport;
+
+    /**
+     * Whether {@code TCP_FASTOPEN} is enabled.
+     */
+    private boolean fastopen;
+
+    /**
+     * Whether {@code TCP_QUICKACK} is enabled.
+     */
+    private boolean quickack;
+
+    /**
+     * Socket send buffer size in bytes, zero for system default.
+     */
+    private int sndbuf;
+
+    /**
+     * Socket receive buffer size in bytes, zero for system default.
+     */
+    private int rcvbuf;
+
+    /**
+     * Whether HTTP/2 is enabled.
+     */
+    private boolean http2;
+
+    /**
+     * Max number of concurrent HTTP/2 streams per connection, zero for default.
+     */
+    private long streams;
+
+    /**
+     * Min size of response body to compress in bytes.
+     */
+    private int cmin;
+
+    /**
+     * Content types which are not compressed.
+     */
+    private List<String> incompressible;
+
+    /**
+     * Server TLS, null if TLS is not terminated by the server.
+     */
+    private ServerTls tls;
+
+    /**
+     * Access log, null if requests are not logged.
+     */
+    private AccessLog access;
+
+    /**
+     * Traffic shaper of responses, null if responses are not shaped.
+     */
+    private TrafficShaper shaper;
+
+    /**
+     * Default options.
+     */
+    public SliceServerOptions() {
+        this.wqmax = SliceServerOptions.DEFAULT_WRITE_QUEUE_MAX_SIZE;
+        this.prefetch = SliceServerOptions.DEFAULT_REQUEST_PREFETCH;
+        this.cdelay = SliceServerOptions.DEFAULT_COALESCING_DELAY;
+        this.instances = 1;
+        this.maxqueued = SliceServerOptions.DEFAULT_MAX_QUEUED_REQUESTS;
+        this.metrics = ServerMetrics.NONE;
+        this.admission = AdmissionControl.UNLIMITED;
+        this.errors = new LeanErrors();
+        this.expect = ContinueCheck.ACCEPT;
+        this.cmin = SliceServerOptions.DEFAULT_COMPRESSION_MIN_SIZE;
+        this.incompressible = SliceServerOptions.DEFAULT_INCOMPRESSIBLE_TYPES;
+    }
+
+    /**
+     * Response write queue max size: high watermark of bytes queued for
+     * writing to client after which response body is not read from slice
+     * until the queue is drained.
+     * @return Size in bytes
+     */
+    public int getWriteQueueMaxSize() {
+        return this.wqmax;
+    }
+
+    /**
+     * Set response write queue max size.
+     * @param size Size in bytes
+     * @return These options
+     */
+    public SliceServerOptions setWriteQueueMaxSize(final int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("Write queue max size must be positive");
+        }
+        this.wqmax = size;
+        return this;
+    }
+
+    /**
+     * Response coalescing size: chunks of response body smaller than this
+     * size are collected to one buffer before writing.
+     * @return Size in bytes, zero if coalescing is disabled
+     */
+    public int getCoalescingSize() {
+        return this.csize;
+    }
+
+    /**
+     * Response coalescing delay: max time a small chunk waits for others
+     * before it's written.
+     * @return Delay
+     */
+    public Duration getCoalescingDelay() {
+        return this.cdelay;
+    }
+
+    /**
+     * Coalesce small chunks of response body: they are collected to one
+     * buffer which is written when it reaches the size or when the delay has
+     * passed. The first chunk and chunks which are not smaller than the size
+     * are written without delay.
+     * @param size Size in bytes, zero to disable coalescing
+     * @param delay Max time a small chunk waits for others, at least one millisecond
+     * @return These options
+     */
+    public SliceServerOptions setCoalescing(final int size, final Duration delay) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Coalescing size must not be negative");
+        }
+        if (delay.toMillis() < 1L) {
+            throw new IllegalArgumentException("Coalescing delay must be at least 1ms");
+        }
+        this.csize = size;
+        this.cdelay = delay;
+        return this;
+    }
+
+    /**
+     * Request body prefetch: number of chunks read from the socket in advance
+     * of slice demand. Request body held in memory is bounded by demand of
+     * the slice plus this window, the socket isn't read when it's full.
+     * @return Number of chunks
+     */
+    public int getRequestPrefetch() {
+        return this.prefetch;
+    }
+
+    /**
+     * Set request body prefetch.
+     * @param chunks Number of chunks, at least one to observe the end of body
+     * @return These options
+     */
+    public SliceServerOptions setRequestPrefetch(final int chunks) {
+        if (chunks < 1) {
+            throw new IllegalArgumentException("Request prefetch must be positive");
+        }
+        this.prefetch = chunks;
+        return this;
+    }
+
+    /**
+     * Number of server instances sharing the port, each of them
+     * accepts and handles requests on its own event loop.
+     * @return Number of instances
+     */
+    public int getInstances() {
+        return this.instances;
+    }
+
+    /**
+     * Set number of server instances sharing the port.
+     * <p>
+     * With more than one instance the slice is invoked concurrently from
+     * several event loops, so it has to be thread safe.
+     * </p>
+     * @param count Number of instances
+     * @return These options
+     */
+    public SliceServerOptions setInstances(final int count) {
+        if (count < 1) {
+            throw new IllegalArgumentException("Number of instances must be positive");
+        }
+        this.instances = count;
+        return this;
+    }
+
+    /**
+     * Deploy one server instance per CPU core.
+     * @return These options
+     */
+    public SliceServerOptions setMultiCore() {
+        return this.setInstances(SliceServerOptions.CPU_CORES);
+    }
+
+    /**
+     * Size of Vert.x worker pool to invoke slice on.
+     * @return Pool size, zero if slice is invoked on event loop
+     */
+    public int getWorkerPoolSize() {
+        return this.wpool;
+    }
+
+    /**
+     * Invoke slice on a bounded Vert.x worker pool instead of the event loop,
+     * it's useful for slices doing blocking work.
+     * @param size Pool size, zero to invoke slice on event loop
+     * @return These options
+     */
+    public SliceServerOptions setWorkerPoolSize(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Worker pool size must not be negative");
+        }
+        this.wpool = size;
+        return this;
+    }
+
+    /**
+     * Executor to invoke slice on.
+     * @return Executor if configured
+     */
+    public Optional<Executor> getExecutor() {
+        return Optional.ofNullable(this.executor);
+    }
+
+    /**
+     * Invoke slice on given executor instead of the event loop,
+     * e.g. virtual-thread-per-task executor on JDK 21+. Ignored if
+     * {@link #setWorkerPoolSize(int)} is set.
+     * @param exec Executor
+     * @return These options
+     */
+    public SliceServerOptions setExecutor(final Executor exec) {
+        this.executor = exec;
+        return this;
+    }
+
+    /**
+     * Max number of requests waiting for slice executor or worker pool.
+     * @return Max number of queued requests
+     */
+    public int getMaxQueuedRequests() {
+        return this.maxqueued;
+    }
+
+    /**
+     * Set max number of requests waiting for slice executor or worker pool,
+     * requests above this limit are rejected with {@code 503} status.
+     * @param max Max number of queued requests
+     * @return These options
+     */
+    public SliceServerOptions setMaxQueuedRequests(final int max) {
+        if (max < 1) {
+            throw new IllegalArgumentException("Max queued requests must be positive");
+        }
+        this.maxqueued = max;
+        return this;
+    }
+
+    /**
+     * Server metrics registry.
+     * @return Metrics, {@link ServerMetrics#NONE} by default
+     */
+    public ServerMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Record server metrics to given registry.
+     * @param registry Metrics registry
+     * @return These options
+     */
+    public SliceServerOptions setMetrics(final ServerMetrics registry) {
+        this.metrics = registry;
+        this.mpath = null;
+        return this;
+    }
+
+    /**
+     * Record server metrics to built-in registry and serve them
+     * in Prometheus text format on given path.
+     * @param registry Built-in metrics registry
+     * @param path Metrics endpoint path, e.g. {@code /metrics}
+     * @return These options
+     */
+    public SliceServerOptions setMetrics(final HistogramMetrics registry, final String path) {
+        this.metrics = registry;
+        this.mpath = path;
+        return this;
+    }
+
+    /**
+     * Metrics endpoint path.
+     * @return Path if metrics are served
+     */
+    public Optional<String> getMetricsPath() {
+        return Optional.ofNullable(this.mpath);
+    }
+
+    /**
+     * Admission control of requests.
+     * @return Admission control, {@link AdmissionControl#UNLIMITED} by default
+     */
+    public AdmissionControl getAdmissionControl() {
+        return this.admission;
+    }
+
+    /**
+     * Limit requests served concurrently, requests over the limits
+     * are rejected before the slice is invoked.
+     * @param control Admission control
+     * @return These options
+     */
+    public SliceServerOptions setAdmissionControl(final AdmissionControl control) {
+        this.admission = control;
+        return this;
+    }
+
+    /**
+     * Strategy for requests failed by slice.
+     * @return Errors strategy, {@link LeanErrors} by default
+     */
+    public ServerErrors getErrors() {
+        return this.errors;
+    }
+
+    /**
+     * Set strategy for requests failed by slice, e.g.
+     * {@link ServerErrors#VERBOSE} to send stack traces to client for debugging.
+     * @param strategy Errors strategy
+     * @return These options
+     */
+    public SliceServerOptions setErrors(final ServerErrors strategy) {
+        this.errors = strategy;
+        return this;
+    }
+
+    /**
+     * Pre-check of requests with {@code Expect: 100-continue} header.
+     * @return Check, {@link ContinueCheck#ACCEPT} by default
+     */
+    public ContinueCheck getContinueCheck() {
+        return this.expect;
+    }
+
+    /**
+     * Check requests expecting {@code 100 Continue} before their body
+     * is uploaded: rejected requests are answered with the final response
+     * and the body is not read. Not used if Vert.x handles continue
+     * automatically, see
+     * {@link io.vertx.core.http.HttpServerOptions#setHandle100ContinueAutomatically(boolean)}.
+     * @param check Continue check
+     * @return These options
+     */
+    public SliceServerOptions setContinueCheck(final ContinueCheck check) {
+        this.expect = check;
+        return this;
+    }
+
+    /**
+     * Response cache.
+     * @return Cache if responses are cached
+     */
+    public Optional<ResponseCache> getResponseCache() {
+        return Optional.ofNullable(this.cache);
+    }
+
+    /**
+     * Cache responses which slice allows to cache, cached responses
+     * are sent without invoking the slice.
+     * @param responses Response cache, null to disable caching
+     * @return These options
+     */
+    public SliceServerOptions setResponseCache(final ResponseCache responses) {
+        this.cache = responses;
+        return this;
+    }
+
+    /**
+     * Single-flight buffer: number of response body chunks a request of
+     * coalesced ones may lag behind the fastest of them.
+     * @return Number of chunks, zero if requests are not coalesced
+     */
+    public int getSingleFlightBuffer() {
+        return this.flight;
+    }
+
+    /**
+     * Coalesce concurrent identical {@code GET} requests: slice is invoked
+     * once and its response is sent to all of them. Each request reads
+     * the response body through its own buffer, so a slow client holds back
+     * others only when its buffer is full.
+     * @param chunks Buffer size in body chunks, zero to disable coalescing
+     * @return These options
+     */
+    public SliceServerOptions setSingleFlight(final int chunks) {
+        if (chunks < 0) {
+            throw new IllegalArgumentException("Single-flight buffer must not be negative");
+        }
+        this.flight = chunks;
+        return this;
+    }
+
+    /**
+     * Whether native transport is preferred.
+     * @return True if preferred
+     */
+    public boolean isNativeTransport() {
+        return this.transport;
+    }
+
+    /**
+     * Prefer native transport (epoll on Linux, kqueue on macOS) for Vert.x
+     * created by {@link VertxSliceServer}, it requires Netty native transport
+     * library in classpath, e.g. {@code netty-transport-native-epoll}.
+     * Vert.x falls back to NIO transport if the library is not available.
+     * If Vert.x is passed to the server, it should be created with
+     * {@link io.vertx.core.VertxOptions#setPreferNativeTransport(boolean)}.
+     * @param preferred Whether native transport is preferred
+     * @return These options
+     */
+    public SliceServerOptions setNativeTransport(final boolean preferred) {
+        this.transport = preferred;
+        return this;
+    }
+
+    /**
+     * Whether {@code SO_REUSEPORT} socket option is enabled.
+     * @return True if enabled
+     */
+    public boolean isReusePort() {
+        return this.reuseport;
+    }
+
+    /**
+     * Enable {@code SO_REUSEPORT}: several processes may listen on the same
+     * port and the kernel balances connections between them.
+     * Requires native transport.
+     * @param enabled Whether option is enabled
+     * @return These options
+     */
+    public SliceServerOptions setReusePort(final boolean enabled) {
+        this.reuseport = enabled;
+        return this;
+    }
+
+    /**
+     * Whether {@code TCP_FASTOPEN} socket option is enabled.
+     * @return True if enabled
+     */
+    public boolean isTcpFastOpen() {
+        return this.fastopen;
+    }
+
+    /**
+     * Enable {@code TCP_FASTOPEN}: returning clients may send request data
+     * in SYN packet. Requires native transport on Linux.
+     * @param enabled Whether option is enabled
+     * @return These options
+     */
+    public SliceServerOptions setTcpFastOpen(final boolean enabled) {
+        this.fastopen = enabled;
+        return this;
+    }
+
+    /**
+     * Whether {@code TCP_QUICKACK} socket option is enabled.
+     * @return True if enabled
+     */
+    public boolean isTcpQuickAck() {
+        return this.quickack;
+    }
+
+    /**
+     * Enable {@code TCP_QUICKACK}: acknowledgements are sent immediately
+     * instead of being delayed. Requires native transport on Linux.
+     * {@code TCP_NODELAY} is enabled by Vert.x by default.
+     * @param enabled Whether option is enabled
+     * @return These options
+     */
+    public SliceServerOptions setTcpQuickAck(final boolean enabled) {
+        this.quickack = enabled;
+        return this;
+    }
+
+    /**
+     * Socket send buffer size.
+     * @return Size in bytes, zero for system default
+     */
+    public int getSendBufferSize() {
+        return this.sndbuf;
+    }
+
+    /**
+     * Socket receive buffer size.
+     * @return Size in bytes, zero for system default
+     */
+    public int getReceiveBufferSize() {
+        return this.rcvbuf;
+    }
+
+    /**
+     * Set socket send and receive buffer sizes, e.g. larger buffers for
+     * bulk downloads over links with high bandwidth-delay product.
+     * @param send Send buffer size in bytes, zero for system default
+     * @param receive Receive buffer size in bytes, zero for system default
+     * @return These options
+     */
+    public SliceServerOptions setSocketBuffers(final int send, final int receive) {
+        if (send < 0 || receive < 0) {
+            throw new IllegalArgumentException("Socket buffer size must not be negative");
+        }
+        this.sndbuf = send;
+        this.rcvbuf = receive;
+        return this;
+    }
+
+    /**
+     * Whether HTTP/2 is enabled.
+     * @return True if enabled
+     */
+    public boolean isHttp2() {
+        return this.http2;
+    }
+
+    /**
+     * Enable HTTP/2: it's negotiated with ALPN on TLS connections and
+     * accepted on plain connections either with {@code h2c} upgrade
+     * or with prior knowledge.
+     * @param enabled Whether HTTP/2 is enabled
+     * @return These options
+     */
+    public SliceServerOptions setHttp2(final boolean enabled) {
+        this.http2 = enabled;
+        return this;
+    }
+
+    /**
+     * Max number of concurrent HTTP/2 streams per connection.
+     * @return Max number of streams, zero for Vert.x default
+     */
+    public long getMaxConcurrentStreams() {
+        return this.streams;
+    }
+
+    /**
+     * Set max number of concurrent HTTP/2 streams per connection,
+     * it's advertised to clients in HTTP/2 settings.
+     * @param max Max number of streams, zero for Vert.x default
+     * @return These options
+     */
+    public SliceServerOptions setMaxConcurrentStreams(final long max) {
+        if (max < 0L) {
+            throw new IllegalArgumentException("Max concurrent streams must not be negative");
+        }
+        this.streams = max;
+        return this;
+    }
+
+    /**
+     * Min size of response body to compress, it's used when compression is
+     * enabled in {@link io.vertx.core.http.HttpServerOptions}.
+     * @return Size in bytes
+     */
+    public int getCompressionMinSize() {
+        return this.cmin;
+    }
+
+    /**
+     * Set min size of response body to compress: responses with smaller
+     * {@code Content-Length} are sent uncompressed.
+     * @param size Size in bytes
+     * @return These options
+     */
+    public SliceServerOptions setCompressionMinSize(final int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Compression min size must not be negative");
+        }
+        this.cmin = size;
+        return this;
+    }
+
+    /**
+     * Content types which are not compressed.
+     * @return Content types, type prefixes end with slash
+     */
+    public List<String> getIncompressibleTypes() {
+        return this.incompressible;
+    }
+
+    /**
+     * Set content types which are not compressed, e.g. {@code application/zip}
+     * or {@code image/} for all images.
+     * @param types Content types, type prefixes end with slash
+     * @return These options
+     */
+    public SliceServerOptions setIncompressibleTypes(final Collection<String> types) {
+        final List<String> list = new ArrayList<>(types.size());
+        for (final String type : types) {
+            list.add(type.toLowerCase(Locale.US));
+        }
+        this.incompressible = Collections.unmodifiableList(list);
+        return this;
+    }
+
+    /**
+     * Server TLS.
+     * @return TLS if it's terminated by the server
+     */
+    public Optional<ServerTls> getTls() {
+        return Optional.ofNullable(this.tls);
+    }
+
+    /**
+     * Terminate TLS with server certificate, which can be reloaded while the
+     * server is running. It overrides SSL options of
+     * {@link io.vertx.core.http.HttpServerOptions}.
+     * @param secure Server TLS, null to use SSL options of server options
+     * @return These options
+     */
+    public SliceServerOptions setTls(final ServerTls secure) {
+        this.tls = secure;
+        return this;
+    }
+
+    /**
+     * Access log.
+     * @return Access log if requests are logged
+     */
+    public Optional<AccessLog> getAccessLog() {
+        return Optional.ofNullable(this.access);
+    }
+
+    /**
+     * Log finished requests to access log, the log is not closed
+     * when the server is stopped.
+     * @param log Access log, null to disable logging
+     * @return These options
+     */
+    public SliceServerOptions setAccessLog(final AccessLog log) {
+        this.access = log;
+        return this;
+    }
+
+    /**
+     * Traffic shaper of responses.
+     * @return Traffic shaper if responses are shaped
+     */
+    public Optional<TrafficShaper> getTrafficShaper() {
+        return Optional.ofNullable(this.shaper);
+    }
+
+    /**
+     * Shape response bodies with rate limits and interleave them fairly,
+     * shaped bodies are not sent with {@code sendfile}.
+     * @param traffic Traffic shaper, null to send responses unshaped
+     * @return These options
+     */
+    public SliceServerOptions setTrafficShaper(final TrafficShaper traffic) {
+        this.shaper = traffic;
+        return this;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.reactivex.Completable;
+import io.vertx.core.Handler;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.AbstractVerticle;
+import io.vertx.reactivex.core.http.HttpServerRequest;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verticle which listens for HTTP requests on its own event loop.
+ * <p>
+ * Several instances of this verticle deployed with the same options
+ * share one listening port, Vert.x distributes accepted connections
+ * between them.
+ * </p>
+ * @since 0.4
+ */
+final class SliceVerticle extends AbstractVerticle {
+
+    /**
+     * HTTP server options.
+     */
+    private final HttpServerOptions options;
+
+    /**
+     * Request handler.
+     */
+    private final Handler<HttpServerRequest> handler;
+
+    /**
+     * Port the server is listening on, set when verticle is started.
+     */
+    private final AtomicInteger port;
+
+    /**
+     * Ctor.
+     * @param options HTTP server options
+     * @param handler Request handler
+     * @param port Port the server is listening on, set when verticle is started
+     */
+    SliceVerticle(final HttpServerOptions options, final Handler<HttpServerRequest> handler,
+        final AtomicInteger port) {
+        super();
+        this.options = options;
+        this.handler = handler;
+        this.port = port;
+    }
+
+    @Override
+    public Completable rxStart() {
+        return this.vertx.createHttpServer(this.options)
+            .requestHandler(this.handler)
+            .rxListen()
+            .doOnSuccess(server -> this.port.set(server.actualPort()))
+            .ignoreElement();
+    }
+}
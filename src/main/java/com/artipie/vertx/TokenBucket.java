@@ -0,0 +1,67 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of bytes, which is refilled at constant rate up to burst size.
+ * <p>
+ * It's kept as the time when the bucket will be full again, so taking bytes
+ * is one compare-and-set without locks. Bytes are reserved even if there
+ * are not enough of them: the caller waits for the returned time before
+ * sending them, and the bucket goes into debt which delays next reservations.
+ * So chunks larger than burst size are not starved, and the average rate
+ * is kept.
+ * </p>
+ * @since 0.4
+ */
+final class TokenBucket {
+
+    /**
+     * Time to refill one byte in nanoseconds.
+     */
+    private final double cost;
+
+    /**
+     * Time to refill whole bucket in nanoseconds.
+     */
+    private final long tolerance;
+
+    /**
+     * Time when the bucket is full in nanoseconds.
+     */
+    private final AtomicLong full;
+
+    /**
+     * Ctor.
+     * @param rate Rate in bytes per second
+     * @param burst Burst size in bytes
+     */
+    TokenBucket(final long rate, final long burst) {
+        this.cost = (double) TimeUnit.SECONDS.toNanos(1L) / rate;
+        this.tolerance = Math.round(burst * this.cost);
+        this.full = new AtomicLong(Long.MIN_VALUE / 2L);
+    }
+
+    /**
+     * Reserve bytes.
+     * @param bytes Number of bytes
+     * @param now Current time in nanoseconds
+     * @return Time to wait before sending bytes in nanoseconds, zero
+     *  if they can be sent right away
+     */
+    long reserve(final long bytes, final long now) {
+        final long price = Math.round(bytes * this.cost);
+        long prev;
+        long next;
+        do {
+            prev = this.full.get();
+            next = Math.max(prev, now) + price;
+        } while (!this.full.compareAndSet(prev, next));
+        return Math.max(0L, next - this.tolerance - now);
+    }
+}
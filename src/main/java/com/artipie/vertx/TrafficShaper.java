@@ -0,0 +1,348 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Traffic shaping of response bodies sent by {@link VertxSliceServer}:
+ * token bucket rate limits of all responses, responses to each client
+ * address and responses in each connection.
+ * <p>
+ * Bodies are sent in quanta: each quantum is reserved from all buckets and
+ * is written when all of them allow it. A response has one reserved quantum
+ * at a time, so when bandwidth is exhausted active responses take turns
+ * quantum by quantum, instead of queueing behind each other: a small
+ * response waits for at most one quantum of each active response. Responses
+ * with {@code Content-Length} not larger than a quantum are written without
+ * waiting, their bytes are taken from buckets and delay other responses.
+ * </p>
+ * <p>
+ * Shaped bodies are not sent with {@code sendfile}. One shaper can be shared
+ * by several servers to limit their total bandwidth.
+ * </p>
+ * @since 0.4
+ */
+public final class TrafficShaper {
+
+    /**
+     * Default quantum size in bytes.
+     */
+    public static final int DEFAULT_QUANTUM = 16 * 1024;
+
+    /**
+     * Bucket of all responses, null if unlimited.
+     */
+    private TokenBucket global;
+
+    /**
+     * Buckets of clients.
+     */
+    private Buckets<String> clients;
+
+    /**
+     * Buckets of connections.
+     */
+    private Buckets<Object> connections;
+
+    /**
+     * Quantum size in bytes.
+     */
+    private int quantum;
+
+    /**
+     * Shaper without limits.
+     */
+    public TrafficShaper() {
+        this.clients = new Buckets<>(0L, 0L);
+        this.connections = new Buckets<>(0L, 0L);
+        this.quantum = TrafficShaper.DEFAULT_QUANTUM;
+    }
+
+    /**
+     * Limit rate of all responses.
+     * @param rate Rate in bytes per second, zero for unlimited
+     * @param burst Max burst size in bytes
+     * @return This shaper
+     */
+    public TrafficShaper setGlobalRate(final long rate, final long burst) {
+        TrafficShaper.validate(rate, burst);
+        if (rate == 0L) {
+            this.global = null;
+        } else {
+            this.global = new TokenBucket(rate, burst);
+        }
+        return this;
+    }
+
+    /**
+     * Limit rate of responses to each client address.
+     * @param rate Rate in bytes per second, zero for unlimited
+     * @param burst Max burst size in bytes
+     * @return This shaper
+     */
+    public TrafficShaper setClientRate(final long rate, final long burst) {
+        TrafficShaper.validate(rate, burst);
+        this.clients = new Buckets<>(rate, burst);
+        return this;
+    }
+
+    /**
+     * Limit rate of responses in each connection,
+     * HTTP/2 streams of a connection share its limit.
+     * @param rate Rate in bytes per second, zero for unlimited
+     * @param burst Max burst size in bytes
+     * @return This shaper
+     */
+    public TrafficShaper setConnectionRate(final long rate, final long burst) {
+        TrafficShaper.validate(rate, burst);
+        this.connections = new Buckets<>(rate, burst);
+        return this;
+    }
+
+    /**
+     * Quantum size: max number of bytes written at once.
+     * @return Size in bytes
+     */
+    public int getQuantum() {
+        return this.quantum;
+    }
+
+    /**
+     * Set quantum size: smaller quanta interleave responses more evenly,
+     * larger quanta take fewer writes and timers.
+     * @param size Size in bytes
+     * @return This shaper
+     */
+    public TrafficShaper setQuantum(final int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Quantum size must be positive");
+        }
+        this.quantum = size;
+        return this;
+    }
+
+    /**
+     * Open stream of response body.
+     * @param client Client address
+     * @param connection Connection of response
+     * @return Stream, it should be closed when body is sent
+     */
+    Stream open(final String client, final Object connection) {
+        return new Stream(this.global, this.clients, client, this.connections, connection);
+    }
+
+    /**
+     * Validate rate limit.
+     * @param rate Rate in bytes per second
+     * @param burst Burst size in bytes
+     */
+    private static void validate(final long rate, final long burst) {
+        if (rate < 0L) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        if (rate > 0L && burst <= 0L) {
+            throw new IllegalArgumentException("Burst size must be positive");
+        }
+    }
+
+    /**
+     * Response body stream which takes bytes from buckets of the shaper.
+     * @since 0.4
+     */
+    static final class Stream {
+
+        /**
+         * Bucket of all responses, null if unlimited.
+         */
+        private final TokenBucket global;
+
+        /**
+         * Buckets of clients.
+         */
+        private final Buckets<String> clients;
+
+        /**
+         * Client address.
+         */
+        private final String client;
+
+        /**
+         * Bucket of the client, null if unlimited.
+         */
+        private final TokenBucket cbucket;
+
+        /**
+         * Buckets of connections.
+         */
+        private final Buckets<Object> connections;
+
+        /**
+         * Connection.
+         */
+        private final Object connection;
+
+        /**
+         * Bucket of the connection, null if unlimited.
+         */
+        private final TokenBucket nbucket;
+
+        /**
+         * Ctor.
+         * @param global Bucket of all responses, null if unlimited
+         * @param clients Buckets of clients
+         * @param client Client address
+         * @param connections Buckets of connections
+         * @param connection Connection
+         * @checkstyle ParameterNumberCheck (5 lines)
+         */
+        Stream(final TokenBucket global, final Buckets<String> clients, final String client,
+            final Buckets<Object> connections, final Object connection) {
+            this.global = global;
+            this.clients = clients;
+            this.client = client;
+            this.cbucket = clients.join(client);
+            this.connections = connections;
+            this.connection = connection;
+            this.nbucket = connections.join(connection);
+        }
+
+        /**
+         * Reserve bytes from all buckets.
+         * @param bytes Number of bytes
+         * @return Time to wait before sending bytes in nanoseconds
+         */
+        long reserve(final long bytes) {
+            final long now = System.nanoTime();
+            long res = 0L;
+            if (this.global != null) {
+                res = this.global.reserve(bytes, now);
+            }
+            if (this.cbucket != null) {
+                res = Math.max(res, this.cbucket.reserve(bytes, now));
+            }
+            if (this.nbucket != null) {
+                res = Math.max(res, this.nbucket.reserve(bytes, now));
+            }
+            return res;
+        }
+
+        /**
+         * Close stream, buckets of client and connection are released
+         * when they have no more streams.
+         */
+        void close() {
+            this.clients.leave(this.client);
+            this.connections.leave(this.connection);
+        }
+    }
+
+    /**
+     * Buckets by key, a bucket exists while it has active streams.
+     * @param <K> Key type
+     * @since 0.4
+     */
+    private static final class Buckets<K> {
+
+        /**
+         * Rate of each bucket in bytes per second, zero if unlimited.
+         */
+        private final long rate;
+
+        /**
+         * Burst size of each bucket in bytes.
+         */
+        private final long burst;
+
+        /**
+         * Buckets with their active streams.
+         */
+        private final ConcurrentMap<K, Shared> buckets;
+
+        /**
+         * Ctor.
+         * @param rate Rate of each bucket in bytes per second, zero if unlimited
+         * @param burst Burst size of each bucket in bytes
+         */
+        Buckets(final long rate, final long burst) {
+            this.rate = rate;
+            this.burst = burst;
+            this.buckets = new ConcurrentHashMap<>(0);
+        }
+
+        /**
+         * Join bucket of key.
+         * @param key Key
+         * @return Bucket, null if unlimited
+         */
+        TokenBucket join(final K key) {
+            TokenBucket res = null;
+            if (this.rate > 0L) {
+                res = this.buckets.compute(
+                    key,
+                    (name, prev) -> {
+                        final Shared shared;
+                        if (prev == null) {
+                            shared = new Shared(new TokenBucket(this.rate, this.burst));
+                        } else {
+                            shared = prev;
+                        }
+                        shared.streams += 1;
+                        return shared;
+                    }
+                ).bucket;
+            }
+            return res;
+        }
+
+        /**
+         * Leave bucket of key.
+         * @param key Key
+         */
+        void leave(final K key) {
+            if (this.rate > 0L) {
+                this.buckets.computeIfPresent(
+                    key,
+                    (name, shared) -> {
+                        shared.streams -= 1;
+                        final Shared res;
+                        if (shared.streams == 0) {
+                            res = null;
+                        } else {
+                            res = shared;
+                        }
+                        return res;
+                    }
+                );
+            }
+        }
+    }
+
+    /**
+     * Bucket with number of active streams.
+     * @since 0.4
+     */
+    private static final class Shared {
+
+        /**
+         * Bucket.
+         */
+        private final TokenBucket bucket;
+
+        /**
+         * Number of active streams, it's changed by map computations only.
+         */
+        private int streams;
+
+        /**
+         * Ctor.
+         * @param bucket Bucket
+         */
+        Shared(final TokenBucket bucket) {
+            this.bucket = bucket;
+        }
+    }
+}
@@ -8,69 +8,211 @@ import com.artipie.http.Connection;
 import com.artipie.http.Headers;
 import com.artipie.http.rs.RsStatus;
 import io.reactivex.Flowable;
-import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.core.Context;
+import io.vertx.reactivex.core.RxHelper;
+import io.vertx.reactivex.core.http.HttpServerRequest;
 import io.vertx.reactivex.core.http.HttpServerResponse;
 import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
 import org.reactivestreams.Publisher;
 
 /**
  * Vertx connection accepts Artipie response and send it to {@link HttpServerResponse}.
+ * <p>
+ * If response is accepted outside of request context (e.g. by slice running
+ * on a worker thread), response status and headers are written on the context
+ * of the request.
+ * </p>
+ * <p>
+ * {@link FileBody} is sent with {@code sendfile}, when it's allowed, so file
+ * region is transferred by the kernel without copying it to user space.
+ * </p>
+ * <p>
+ * In HTTP/2 streams, connection-specific headers of response are skipped,
+ * response body is written with stream flow control: write queue of the
+ * response is full when the stream window is exhausted.
+ * </p>
+ * <p>
+ * If server has {@link TrafficShaper}, response body is shaped by it
+ * and it's never sent with {@code sendfile}.
+ * </p>
  * @since 0.2
  */
 final class VertxConnection implements Connection {
 
+    /**
+     * Vertx server request.
+     */
+    private final HttpServerRequest req;
+
     /**
      * Vertx server response output.
      */
     private final HttpServerResponse rsp;
 
+    /**
+     * Context of the request.
+     */
+    private final Context context;
+
+    /**
+     * Whether {@link FileBody} can be sent with {@code sendfile}.
+     */
+    private final boolean sendfile;
+
+    /**
+     * Whether response is sent in HTTP/2 stream.
+     */
+    private final boolean http2;
+
+    /**
+     * Server options.
+     */
+    private final SliceServerOptions settings;
+
     /**
      * New connection for response.
-     * @param rsp Response output
+     * @param req Request to respond to
+     * @param context Context of the request
+     * @param sendfile Whether {@link FileBody} can be sent with {@code sendfile}
+     * @param http2 Whether response is sent in HTTP/2 stream
+     * @param settings Server options
+     * @checkstyle ParameterNumberCheck (5 lines)
      */
-    VertxConnection(final HttpServerResponse rsp) {
-        this.rsp = rsp;
+    VertxConnection(final HttpServerRequest req, final Context context,
+        final boolean sendfile, final boolean http2, final SliceServerOptions settings) {
+        this.req = req;
+        this.rsp = req.response();
+        this.context = context;
+        this.sendfile = sendfile;
+        this.http2 = http2;
+        this.settings = settings;
     }
 
     @Override
     public CompletionStage<Void> accept(final RsStatus status,
         final Headers headers, final Publisher<ByteBuffer> body) {
-        final int code = Integer.parseInt(status.code());
+        return this.accept(Integer.parseInt(status.code()), headers, body);
+    }
+
+    /**
+     * Accept response with status code, which may be missing in {@link RsStatus},
+     * e.g. {@code 206 Partial Content}.
+     * @param code Response status code
+     * @param headers Response headers
+     * @param body Response body
+     * @return Completion of writing
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    CompletionStage<Void> accept(final int code,
+        final Headers headers, final Publisher<ByteBuffer> body) {
+        final CompletionStage<Void> res;
+        if (io.vertx.core.Vertx.currentContext() == this.context.getDelegate()) {
+            res = this.write(code, headers, body);
+        } else {
+            final CompletableFuture<Void> future = new CompletableFuture<>();
+            this.context.runOnContext(
+                ignored -> {
+                    try {
+                        this.write(code, headers, body).whenComplete(
+                            (nothing, err) -> {
+                                if (err == null) {
+                                    future.complete(null);
+                                } else {
+                                    future.completeExceptionally(err);
+                                }
+                            }
+                        );
+                        //@checkstyle IllegalCatchCheck (1 line)
+                    } catch (final RuntimeException ex) {
+                        future.completeExceptionally(ex);
+                    }
+                }
+            );
+            res = future;
+        }
+        return res;
+    }
+
+    /**
+     * Write response to Vert.x response output.
+     * @param code Response status code
+     * @param headers Response headers
+     * @param body Response body
+     * @return Completion of writing
+     */
+    private CompletionStage<Void> write(final int code,
+        final Headers headers, final Publisher<ByteBuffer> body) {
         this.rsp.setStatusCode(code);
         for (final Map.Entry<String, String> header : headers) {
-            this.rsp.putHeader(header.getKey(), header.getValue());
+            if (!this.http2 || !VertxConnection.connectionSpecific(header.getKey())) {
+                this.rsp.putHeader(header.getKey(), header.getValue());
+            }
         }
-        final CompletableFuture<HttpServerResponse> promise = new CompletableFuture<>();
-        final Flowable<Buffer> vpb = Flowable.fromPublisher(body)
-            .map(VertxConnection::mapBuffer)
-            .doOnError(promise::completeExceptionally);
-        if (this.rsp.headers().contains("Content-Length")) {
+        final Publisher<ByteBuffer> shaped = this.shaped(body);
+        final CompletionStage<Void> res;
+        if (this.sendfile && shaped instanceof FileBody) {
+            final FileBody file = (FileBody) shaped;
             this.rsp.setChunked(false);
-            vpb.doOnComplete(
-                () -> {
-                    this.rsp.end();
-                    promise.complete(this.rsp);
+            res = this.rsp.getDelegate()
+                .sendFile(file.path().toString(), file.offset(), file.length())
+                .toCompletionStage();
+        } else {
+            this.rsp.setChunked(!this.rsp.headers().contains("Content-Length"));
+            final ResponseWriter writer = new ResponseWriter(
+                this.rsp, this.context.getDelegate().owner(),
+                this.settings.getCoalescingSize(), this.settings.getCoalescingDelay().toMillis()
+            );
+            Flowable.fromPublisher(shaped).subscribe(writer);
+            res = writer.completion();
+        }
+        return res;
+    }
+
+    /**
+     * Response body shaped by traffic shaper of the server, responses with
+     * {@code Content-Length} not larger than shaper quantum are urgent.
+     * @param body Response body
+     * @return Shaped body, or origin body if server has no traffic shaper
+     */
+    private Publisher<ByteBuffer> shaped(final Publisher<ByteBuffer> body) {
+        final Optional<TrafficShaper> shaper = this.settings.getTrafficShaper();
+        final Publisher<ByteBuffer> res;
+        if (shaper.isPresent()) {
+            final String length = this.rsp.headers().get("Content-Length");
+            boolean urgent = false;
+            if (length != null) {
+                try {
+                    urgent = Long.parseLong(length.trim()) <= shaper.get().getQuantum();
+                } catch (final NumberFormatException ex) {
+                    urgent = false;
                 }
-            ).forEach(this.rsp::write);
+            }
+            res = new ShapedBody(
+                body, shaper.get(), VertxSliceServer.client(this.req),
+                this.req.getDelegate().connection(), urgent, RxHelper.scheduler(this.context)
+            );
         } else {
-            this.rsp.setChunked(true);
-            vpb.doOnComplete(() -> promise.complete(this.rsp))
-                .subscribe(this.rsp.toSubscriber());
+            res = body;
         }
-        return promise.thenCompose(ignored -> CompletableFuture.allOf());
+        return res;
     }
 
     /**
-     * Map {@link ByteBuffer} to {@link Buffer}.
-     * @param buffer Java byte buffer
-     * @return Vertx buffer
+     * Whether header is connection-specific, such headers are not allowed
+     * in HTTP/2 (RFC 7540, section 8.1.2.2), framing and connection
+     * management are done by HTTP/2 itself.
+     * @param name Header name
+     * @return True if header is connection-specific
      */
-    private static Buffer mapBuffer(final ByteBuffer buffer) {
-        final byte[] bytes = new byte[buffer.remaining()];
-        buffer.get(bytes);
-        return Buffer.buffer(bytes);
+    private static boolean connectionSpecific(final String name) {
+        return "Connection".equalsIgnoreCase(name)
+            || "Transfer-Encoding".equalsIgnoreCase(name)
+            || "Keep-Alive".equalsIgnoreCase(name)
+            || "Proxy-Connection".equalsIgnoreCase(name)
+            || "Upgrade".equalsIgnoreCase(name);
     }
 }
@@ -4,20 +4,36 @@
  */
 package com.artipie.vertx;
 
+import com.artipie.http.Connection;
+import com.artipie.http.Headers;
 import com.artipie.http.Slice;
-import com.artipie.http.rq.RequestLine;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rs.RsStatus;
+import com.jcabi.log.Logger;
+import io.reactivex.Flowable;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Handler;
+import io.vertx.core.VertxOptions;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.reactivex.core.Context;
 import io.vertx.reactivex.core.Vertx;
-import io.vertx.reactivex.core.http.HttpServer;
+import io.vertx.reactivex.core.WorkerExecutor;
 import io.vertx.reactivex.core.http.HttpServerRequest;
 import io.vertx.reactivex.core.http.HttpServerResponse;
 import java.io.Closeable;
-import java.io.PrintWriter;
-import java.io.StringWriter;
 import java.net.HttpURLConnection;
-import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * Vert.x Slice.
@@ -26,6 +42,12 @@ import java.util.concurrent.CompletionStage;
  */
 public final class VertxSliceServer implements Closeable {
 
+    /**
+     * Sequence of shared random ports: Vert.x shares a random port between
+     * servers which are listening on the same negative port number.
+     */
+    private static final AtomicInteger SHARED_PORTS = new AtomicInteger();
+
     /**
      * The Vert.x.
      */
@@ -42,9 +64,24 @@ public final class VertxSliceServer implements Closeable {
     private final HttpServerOptions options;
 
     /**
-     * The Http server.
+     * Slice server options.
+     */
+    private final SliceServerOptions settings;
+
+    /**
+     * Deployment ID of server verticles, completed when they are started.
+     */
+    private CompletableFuture<String> deployment;
+
+    /**
+     * Requests being served by started server.
      */
-    private HttpServer server;
+    private ActiveRequests requests;
+
+    /**
+     * Worker pool for slice invocation, if configured.
+     */
+    private WorkerExecutor worker;
 
     /**
      * An object to sync on.
@@ -68,7 +105,26 @@ public final class VertxSliceServer implements Closeable {
      * @param port The port.
      */
     public VertxSliceServer(final Slice served, final Integer port) {
-        this(Vertx.vertx(), served, new HttpServerOptions().setPort(port));
+        this(served, new HttpServerOptions().setPort(port), new SliceServerOptions());
+    }
+
+    /**
+     * Ctor with Vert.x created according to slice server options,
+     * e.g. with native transport.
+     *
+     * @param served The slice to be served.
+     * @param options The options to use.
+     * @param settings Slice server options.
+     */
+    public VertxSliceServer(
+        final Slice served,
+        final HttpServerOptions options,
+        final SliceServerOptions settings
+    ) {
+        this(
+            Vertx.vertx(new VertxOptions().setPreferNativeTransport(settings.isNativeTransport())),
+            served, options, settings
+        );
     }
 
     /**
@@ -97,10 +153,29 @@ public final class VertxSliceServer implements Closeable {
         final Vertx vertx,
         final Slice served,
         final HttpServerOptions options
+    ) {
+        this(vertx, served, options, new SliceServerOptions());
+    }
+
+    /**
+     * Ctor.
+     *
+     * @param vertx The vertx.
+     * @param served The slice to be served.
+     * @param options The options to use.
+     * @param settings Slice server options.
+     * @checkstyle ParameterNumberCheck (10 lines)
+     */
+    public VertxSliceServer(
+        final Vertx vertx,
+        final Slice served,
+        final HttpServerOptions options,
+        final SliceServerOptions settings
     ) {
         this.vertx = vertx;
         this.served = served;
         this.options = options;
+        this.settings = settings;
         this.sync = new Object();
     }
 
@@ -110,24 +185,135 @@ public final class VertxSliceServer implements Closeable {
      * @return Port the server is listening on.
      */
     public int start() {
+        return this.startAsync().toCompletableFuture().join();
+    }
+
+    /**
+     * Start the server without blocking the caller.
+     *
+     * @return Port the server is listening on, when it's started.
+     */
+    public CompletionStage<Integer> startAsync() {
+        final CompletableFuture<String> deployed = new CompletableFuture<>();
+        final ActiveRequests active = new ActiveRequests();
+        final int instances = this.settings.getInstances();
+        final HttpServerOptions opts = new HttpServerOptions(this.options);
+        if (instances > 1 && opts.getPort() == 0) {
+            opts.setPort(-VertxSliceServer.SHARED_PORTS.incrementAndGet());
+        }
+        if (this.settings.isHttp2()) {
+            opts.setUseAlpn(true)
+                .setAlpnVersions(Arrays.asList(HttpVersion.HTTP_2, HttpVersion.HTTP_1_1));
+            if (this.settings.getMaxConcurrentStreams() > 0L) {
+                opts.getInitialSettings()
+                    .setMaxConcurrentStreams(this.settings.getMaxConcurrentStreams());
+            }
+        } else if (this.settings.getTls().isPresent()) {
+            opts.setUseAlpn(true).setAlpnVersions(Collections.singletonList(HttpVersion.HTTP_1_1));
+        }
+        this.settings.getTls().ifPresent(tls -> tls.configure(opts, this.vertx.getDelegate()));
+        this.tune(opts);
+        final Handler<HttpServerRequest> handler;
         synchronized (this.sync) {
-            if (this.server != null) {
+            if (this.deployment != null) {
                 throw new IllegalStateException("Server was already started");
             }
-            this.server = this.vertx.createHttpServer(this.options);
-            this.server.requestHandler(this.proxyHandler());
-            this.server.rxListen().blockingGet();
-            return this.server.actualPort();
+            this.deployment = deployed;
+            this.requests = active;
+            handler = this.proxyHandler(this.slice(), active);
         }
+        final AtomicInteger port = new AtomicInteger();
+        this.vertx.getDelegate().deployVerticle(
+            () -> new SliceVerticle(opts, handler, port),
+            new DeploymentOptions().setInstances(instances)
+        ).onComplete(
+            result -> {
+                if (result.succeeded()) {
+                    deployed.complete(result.result());
+                } else {
+                    WorkerExecutor pool = null;
+                    synchronized (this.sync) {
+                        if (this.deployment == deployed) {
+                            pool = this.worker;
+                            this.deployment = null;
+                            this.requests = null;
+                            this.worker = null;
+                        }
+                    }
+                    if (pool != null) {
+                        pool.close();
+                    }
+                    deployed.completeExceptionally(result.cause());
+                }
+            }
+        );
+        return deployed.thenApply(ignored -> port.get());
     }
 
     /**
-     * Stop the server.
+     * Stop the server, all server instances are stopped
+     * and active requests are cut off.
      */
     public void stop() {
+        this.stopAsync().toCompletableFuture().join();
+    }
+
+    /**
+     * Stop the server gracefully: new requests are rejected with
+     * {@code 503 Service Unavailable} and {@code Connection: close},
+     * active requests are given the grace period to finish.
+     *
+     * @param grace Max time to wait for active requests
+     * @return Number of active requests which were cut off
+     */
+    public int stop(final Duration grace) {
+        return this.stopAsync(grace).toCompletableFuture().join();
+    }
+
+    /**
+     * Stop the server without blocking the caller,
+     * active requests are cut off.
+     *
+     * @return Number of active requests which were cut off, when server is stopped
+     */
+    public CompletionStage<Integer> stopAsync() {
+        return this.stopAsync(Duration.ZERO);
+    }
+
+    /**
+     * Stop the server gracefully without blocking the caller.
+     *
+     * @param grace Max time to wait for active requests
+     * @return Number of active requests which were cut off, when server is stopped
+     * @see #stop(Duration)
+     */
+    public CompletionStage<Integer> stopAsync(final Duration grace) {
+        final CompletableFuture<String> deployed;
+        final ActiveRequests active;
+        final WorkerExecutor pool;
         synchronized (this.sync) {
-            this.server.rxClose().blockingAwait();
+            deployed = this.deployment;
+            active = this.requests;
+            pool = this.worker;
+            this.deployment = null;
+            this.requests = null;
+            this.worker = null;
+        }
+        final io.vertx.core.Vertx core = this.vertx.getDelegate();
+        CompletionStage<Integer> res = CompletableFuture.completedFuture(0);
+        if (deployed != null) {
+            res = deployed.thenCompose(
+                id -> active.drain(core, grace).thenCompose(
+                    cut -> core.undeploy(id).toCompletionStage().thenApply(ignored -> cut)
+                )
+            );
+        }
+        if (pool != null) {
+            res = res.thenCompose(
+                cut -> pool.getDelegate().close().toCompletionStage().thenApply(ignored -> cut)
+            );
         }
+        return res;
     }
 
     @Override
@@ -135,53 +321,387 @@ public final class VertxSliceServer implements Closeable {
         this.stop();
     }
 
+    /**
+     * Apply socket options of slice server options to server options.
+     * Options which are not set keep values of server options.
+     * @param opts Server options
+     */
+    private void tune(final HttpServerOptions opts) {
+        final SliceServerOptions cfg = this.settings;
+        if (cfg.isReusePort()) {
+            opts.setReusePort(true);
+        }
+        if (cfg.isTcpFastOpen()) {
+            opts.setTcpFastOpen(true);
+        }
+        if (cfg.isTcpQuickAck()) {
+            opts.setTcpQuickAck(true);
+        }
+        if (cfg.getSendBufferSize() > 0) {
+            opts.setSendBufferSize(cfg.getSendBufferSize());
+        }
+        if (cfg.getReceiveBufferSize() > 0) {
+            opts.setReceiveBufferSize(cfg.getReceiveBufferSize());
+        }
+        final boolean nat = cfg.isNativeTransport() || cfg.isReusePort()
+            || cfg.isTcpFastOpen() || cfg.isTcpQuickAck();
+        if (nat && !this.vertx.isNativeTransportEnabled()) {
+            Logger.warn(
+                this,
+                "Native transport is not available, NIO is used and native options are ignored"
+            );
+        }
+    }
+
+    /**
+     * Slice to serve requests with, according to execution, coalescing, cache
+     * and metrics options.
+     * @return Slice
+     */
+    private Slice slice() {
+        final Slice slice;
+        final int pool = this.settings.getWorkerPoolSize();
+        if (pool > 0) {
+            this.worker = this.vertx.createSharedWorkerExecutor(
+                String.format("slice-server-%d", System.identityHashCode(this)), pool
+            );
+            final io.vertx.core.WorkerExecutor exec = this.worker.getDelegate();
+            slice = new OffloadedSlice(
+                this.served,
+                task -> exec.executeBlocking(
+                    promise -> {
+                        task.run();
+                        promise.complete();
+                    },
+                    false
+                ),
+                this.settings.getMaxQueuedRequests()
+            );
+        } else if (this.settings.getExecutor().isPresent()) {
+            slice = new OffloadedSlice(
+                this.served,
+                this.settings.getExecutor().get(),
+                this.settings.getMaxQueuedRequests()
+            );
+        } else {
+            slice = this.served;
+        }
+        final Slice coalesced;
+        if (this.settings.getSingleFlightBuffer() > 0) {
+            coalesced = new SingleFlightSlice(slice, this.settings.getSingleFlightBuffer());
+        } else {
+            coalesced = slice;
+        }
+        final Slice cached = this.settings.getResponseCache()
+            .<Slice>map(cache -> new CachingSlice(coalesced, cache))
+            .orElse(coalesced);
+        return this.settings.getMetricsPath()
+            .<Slice>map(
+                path -> new MetricsSlice(
+                    cached, path, (HistogramMetrics) this.settings.getMetrics()
+                )
+            )
+            .orElse(cached);
+    }
+
     /**
      * A handler which proxy incoming requests to encapsulated slice.
+     * @param slice Slice to serve requests with
+     * @param active Requests being served
      * @return The request handler.
      */
-    @SuppressWarnings("PMD.AvoidCatchingGenericException")
-    private Handler<HttpServerRequest> proxyHandler() {
+    private Handler<HttpServerRequest> proxyHandler(final Slice slice,
+        final ActiveRequests active) {
+        final ServerMetrics metrics = this.settings.getMetrics();
+        final AdmissionControl admission = this.settings.getAdmissionControl();
+        final boolean limited = admission != AdmissionControl.UNLIMITED;
+        final Optional<AccessLog> log = this.settings.getAccessLog();
+        final Consumer<Exchange> done = exchange -> {
+            active.exit();
+            if (limited) {
+                admission.release(VertxSliceServer.client(exchange.request()), exchange.ttfb());
+            }
+            if (metrics != ServerMetrics.NONE) {
+                VertxSliceServer.record(metrics, exchange);
+            }
+            if (log.isPresent()) {
+                log.get().record(exchange);
+            }
+        };
         return (HttpServerRequest req) -> {
+            if (active.enter()) {
+                final int admitted;
+                if (limited) {
+                    admitted = admission.admit(VertxSliceServer.client(req));
+                } else {
+                    admitted = HttpURLConnection.HTTP_OK;
+                }
+                if (admitted == HttpURLConnection.HTTP_OK) {
+                    if (metrics != ServerMetrics.NONE) {
+                        metrics.started();
+                    }
+                    new Exchange(req).observe(done);
+                    this.handle(slice, req);
+                } else {
+                    active.exit();
+                    req.response().setStatusCode(admitted).putHeader("Retry-After", "1").end();
+                }
+            } else {
+                this.connection(req, Vertx.currentContext()).accept(
+                    RsStatus.UNAVAILABLE,
+                    new Headers.From(
+                        new Header("Connection", "close"), new Header("Retry-After", "1")
+                    ),
+                    Flowable.empty()
+                );
+            }
+        };
+    }
+
+    /**
+     * Handle request with slice, send error response if slice fails.
+     * Context of the request is captured here, on event loop, since slice
+     * may complete or fail on any thread.
+     * @param slice Slice to serve request with
+     * @param req HTTP request
+     */
+    @SuppressWarnings("PMD.AvoidCatchingThrowable")
+    private void handle(final Slice slice, final HttpServerRequest req) {
+        final Context ctx = Vertx.currentContext();
+        try {
+            this.serve(slice, req, ctx).exceptionally(
+                throwable -> {
+                    this.fail(req, ctx, throwable);
+                    return null;
+                }
+            );
+            //@checkstyle IllegalCatchCheck (1 line)
+        } catch (final Throwable ex) {
+            this.fail(req, ctx, ex);
+        }
+    }
+
+    /**
+     * Respond to failed request according to errors strategy. If response
+     * headers were already sent, the connection or HTTP/2 stream is reset,
+     * since the status can't be changed anymore. Requests of clients which
+     * have gone are not reported as errors.
+     * @param req HTTP request
+     * @param ctx Context of the request
+     * @param error Error
+     */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void fail(final HttpServerRequest req, final Context ctx, final Throwable error) {
+        final HttpServerResponse rsp = req.response();
+        final ServerErrors errors = this.settings.getErrors();
+        if (rsp.closed()) {
+            Logger.debug(this, "Client has gone before response was sent: %s", error);
+        } else if (rsp.headWritten()) {
+            errors.aborted(error);
+            if (!rsp.ended()) {
+                rsp.reset();
+            }
+        } else {
+            rsp.headers().clear();
             try {
-                this.serve(req).exceptionally(
-                    throwable -> {
-                        VertxSliceServer.sendError(req.response(), throwable);
+                errors.response(error).send(this.connection(req, ctx)).exceptionally(
+                    err -> {
+                        rsp.reset();
                         return null;
                     }
                 );
                 //@checkstyle IllegalCatchCheck (1 line)
-            } catch (final Exception ex) {
-                VertxSliceServer.sendError(req.response(), ex);
+            } catch (final RuntimeException ex) {
+                rsp.reset();
             }
-        };
+        }
+    }
+
+    /**
+     * Record finished exchange to metrics.
+     * @param metrics Metrics registry
+     * @param exchange Finished exchange
+     */
+    private static void record(final ServerMetrics metrics, final Exchange exchange) {
+        if (exchange.aborted()) {
+            metrics.aborted(
+                exchange.method(), exchange.duration(), exchange.received(), exchange.sent()
+            );
+        } else {
+            metrics.completed(
+                exchange.method(), exchange.status(), exchange.ttfb(),
+                exchange.duration(), exchange.received(), exchange.sent()
+            );
+        }
     }
 
     /**
-     * Server HTTP request.
+     * Client address of request.
+     * @param req HTTP request
+     * @return Host address, empty if unknown
+     */
+    static String client(final HttpServerRequest req) {
+        final SocketAddress addr = req.getDelegate().remoteAddress();
+        final String res;
+        if (addr == null || addr.host() == null) {
+            res = "";
+        } else {
+            res = addr.host();
+        }
+        return res;
+    }
+
+    /**
+     * Server HTTP request. If request expects {@code 100 Continue}, it's
+     * checked with continue check first and rejected requests are answered
+     * without invoking the slice.
      *
+     * @param slice Slice to serve request with.
      * @param req HTTP request.
+     * @param ctx Context of the request.
      * @return Completion of request serving.
      */
-    private CompletionStage<Void> serve(final HttpServerRequest req) {
+    private CompletionStage<Void> serve(final Slice slice, final HttpServerRequest req,
+        final Context ctx) {
         final HttpServerResponse response = req.response();
-        return this.served.response(
-            new RequestLine(req.method().name(), req.uri(), req.version().toString()).toString(),
-            req.headers(),
-            req.toFlowable().map(buffer -> ByteBuffer.wrap(buffer.getBytes()))
-        ).send(new ContinueConnection(response, new VertxConnection(response)));
+        response.setWriteQueueMaxSize(this.settings.getWriteQueueMaxSize());
+        final boolean expected = !this.options.isHandle100ContinueAutomatically()
+            && VertxSliceServer.expectsContinue(req);
+        final ContinueConnection conn =
+            new ContinueConnection(req, this.ranged(req, ctx), expected);
+        final String line = VertxSliceServer.line(req.method(), req.uri(), req.version());
+        final Iterable<Map.Entry<String, String>> headers =
+            new RequestHeaders(req.headers().getDelegate());
+        final RequestBody body = new RequestBody(
+            req.getDelegate(), ctx.getDelegate(),
+            this.settings.getRequestPrefetch(), conn::proceed
+        );
+        final CompletionStage<Void> res;
+        if (expected) {
+            res = this.settings.getContinueCheck().check(line, headers).thenComposeAsync(
+                rejected -> rejected.map(rsp -> rsp.send(conn)).orElseGet(
+                    () -> slice.response(line, headers, body).send(conn)
+                ),
+                task -> ctx.runOnContext(ignored -> task.run())
+            );
+        } else {
+            res = slice.response(line, headers, body).send(conn);
+        }
+        return res;
     }
 
     /**
-     * Sends response built from {@link Throwable}.
-     *
-     * @param response Response to write to.
-     * @param throwable Exception to send.
-     */
-    private static void sendError(final HttpServerResponse response, final Throwable throwable) {
-        response.setStatusCode(HttpURLConnection.HTTP_INTERNAL_ERROR);
-        final StringWriter body = new StringWriter();
-        body.append(throwable.toString()).append("\n");
-        throwable.printStackTrace(new PrintWriter(body));
-        response.end(body.toString());
+     * Whether request expects {@code 100 Continue}, the expectation
+     * is ignored for HTTP/1.0 requests.
+     * @param req HTTP request
+     * @return True if continue is expected
+     */
+    private static boolean expectsContinue(final HttpServerRequest req) {
+        return req.version() != HttpVersion.HTTP_1_0
+            && "100-continue".equalsIgnoreCase(req.getHeader("Expect"));
+    }
+
+    /**
+     * Connection to send response to request, which serves byte ranges
+     * if they are requested.
+     * @param req HTTP request
+     * @param ctx Context of the request
+     * @return Connection
+     */
+    private Connection ranged(final HttpServerRequest req, final Context ctx) {
+        final String range = req.getHeader("Range");
+        final Connection res;
+        if (range == null || req.method() != HttpMethod.GET) {
+            res = this.connection(req, ctx);
+        } else {
+            final VertxConnection conn = this.vertxConnection(req, ctx);
+            res = new RangeConnection(
+                this.compressed(conn), conn, this.options.isCompressionSupported(),
+                range, req.getHeader("If-Range")
+            );
+        }
+        return res;
+    }
+
+    /**
+     * Connection to send response to request.
+     * @param req HTTP request
+     * @param ctx Context of the request
+     * @return Connection
+     */
+    private Connection connection(final HttpServerRequest req, final Context ctx) {
+        return this.compressed(this.vertxConnection(req, ctx));
+    }
+
+    /**
+     * Vert.x connection to send response to request.
+     * @param req HTTP request
+     * @param ctx Context of the request
+     * @return Connection
+     */
+    private VertxConnection vertxConnection(final HttpServerRequest req, final Context ctx) {
+        return new VertxConnection(
+            req, ctx,
+            !this.options.isSsl() && !this.settings.getTls().isPresent()
+                && !this.options.isCompressionSupported(),
+            req.version() == HttpVersion.HTTP_2,
+            this.settings
+        );
+    }
+
+    /**
+     * Connection which compresses responses if compression is enabled.
+     * @param conn Vert.x connection
+     * @return Connection
+     */
+    private Connection compressed(final Connection conn) {
+        final Connection res;
+        if (this.options.isCompressionSupported()) {
+            res = new CompressionConnection(
+                conn,
+                this.settings.getCompressionMinSize(),
+                this.settings.getIncompressibleTypes()
+            );
+        } else {
+            res = conn;
+        }
+        return res;
+    }
+
+    /**
+     * Request line for slice, same as {@link com.artipie.http.rq.RequestLine} builds
+     * but without formatting.
+     * @param method Request method
+     * @param uri Request URI
+     * @param version Request version
+     * @return Request line
+     */
+    static String line(final HttpMethod method, final String uri, final HttpVersion version) {
+        final String name = method.name();
+        final String ver = VertxSliceServer.version(version);
+        return new StringBuilder(name.length() + uri.length() + ver.length() + 4)
+            .append(name).append(' ').append(uri).append(' ').append(ver).append("\r\n")
+            .toString();
+    }
+
+    /**
+     * Protocol version of request line.
+     * @param version Vert.x request version
+     * @return Version, e.g. {@code HTTP/1.1}
+     */
+    static String version(final HttpVersion version) {
+        final String res;
+        switch (version) {
+            case HTTP_1_0:
+                res = "HTTP/1.0";
+                break;
+            case HTTP_2:
+                res = "HTTP/2";
+                break;
+            default:
+                res = "HTTP/1.1";
+                break;
+        }
+        return res;
     }
 }
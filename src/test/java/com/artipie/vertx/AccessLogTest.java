@@ -0,0 +1,227 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link AccessLog} used by {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class AccessLogTest {
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Lines written to the log.
+     */
+    private List<String> lines;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.lines = new CopyOnWriteArrayList<>();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.vertx.close();
+    }
+
+    @Test
+    void logsRequestsInCombinedFormat() throws IOException {
+        final AccessLog log = new AccessLog(AccessLogFormat.COMBINED, this.sink());
+        final int port = this.start(log);
+        AccessLogTest.get(port, "/maven/a.jar?x=\"1\"");
+        this.server.stop();
+        log.close();
+        MatcherAssert.assertThat(
+            this.lines,
+            Matchers.contains(
+                Matchers.matchesPattern(
+                    String.join(
+                        "",
+                        "127\\.0\\.0\\.1 - - ",
+                        "\\[\\d{2}/\\w{3}/\\d{4}:\\d{2}:\\d{2}:\\d{2} [-+]\\d{4}\\] ",
+                        "\"GET /maven/a\\.jar\\?x=\\\\\"1\\\\\" HTTP/1\\.1\" 200 5 ",
+                        "\"-\" \"test-agent\""
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    void logsRequestsInJsonFormat() throws IOException {
+        final AccessLog log = new AccessLog(AccessLogFormat.JSON, this.sink());
+        final int port = this.start(log);
+        AccessLogTest.get(port, "/npm/lodash");
+        this.server.stop();
+        log.close();
+        MatcherAssert.assertThat(
+            this.lines,
+            Matchers.contains(
+                Matchers.allOf(
+                    Matchers.startsWith("{\"time\":\""),
+                    Matchers.containsString(
+                        String.join(
+                            "",
+                            "\"client\":\"127.0.0.1\",\"method\":\"GET\",",
+                            "\"uri\":\"/npm/lodash\",\"protocol\":\"HTTP/1.1\",\"status\":200,"
+                        )
+                    ),
+                    Matchers.containsString("\"sent\":5,"),
+                    Matchers.endsWith(
+                        "\"referer\":null,\"user_agent\":\"test-agent\",\"aborted\":false}"
+                    )
+                )
+            )
+        );
+    }
+
+    @Test
+    void dropsEntriesInsteadOfBlocking() throws Exception {
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final AccessLog log = new AccessLog(
+            AccessLogFormat.COMMON,
+            new AccessLogSink() {
+                @Override
+                public void write(final CharSequence line) {
+                    try {
+                        blocked.await();
+                    } catch (final InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void flush() {
+                    // nothing to flush
+                }
+
+                @Override
+                public void close() {
+                    // nothing to close
+                }
+            },
+            2
+        );
+        final int port = this.start(log);
+        for (int idx = 0; idx < 10; ++idx) {
+            MatcherAssert.assertThat(
+                "Requests are served while the sink is blocked",
+                AccessLogTest.get(port, "/"),
+                new IsEqual<>(200)
+            );
+        }
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5L);
+        while (log.dropped() == 0L && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+        blocked.countDown();
+        this.server.stop();
+        log.close();
+        MatcherAssert.assertThat(
+            "Entries are dropped when the buffer is full",
+            log.dropped(),
+            Matchers.greaterThanOrEqualTo(7L)
+        );
+    }
+
+    /**
+     * Start server.
+     * @param log Access log
+     * @return Server port
+     */
+    private int start(final AccessLog log) {
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK,
+                new Headers.From("Content-Length", "5"),
+                Flowable.just(ByteBuffer.wrap("hello".getBytes(StandardCharsets.US_ASCII)))
+            ),
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setAccessLog(log)
+        );
+        return this.server.start();
+    }
+
+    /**
+     * Sink which collects lines.
+     * @return Sink
+     */
+    private AccessLogSink sink() {
+        return new AccessLogSink() {
+            @Override
+            public void write(final CharSequence line) {
+                AccessLogTest.this.lines.add(line.toString());
+            }
+
+            @Override
+            public void flush() {
+                // nothing to flush
+            }
+
+            @Override
+            public void close() {
+                // nothing to close
+            }
+        };
+    }
+
+    /**
+     * Send GET request and read response.
+     * @param port Server port
+     * @param path Request path
+     * @return Response status
+     * @throws IOException On error
+     */
+    private static int get(final int port, final String path) throws IOException {
+        final HttpURLConnection con = (HttpURLConnection) new URL(
+            String.format("http://127.0.0.1:%d%s", port, path)
+        ).openConnection();
+        con.setRequestProperty("User-Agent", "test-agent");
+        try (InputStream body = con.getInputStream()) {
+            while (body.read() >= 0) {
+                continue;
+            }
+        }
+        return con.getResponseCode();
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link AdmissionControl}.
+ *
+ * @since 0.4
+ */
+final class AdmissionControlTest {
+
+    /**
+     * Client address.
+     */
+    private static final String CLIENT = "10.0.0.1";
+
+    @Test
+    void rejectsOverServerLimit() {
+        final AdmissionControl control = new AdmissionControl(2, 10);
+        control.admit(AdmissionControlTest.CLIENT);
+        control.admit("10.0.0.2");
+        MatcherAssert.assertThat(
+            "Request over limit is rejected",
+            control.admit("10.0.0.3"),
+            new IsEqual<>(HttpURLConnection.HTTP_UNAVAILABLE)
+        );
+        control.release(AdmissionControlTest.CLIENT, 0L);
+        MatcherAssert.assertThat(
+            "Request is admitted after release",
+            control.admit("10.0.0.3"),
+            new IsEqual<>(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(control.rejected(), new IsEqual<>(1L));
+    }
+
+    @Test
+    void throttlesClient() {
+        final AdmissionControl control = new AdmissionControl(10, 1);
+        control.admit(AdmissionControlTest.CLIENT);
+        MatcherAssert.assertThat(
+            "Second request of client is throttled",
+            control.admit(AdmissionControlTest.CLIENT),
+            new IsEqual<>(AdmissionControl.TOO_MANY_REQUESTS)
+        );
+        MatcherAssert.assertThat(
+            "Other client is admitted",
+            control.admit("10.0.0.2"),
+            new IsEqual<>(HttpURLConnection.HTTP_OK)
+        );
+        MatcherAssert.assertThat(
+            "Throttled request is not counted as active",
+            control.active(),
+            new IsEqual<>(2)
+        );
+        MatcherAssert.assertThat(control.throttled(), new IsEqual<>(1L));
+    }
+
+    @Test
+    void adaptsLimitToLatency() {
+        final AdmissionControl control = new AdmissionControl(
+            10, 100, Integer.MAX_VALUE, Duration.ofNanos(1L)
+        );
+        for (int idx = 0; idx < 50; ++idx) {
+            control.admit(AdmissionControlTest.CLIENT);
+            control.release(AdmissionControlTest.CLIENT, TimeUnit.SECONDS.toNanos(1L));
+        }
+        final int decreased = control.limit();
+        MatcherAssert.assertThat(
+            "Limit is decreased on slow responses",
+            decreased,
+            Matchers.lessThan(100)
+        );
+        for (int idx = 0; idx < decreased; ++idx) {
+            control.admit(AdmissionControlTest.CLIENT);
+        }
+        control.release(AdmissionControlTest.CLIENT, 0L);
+        MatcherAssert.assertThat(
+            "Limit is increased on fast responses while it's used",
+            control.limit(),
+            new IsEqual<>(decreased + 1)
+        );
+    }
+
+    @Test
+    void rejectsBeforeSliceIsInvoked() throws Exception {
+        final Vertx vertx = Vertx.vertx();
+        final WebClient client = WebClient.create(vertx);
+        final CountDownLatch invoked = new CountDownLatch(1);
+        final CompletableFuture<Void> release = new CompletableFuture<>();
+        final VertxSliceServer server = new VertxSliceServer(
+            vertx,
+            (line, headers, body) -> connection -> {
+                invoked.countDown();
+                return release.thenCompose(
+                    ignored -> connection.accept(RsStatus.OK, Headers.EMPTY, Flowable.empty())
+                );
+            },
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setAdmissionControl(new AdmissionControl(10, 1))
+        );
+        try {
+            final int port = server.start();
+            client.get(port, "localhost", "/slow").send();
+            invoked.await();
+            final HttpResponse<Buffer> rsp = client.get(port, "localhost", "/fast")
+                .rxSend().blockingGet();
+            MatcherAssert.assertThat(
+                "Request is throttled",
+                rsp.statusCode(),
+                new IsEqual<>(AdmissionControl.TOO_MANY_REQUESTS)
+            );
+            MatcherAssert.assertThat(
+                "Retry-After is set",
+                rsp.getHeader("Retry-After"),
+                new IsEqual<>("1")
+            );
+        } finally {
+            release.complete(null);
+            server.stop();
+            client.close();
+            vertx.close();
+        }
+    }
+}
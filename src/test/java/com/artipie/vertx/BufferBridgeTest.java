@@ -0,0 +1,53 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.vertx.reactivex.core.buffer.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link BufferBridge}.
+ *
+ * @since 0.4
+ */
+final class BufferBridgeTest {
+
+    @Test
+    void viewsVertxBufferWithoutCopy() {
+        final Buffer buffer = Buffer.buffer("abc".getBytes(StandardCharsets.UTF_8));
+        final ByteBuffer view = BufferBridge.view(buffer);
+        buffer.setByte(0, (byte) 'x');
+        MatcherAssert.assertThat(
+            StandardCharsets.UTF_8.decode(view).toString(),
+            new IsEqual<>("xbc")
+        );
+    }
+
+    @Test
+    void wrapsRemainingBytesWithoutCopy() {
+        final ByteBuffer source = ByteBuffer.wrap("hello".getBytes(StandardCharsets.UTF_8));
+        source.position(1);
+        final Buffer wrapped = BufferBridge.wrap(source);
+        source.put(1, (byte) 'a');
+        MatcherAssert.assertThat(wrapped.toString(), new IsEqual<>("allo"));
+    }
+
+    @Test
+    void wrapsDirectBuffer() {
+        final ByteBuffer source = ByteBuffer.allocateDirect(3);
+        source.put("xyz".getBytes(StandardCharsets.UTF_8)).flip();
+        final Buffer wrapped = BufferBridge.wrap(source);
+        wrapped.getDelegate().getByteBuf().release();
+        MatcherAssert.assertThat(
+            "Wrapped direct buffer content is not freed by release",
+            StandardCharsets.UTF_8.decode(source).toString(),
+            new IsEqual<>("xyz")
+        );
+    }
+}
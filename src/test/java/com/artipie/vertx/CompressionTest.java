@@ -0,0 +1,205 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rq.RequestLineFrom;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for response compression and {@link PrecompressedSlice}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class CompressionTest {
+
+    /**
+     * Host to send requests to.
+     */
+    private static final String HOST = "localhost";
+
+    /**
+     * Compressible text.
+     */
+    private static final byte[] TEXT = new String(new char[4096])
+        .replace('\0', 'a').getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * HTTP client.
+     */
+    private WebClient client;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.client = WebClient.create(this.vertx);
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.client.close();
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.vertx.close();
+    }
+
+    @Test
+    void compressesText() {
+        final HttpResponse<Buffer> rsp = this.get(
+            CompressionTest.slice("text/xml", CompressionTest.TEXT), "/", "gzip"
+        );
+        MatcherAssert.assertThat(rsp.getHeader("Content-Encoding"), new IsEqual<>("gzip"));
+        MatcherAssert.assertThat(rsp.getHeader("Vary"), new IsEqual<>("Accept-Encoding"));
+    }
+
+    @Test
+    void doesNotCompressSmallBody() {
+        final HttpResponse<Buffer> rsp = this.get(
+            CompressionTest.slice("text/xml", new byte[100]), "/", "gzip"
+        );
+        MatcherAssert.assertThat(rsp.getHeader("Content-Encoding"), new IsNull<>());
+        MatcherAssert.assertThat(rsp.body().length(), new IsEqual<>(100));
+    }
+
+    @Test
+    void doesNotCompressArchives() {
+        final HttpResponse<Buffer> rsp = this.get(
+            CompressionTest.slice("application/java-archive", CompressionTest.TEXT),
+            "/", "gzip, deflate"
+        );
+        MatcherAssert.assertThat(rsp.getHeader("Content-Encoding"), new IsNull<>());
+        MatcherAssert.assertThat(
+            rsp.body().getBytes(), new IsEqual<>(CompressionTest.TEXT)
+        );
+    }
+
+    @Test
+    void sendsPrecompressedVariant() throws Exception {
+        final byte[] gzipped = CompressionTest.gzip(CompressionTest.TEXT);
+        final HttpResponse<Buffer> rsp = this.get(
+            new PrecompressedSlice(
+                (line, headers, body) -> {
+                    final String path = new RequestLineFrom(line).uri().getPath();
+                    final Slice res;
+                    if ("/meta.xml.gz".equals(path)) {
+                        res = CompressionTest.slice("application/gzip", gzipped);
+                    } else {
+                        res = CompressionTest.slice("text/xml", CompressionTest.TEXT);
+                    }
+                    return res.response(line, headers, body);
+                }
+            ),
+            "/meta.xml", "br;q=0, gzip;q=0.8"
+        );
+        MatcherAssert.assertThat(rsp.getHeader("Content-Encoding"), new IsEqual<>("gzip"));
+        MatcherAssert.assertThat(
+            rsp.getHeader("Content-Type"), new IsEqual<>("application/xml")
+        );
+        MatcherAssert.assertThat(rsp.body().getBytes(), new IsEqual<>(gzipped));
+    }
+
+    @Test
+    void fallsBackWhenThereIsNoVariant() {
+        final HttpResponse<Buffer> rsp = this.get(
+            new PrecompressedSlice(
+                (line, headers, body) -> {
+                    final Slice res;
+                    if (line.contains(".gz ") || line.contains(".br ")) {
+                        res = (rqline, rqheaders, rqbody) -> connection -> connection.accept(
+                            RsStatus.NOT_FOUND, Headers.EMPTY, Flowable.empty()
+                        );
+                    } else {
+                        res = CompressionTest.slice("text/xml", new byte[10]);
+                    }
+                    return res.response(line, headers, body);
+                }
+            ),
+            "/meta.xml", "gzip, br"
+        );
+        MatcherAssert.assertThat(rsp.statusCode(), new IsEqual<>(200));
+        MatcherAssert.assertThat(rsp.getHeader("Content-Type"), new IsEqual<>("text/xml"));
+        MatcherAssert.assertThat(rsp.body().length(), new IsEqual<>(10));
+    }
+
+    /**
+     * Get response from server with compression enabled.
+     * @param slice Slice to serve
+     * @param path Request path
+     * @param accept Accept-Encoding header value
+     * @return Response
+     */
+    private HttpResponse<Buffer> get(final Slice slice, final String path,
+        final String accept) {
+        this.server = new VertxSliceServer(
+            this.vertx, slice,
+            new HttpServerOptions().setPort(0).setCompressionSupported(true)
+        );
+        final int port = this.server.start();
+        return this.client.get(port, CompressionTest.HOST, path)
+            .putHeader("Accept-Encoding", accept)
+            .rxSend().blockingGet();
+    }
+
+    /**
+     * Slice responding with given content.
+     * @param type Content type
+     * @param content Content
+     * @return Slice
+     */
+    private static Slice slice(final String type, final byte[] content) {
+        return (line, headers, body) -> connection -> connection.accept(
+            RsStatus.OK,
+            new Headers.From(
+                new Header("Content-Type", type),
+                new Header("Content-Length", String.valueOf(content.length))
+            ),
+            Flowable.just(ByteBuffer.wrap(content))
+        );
+    }
+
+    /**
+     * Gzip content.
+     * @param content Content
+     * @return Compressed content
+     * @throws Exception If failed
+     */
+    private static byte[] gzip(final byte[] content) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(content);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Response;
+import com.artipie.http.Slice;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ContinueConnection} and {@link ContinueCheck}
+ * used by {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class ContinueConnectionTest {
+
+    /**
+     * Request head expecting continue.
+     */
+    private static final String HEAD = String.join(
+        "\r\n",
+        "PUT /upload HTTP/1.1",
+        "Host: localhost",
+        "Content-Length: 5",
+        "Expect: 100-continue",
+        "",
+        ""
+    );
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Number of slice invocations.
+     */
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.calls = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.vertx.close();
+    }
+
+    @Test
+    void sendsContinueWhenBodyIsRead() throws IOException {
+        final Slice echo = (line, headers, body) -> connection -> {
+            final CompletableFuture<Void> read = new CompletableFuture<>();
+            Flowable.fromPublisher(body).ignoreElements()
+                .subscribe(() -> read.complete(null), read::completeExceptionally);
+            return read.thenCompose(
+                ignored -> connection.accept(
+                    RsStatus.OK, new Headers.From("Content-Length", "0"), Flowable.empty()
+                )
+            );
+        };
+        try (Socket socket = new Socket("localhost", this.start(echo, ContinueCheck.ACCEPT))) {
+            socket.setSoTimeout(5000);
+            final OutputStream out = socket.getOutputStream();
+            out.write(ContinueConnectionTest.HEAD.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            MatcherAssert.assertThat(
+                "Continue is sent",
+                ContinueConnectionTest.head(socket.getInputStream()),
+                Matchers.startsWith("HTTP/1.1 100 Continue")
+            );
+            out.write("hello".getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            MatcherAssert.assertThat(
+                "Body is read",
+                ContinueConnectionTest.head(socket.getInputStream()),
+                Matchers.startsWith("HTTP/1.1 200 OK")
+            );
+        }
+    }
+
+    @Test
+    void rejectsBeforeInvokingSlice() throws IOException {
+        final String rsp = this.rejected(
+            this.start(
+                (line, headers, body) -> connection -> connection.accept(
+                    RsStatus.OK, Headers.EMPTY, Flowable.empty()
+                ),
+                (line, headers) -> CompletableFuture.completedFuture(
+                    Optional.<Response>of(
+                        connection -> connection.accept(
+                            RsStatus.UNAUTHORIZED,
+                            new Headers.From("WWW-Authenticate", "Basic realm=\"artipie\""),
+                            Flowable.empty()
+                        )
+                    )
+                )
+            )
+        );
+        MatcherAssert.assertThat(
+            "Request is rejected",
+            rsp,
+            Matchers.allOf(
+                Matchers.startsWith("HTTP/1.1 401 Unauthorized"),
+                Matchers.containsStringIgnoringCase("WWW-Authenticate: Basic realm=\"artipie\""),
+                Matchers.containsStringIgnoringCase("Connection: close")
+            )
+        );
+        MatcherAssert.assertThat("Slice is not invoked", this.calls.get(), new IsEqual<>(0));
+    }
+
+    @Test
+    void rejectsIfSliceDoesNotReadBody() throws IOException {
+        MatcherAssert.assertThat(
+            this.rejected(
+                this.start(
+                    (line, headers, body) -> connection -> connection.accept(
+                        RsStatus.PAYLOAD_TOO_LARGE, Headers.EMPTY, Flowable.empty()
+                    ),
+                    ContinueCheck.ACCEPT
+                )
+            ),
+            Matchers.startsWith("HTTP/1.1 413 Request Entity Too Large")
+        );
+    }
+
+    /**
+     * Send request head expecting continue and read the rest of the
+     * connection, which should be closed by the server without continue.
+     * @param port Server port
+     * @return Response
+     * @throws IOException On error
+     */
+    private String rejected(final int port) throws IOException {
+        try (Socket socket = new Socket("localhost", port)) {
+            socket.setSoTimeout(5000);
+            socket.getOutputStream().write(
+                ContinueConnectionTest.HEAD.getBytes(StandardCharsets.US_ASCII)
+            );
+            socket.getOutputStream().flush();
+            final ByteArrayOutputStream all = new ByteArrayOutputStream();
+            final InputStream input = socket.getInputStream();
+            for (int next = input.read(); next >= 0; next = input.read()) {
+                all.write(next);
+            }
+            return new String(all.toByteArray(), StandardCharsets.US_ASCII);
+        }
+    }
+
+    /**
+     * Start server.
+     * @param slice Slice
+     * @param check Continue check
+     * @return Server port
+     */
+    private int start(final Slice slice, final ContinueCheck check) {
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> {
+                this.calls.incrementAndGet();
+                return slice.response(line, headers, body);
+            },
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setContinueCheck(check)
+        );
+        return this.server.start();
+    }
+
+    /**
+     * Read response head.
+     * @param input Input stream
+     * @return Response head
+     * @throws IOException On error
+     */
+    private static String head(final InputStream input) throws IOException {
+        final StringBuilder head = new StringBuilder();
+        while (head.indexOf("\r\n\r\n") < 0) {
+            final int next = input.read();
+            if (next < 0) {
+                break;
+            }
+            head.append((char) next);
+        }
+        return head.toString();
+    }
+}
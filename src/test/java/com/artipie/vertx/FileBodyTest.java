@@ -0,0 +1,148 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link FileBody}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class FileBodyTest {
+
+    /**
+     * File content.
+     */
+    private byte[] content;
+
+    /**
+     * File with content.
+     */
+    private Path file;
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    @BeforeEach
+    void setUp(@TempDir final Path dir) throws Exception {
+        this.content = new byte[300 * 1024];
+        new Random().nextBytes(this.content);
+        this.file = Files.write(dir.resolve("file.bin"), this.content);
+        this.vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.vertx.close();
+    }
+
+    @Test
+    void streamsFileRegion() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Flowable.fromPublisher(new FileBody(this.file, 1000L, 200_000L))
+            .blockingForEach(buf -> out.write(buf.array(), 0, buf.remaining()));
+        MatcherAssert.assertThat(
+            out.toByteArray(),
+            new IsEqual<>(Arrays.copyOfRange(this.content, 1000, 201_000))
+        );
+    }
+
+    @Test
+    void sendsFileRegion() {
+        final HttpResponse<Buffer> rsp = this.get(new HttpServerOptions().setPort(0));
+        MatcherAssert.assertThat(
+            rsp.getHeader("Content-Length"), new IsEqual<>("200000")
+        );
+        MatcherAssert.assertThat(
+            rsp.body().getBytes(),
+            new IsEqual<>(Arrays.copyOfRange(this.content, 1000, 201_000))
+        );
+    }
+
+    @Test
+    void streamsFileRegionWithCompression() {
+        final HttpResponse<Buffer> rsp = this.get(
+            new HttpServerOptions().setPort(0).setCompressionSupported(true)
+        );
+        MatcherAssert.assertThat(
+            rsp.body().getBytes(),
+            new IsEqual<>(Arrays.copyOfRange(this.content, 1000, 201_000))
+        );
+    }
+
+    @Test
+    void sendsWholeFileWithSliceHeaders() throws Exception {
+        final FileBody body = new FileBody(this.file);
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, rqbody) -> connection -> connection.accept(
+                RsStatus.OK, new Headers.From("Content-Type", "application/octet-stream"), body
+            ),
+            new HttpServerOptions().setPort(0)
+        );
+        final int port = this.server.start();
+        final WebClient client = WebClient.create(this.vertx);
+        final HttpResponse<Buffer> rsp = client.get(port, "localhost", "/")
+            .rxSend().blockingGet();
+        client.close();
+        MatcherAssert.assertThat(
+            rsp.getHeader("Content-Type"), new IsEqual<>("application/octet-stream")
+        );
+        MatcherAssert.assertThat(rsp.body().getBytes(), new IsEqual<>(this.content));
+    }
+
+    /**
+     * Get file region from server.
+     * @param options Server options
+     * @return Response
+     */
+    private HttpResponse<Buffer> get(final HttpServerOptions options) {
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK,
+                new Headers.From("Content-Length", "200000"),
+                new FileBody(this.file, 1000L, 200_000L)
+            ),
+            options
+        );
+        final int port = this.server.start();
+        final WebClient client = WebClient.create(this.vertx);
+        final HttpResponse<Buffer> rsp = client.get(port, "localhost", "/")
+            .rxSend().blockingGet();
+        client.close();
+        return rsp;
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for graceful shutdown of {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ */
+final class GracefulShutdownTest {
+
+    /**
+     * Host to send requests to.
+     */
+    private static final String HOST = "localhost";
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * HTTP client.
+     */
+    private WebClient client;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Completed when slice is invoked.
+     */
+    private CountDownLatch invoked;
+
+    /**
+     * Response body of slice.
+     */
+    private CompletableFuture<String> body;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.client = WebClient.create(this.vertx);
+        this.invoked = new CountDownLatch(1);
+        this.body = new CompletableFuture<>();
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, rqbody) -> connection -> {
+                this.invoked.countDown();
+                return this.body.thenCompose(
+                    text -> connection.accept(
+                        RsStatus.OK,
+                        Headers.EMPTY,
+                        Flowable.just(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)))
+                    )
+                );
+            },
+            new HttpServerOptions().setPort(0)
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.body.complete("");
+        this.server.close();
+        this.client.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void finishesActiveRequestsAndRejectsNewOnes() throws Exception {
+        final int port = this.server.startAsync().toCompletableFuture().get(1L, TimeUnit.MINUTES);
+        final CompletableFuture<HttpResponse<Buffer>> active = this.get(port);
+        this.invoked.await();
+        final CompletionStage<Integer> stopped = this.server.stopAsync(Duration.ofMinutes(1L));
+        final HttpResponse<Buffer> rejected = this.get(port).get(1L, TimeUnit.MINUTES);
+        MatcherAssert.assertThat(
+            "New request is rejected",
+            rejected.statusCode(),
+            new IsEqual<>(Integer.parseInt(RsStatus.UNAVAILABLE.code()))
+        );
+        MatcherAssert.assertThat(
+            "Connection of rejected request is closed",
+            rejected.getHeader("Connection"),
+            new IsEqual<>("close")
+        );
+        this.body.complete("done");
+        MatcherAssert.assertThat(
+            "Active request is finished",
+            active.get(1L, TimeUnit.MINUTES).bodyAsString(),
+            new IsEqual<>("done")
+        );
+        MatcherAssert.assertThat(
+            "No requests are cut off",
+            stopped.toCompletableFuture().get(1L, TimeUnit.MINUTES),
+            new IsEqual<>(0)
+        );
+    }
+
+    @Test
+    void cutsOffRequestsAfterGracePeriod() throws Exception {
+        final int port = this.server.start();
+        final CompletableFuture<HttpResponse<Buffer>> active = this.get(port);
+        this.invoked.await();
+        MatcherAssert.assertThat(
+            "Active request is cut off",
+            this.server.stop(Duration.ofMillis(200L)),
+            new IsEqual<>(1)
+        );
+        MatcherAssert.assertThat(
+            "Client sees connection failure",
+            active.handle((rsp, err) -> err != null).get(1L, TimeUnit.MINUTES),
+            new IsEqual<>(true)
+        );
+    }
+
+    @Test
+    void stopsIdleServerImmediately() throws Exception {
+        this.server.start();
+        MatcherAssert.assertThat(
+            this.server.stopAsync(Duration.ofMinutes(1L)).toCompletableFuture()
+                .get(1L, TimeUnit.MINUTES),
+            new IsEqual<>(0)
+        );
+    }
+
+    /**
+     * Send GET request.
+     * @param port Server port
+     * @return Response future
+     */
+    private CompletableFuture<HttpResponse<Buffer>> get(final int port) {
+        final CompletableFuture<HttpResponse<Buffer>> res = new CompletableFuture<>();
+        this.client.get(port, GracefulShutdownTest.HOST, "/").rxSend()
+            .subscribe(res::complete, res::completeExceptionally);
+        return res;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientOptions;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.reactivex.core.Vertx;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * HTTP/2 test for {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class Http2Test {
+
+    /**
+     * Number of concurrent streams.
+     */
+    private static final int STREAMS = 8;
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * HTTP client.
+     */
+    private HttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.client != null) {
+            this.client.close();
+        }
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.vertx.close();
+    }
+
+    @Test
+    void servesConcurrentStreamsOnOneConnection() throws Exception {
+        final AtomicInteger arrived = new AtomicInteger();
+        final CompletableFuture<Void> all = new CompletableFuture<>();
+        final int port = this.start(
+            (line, headers, body) -> connection -> {
+                if (arrived.incrementAndGet() == Http2Test.STREAMS) {
+                    all.complete(null);
+                }
+                return all.thenCompose(
+                    ignored -> connection.accept(
+                        RsStatus.OK,
+                        new Headers.From("Connection", "keep-alive"),
+                        Flowable.just(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)))
+                    )
+                );
+            }
+        );
+        this.client = this.vertx.getDelegate().createHttpClient(
+            new HttpClientOptions()
+                .setProtocolVersion(HttpVersion.HTTP_2)
+                .setHttp2ClearTextUpgrade(false)
+                .setHttp2MaxPoolSize(1)
+                .setDefaultPort(port)
+        );
+        final List<CompletableFuture<String>> responses = new ArrayList<>(Http2Test.STREAMS);
+        for (int idx = 0; idx < Http2Test.STREAMS; ++idx) {
+            responses.add(this.get(String.format("/stream/%d", idx)));
+        }
+        for (int idx = 0; idx < Http2Test.STREAMS; ++idx) {
+            MatcherAssert.assertThat(
+                responses.get(idx).get(10, TimeUnit.SECONDS),
+                new IsEqual<>(String.format("GET /stream/%d HTTP/2\r\n", idx))
+            );
+        }
+    }
+
+    @Test
+    void writesLargeBodiesWithFlowControl() throws Exception {
+        final int chunks = 64;
+        final byte[] chunk = new byte[16 * 1024];
+        final int port = this.start(
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK, Headers.EMPTY,
+                Flowable.range(0, chunks).map(idx -> ByteBuffer.wrap(chunk))
+            )
+        );
+        this.client = this.vertx.getDelegate().createHttpClient(
+            new HttpClientOptions()
+                .setProtocolVersion(HttpVersion.HTTP_2)
+                .setHttp2ClearTextUpgrade(false)
+                .setHttp2MaxPoolSize(1)
+                .setDefaultPort(port)
+        );
+        final List<CompletableFuture<Buffer>> responses = new ArrayList<>(Http2Test.STREAMS);
+        for (int idx = 0; idx < Http2Test.STREAMS; ++idx) {
+            responses.add(
+                this.client.request(HttpMethod.GET, "/")
+                    .compose(req -> req.send().compose(HttpClientResponse::body))
+                    .toCompletionStage().toCompletableFuture()
+            );
+        }
+        for (final CompletableFuture<Buffer> rsp : responses) {
+            MatcherAssert.assertThat(
+                rsp.get(30, TimeUnit.SECONDS).length(),
+                new IsEqual<>(chunks * chunk.length)
+            );
+        }
+    }
+
+    @Test
+    void upgradesToHttp2() throws Exception {
+        final int port = this.start(
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK, Headers.EMPTY,
+                Flowable.just(ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8)))
+            )
+        );
+        this.client = this.vertx.getDelegate().createHttpClient(
+            new HttpClientOptions()
+                .setProtocolVersion(HttpVersion.HTTP_2)
+                .setHttp2ClearTextUpgrade(true)
+                .setDefaultPort(port)
+        );
+        this.get("/first").get(10, TimeUnit.SECONDS);
+        MatcherAssert.assertThat(
+            this.get("/second").get(10, TimeUnit.SECONDS),
+            Matchers.endsWith("HTTP/2\r\n")
+        );
+    }
+
+    /**
+     * Start server with HTTP/2 enabled.
+     * @param slice Slice to serve
+     * @return Port
+     */
+    private int start(final Slice slice) {
+        this.server = new VertxSliceServer(
+            this.vertx, slice,
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setHttp2(true)
+        );
+        return this.server.start();
+    }
+
+    /**
+     * Send GET request.
+     * @param path Request path
+     * @return Response body
+     */
+    private CompletableFuture<String> get(final String path) {
+        return this.client.request(HttpMethod.GET, path)
+            .compose(req -> req.send().compose(HttpClientResponse::body))
+            .map(Buffer::toString)
+            .toCompletionStage().toCompletableFuture();
+    }
+}
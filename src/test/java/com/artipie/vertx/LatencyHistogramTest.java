@@ -0,0 +1,55 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link LatencyHistogram}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class LatencyHistogramTest {
+
+    @Test
+    void keepsSmallValuesExact() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long val = 0; val < 10; ++val) {
+            histogram.record(val);
+        }
+        MatcherAssert.assertThat(histogram.quantile(0.5), new IsEqual<>(4L));
+        MatcherAssert.assertThat(histogram.quantile(1.0), new IsEqual<>(9L));
+        MatcherAssert.assertThat(histogram.count(), new IsEqual<>(10L));
+        MatcherAssert.assertThat(histogram.sum(), new IsEqual<>(45L));
+    }
+
+    @Test
+    void keepsLargeValuesWithinPrecision() {
+        for (final long value : new long[]{33L, 1_000L, 123_456L, 987_654_321L, Long.MAX_VALUE}) {
+            final LatencyHistogram histogram = new LatencyHistogram();
+            histogram.record(value);
+            final long actual = histogram.quantile(0.5);
+            MatcherAssert.assertThat(actual, Matchers.greaterThanOrEqualTo(value));
+            MatcherAssert.assertThat(
+                (double) (actual - value) / value, Matchers.lessThanOrEqualTo(1.0 / 32)
+            );
+        }
+    }
+
+    @Test
+    void computesQuantiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long val = 1; val <= 10_000; ++val) {
+            histogram.record(val * 1000);
+        }
+        MatcherAssert.assertThat(
+            (double) histogram.quantile(0.99), Matchers.closeTo(9_900_000.0, 9_900_000.0 / 32)
+        );
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for server metrics and {@link MetricsSlice}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class MetricsSliceTest {
+
+    /**
+     * Host to send requests to.
+     */
+    private static final String HOST = "localhost";
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * HTTP client.
+     */
+    private WebClient client;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.client = WebClient.create(this.vertx);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.client.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void servesRecordedMetrics() {
+        final HistogramMetrics metrics = new HistogramMetrics();
+        final int port = this.start(new SliceServerOptions().setMetrics(metrics, "/metrics"));
+        this.client.get(port, MetricsSliceTest.HOST, "/one").rxSend().blockingGet();
+        this.client.post(port, MetricsSliceTest.HOST, "/two")
+            .rxSendBuffer(Buffer.buffer("abc")).blockingGet();
+        final String text = this.client.get(port, MetricsSliceTest.HOST, "/metrics")
+            .rxSend().blockingGet().bodyAsString();
+        MatcherAssert.assertThat(
+            text,
+            Matchers.allOf(
+                Matchers.containsString(
+                    "slice_server_requests_total{method=\"GET\",status=\"200\"} 1"
+                ),
+                Matchers.containsString(
+                    "slice_server_requests_total{method=\"POST\",status=\"200\"} 1"
+                ),
+                Matchers.containsString("slice_server_duration_seconds_count 2"),
+                Matchers.containsString("slice_server_requests_in_flight 1")
+            )
+        );
+        MatcherAssert.assertThat(metrics.ttfb().count(), new IsEqual<>(3L));
+        MatcherAssert.assertThat(metrics.inFlight(), new IsEqual<>(0L));
+    }
+
+    @Test
+    void recordsToMicrometer() {
+        final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        final int port = this.start(
+            new SliceServerOptions().setMetrics(new MicrometerMetrics(registry))
+        );
+        this.client.get(port, MetricsSliceTest.HOST, "/").rxSend().blockingGet();
+        this.client.get(port, MetricsSliceTest.HOST, "/").rxSend().blockingGet();
+        MatcherAssert.assertThat(
+            registry.get("slice.server.requests").tag("method", "GET").tag("status", "200")
+                .counter().count(),
+            new IsEqual<>(2.0)
+        );
+        MatcherAssert.assertThat(
+            registry.get("slice.server.sent.bytes").counter().count(),
+            new IsEqual<>(10.0)
+        );
+    }
+
+    /**
+     * Start server with slice which responds with {@code hello}.
+     * @param opts Server options
+     * @return Server port
+     */
+    private int start(final SliceServerOptions opts) {
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> {
+                final CompletableFuture<Void> read = new CompletableFuture<>();
+                Flowable.fromPublisher(body).ignoreElements()
+                    .subscribe(() -> read.complete(null), read::completeExceptionally);
+                return read.thenCompose(
+                    ignored -> connection.accept(
+                        RsStatus.OK,
+                        new Headers.From("Content-Length", "5"),
+                        Flowable.just(ByteBuffer.wrap("hello".getBytes(StandardCharsets.UTF_8)))
+                    )
+                );
+            },
+            new HttpServerOptions().setPort(0),
+            opts
+        );
+        return this.server.start();
+    }
+}
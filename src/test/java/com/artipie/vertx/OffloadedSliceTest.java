@@ -0,0 +1,175 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link OffloadedSlice} used by {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ */
+final class OffloadedSliceTest {
+
+    /**
+     * Host to send requests to.
+     */
+    private static final String HOST = "localhost";
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * HTTP client.
+     */
+    private WebClient client;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.client = WebClient.create(this.vertx);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.client.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void invokesSliceOnWorkerPool() {
+        final int port = this.start(
+            new SliceServerOptions().setWorkerPoolSize(2), new CountDownLatch(0),
+            new CountDownLatch(1)
+        );
+        MatcherAssert.assertThat(
+            this.client.get(port, OffloadedSliceTest.HOST, "/").rxSend().blockingGet()
+                .bodyAsString(),
+            Matchers.startsWith("slice-server-")
+        );
+    }
+
+    @Test
+    void rejectsWhenSaturated() throws Exception {
+        final ExecutorService exec = Executors.newSingleThreadExecutor();
+        final CountDownLatch latch = new CountDownLatch(1);
+        final CountDownLatch running = new CountDownLatch(1);
+        final CountDownLatch submitted = new CountDownLatch(2);
+        try {
+            final int port = this.start(
+                new SliceServerOptions().setExecutor(
+                    task -> {
+                        exec.execute(task);
+                        submitted.countDown();
+                    }
+                ).setMaxQueuedRequests(1),
+                latch, running
+            );
+            this.client.get(port, OffloadedSliceTest.HOST, "/running").send();
+            running.await();
+            this.client.get(port, OffloadedSliceTest.HOST, "/queued").send();
+            submitted.await();
+            final HttpResponse<Buffer> rejected = this.client
+                .get(port, OffloadedSliceTest.HOST, "/rejected").rxSend().blockingGet();
+            MatcherAssert.assertThat(
+                rejected.statusCode(),
+                new IsEqual<>(Integer.parseInt(RsStatus.UNAVAILABLE.code()))
+            );
+            MatcherAssert.assertThat(rejected.getHeader("Retry-After"), new IsEqual<>("1"));
+        } finally {
+            latch.countDown();
+            exec.shutdown();
+        }
+    }
+
+    @Test
+    void failsResponseWhenBodySubscriptionIsRejected() {
+        final ExecutorService exec = Executors.newSingleThreadExecutor();
+        final AtomicInteger tasks = new AtomicInteger();
+        try {
+            final int port = this.start(
+                new SliceServerOptions().setExecutor(
+                    task -> {
+                        if (tasks.incrementAndGet() > 1) {
+                            throw new RejectedExecutionException("Executor is saturated");
+                        }
+                        exec.execute(task);
+                    }
+                ),
+                new CountDownLatch(0), new CountDownLatch(1)
+            );
+            MatcherAssert.assertThat(
+                this.client.get(port, OffloadedSliceTest.HOST, "/").rxSend()
+                    .timeout(5L, TimeUnit.SECONDS).blockingGet().statusCode(),
+                new IsEqual<>(Integer.parseInt(RsStatus.INTERNAL_ERROR.code()))
+            );
+        } finally {
+            exec.shutdown();
+        }
+    }
+
+    /**
+     * Start server with slice which responds with name of its thread.
+     * @param opts Server options
+     * @param latch Latch the slice waits for
+     * @param running Latch counted down when the slice is invoked
+     * @return Server port
+     */
+    private int start(final SliceServerOptions opts, final CountDownLatch latch,
+        final CountDownLatch running) {
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> {
+                running.countDown();
+                try {
+                    latch.await();
+                } catch (final InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(ex);
+                }
+                final String thread = Thread.currentThread().getName();
+                return connection -> connection.accept(
+                    RsStatus.OK,
+                    Headers.EMPTY,
+                    Flowable.just(ByteBuffer.wrap(thread.getBytes(StandardCharsets.UTF_8)))
+                );
+            },
+            new HttpServerOptions().setPort(0),
+            opts
+        );
+        return this.server.start();
+    }
+}
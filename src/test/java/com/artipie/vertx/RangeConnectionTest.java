@@ -0,0 +1,215 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link RangeConnection} used by {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class RangeConnectionTest {
+
+    /**
+     * Host to send requests to.
+     */
+    private static final String HOST = "localhost";
+
+    /**
+     * Response body.
+     */
+    private static final String BODY = "0123456789";
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * HTTP client.
+     */
+    private WebClient client;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.client = WebClient.create(this.vertx);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.client.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void sendsSingleRange() {
+        final HttpResponse<Buffer> rsp = this.get(RangeConnectionTest.chunked(), "bytes=2-4");
+        MatcherAssert.assertThat(
+            "Status is partial content",
+            rsp.statusCode(),
+            new IsEqual<>(HttpURLConnection.HTTP_PARTIAL)
+        );
+        MatcherAssert.assertThat("Body is range", rsp.bodyAsString(), new IsEqual<>("234"));
+        MatcherAssert.assertThat(
+            "Content range is sent",
+            rsp.getHeader("Content-Range"),
+            new IsEqual<>("bytes 2-4/10")
+        );
+    }
+
+    @Test
+    void sendsSuffixRange() {
+        final HttpResponse<Buffer> rsp = this.get(RangeConnectionTest.chunked(), "bytes=-3");
+        MatcherAssert.assertThat("Body is suffix", rsp.bodyAsString(), new IsEqual<>("789"));
+        MatcherAssert.assertThat(
+            "Content range is sent",
+            rsp.getHeader("Content-Range"),
+            new IsEqual<>("bytes 7-9/10")
+        );
+    }
+
+    @Test
+    void sendsRangeOfFile(@TempDir final Path dir) throws IOException {
+        final Path file = dir.resolve("file.bin");
+        Files.write(file, RangeConnectionTest.BODY.getBytes(StandardCharsets.US_ASCII));
+        final FileBody content = new FileBody(file);
+        final HttpResponse<Buffer> rsp = this.get(
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK, new Headers.From("Content-Length", "10"), content
+            ),
+            "bytes=3-5"
+        );
+        MatcherAssert.assertThat(rsp.bodyAsString(), new IsEqual<>("345"));
+    }
+
+    @Test
+    void sendsMultipleRanges() {
+        final HttpResponse<Buffer> rsp = this.get(RangeConnectionTest.chunked(), "bytes=6-7,1-2");
+        MatcherAssert.assertThat(
+            "Content type is multipart",
+            rsp.getHeader("Content-Type"),
+            Matchers.startsWith("multipart/byteranges; boundary=")
+        );
+        MatcherAssert.assertThat(
+            "Body has sorted parts",
+            rsp.bodyAsString(),
+            Matchers.stringContainsInOrder(
+                "Content-Range: bytes 1-2/10", "12", "Content-Range: bytes 6-7/10", "67"
+            )
+        );
+        MatcherAssert.assertThat(
+            "Content length is exact",
+            rsp.getHeader("Content-Length"),
+            new IsEqual<>(String.valueOf(rsp.body().length()))
+        );
+    }
+
+    @Test
+    void rejectsUnsatisfiableRange() {
+        final HttpResponse<Buffer> rsp = this.get(RangeConnectionTest.chunked(), "bytes=10-");
+        MatcherAssert.assertThat(rsp.statusCode(), new IsEqual<>(416));
+        MatcherAssert.assertThat(rsp.getHeader("Content-Range"), new IsEqual<>("bytes */10"));
+    }
+
+    @Test
+    void sendsWholeBodyIfRangeDoesNotMatch() {
+        this.server = new VertxSliceServer(
+            this.vertx, RangeConnectionTest.chunked(), new HttpServerOptions().setPort(0)
+        );
+        final HttpResponse<Buffer> rsp = this.client
+            .get(this.server.start(), RangeConnectionTest.HOST, "/")
+            .putHeader("Range", "bytes=0-1")
+            .putHeader("If-Range", "\"outdated\"")
+            .rxSend().blockingGet();
+        MatcherAssert.assertThat(
+            rsp.bodyAsString(),
+            new IsEqual<>(RangeConnectionTest.BODY)
+        );
+    }
+
+    @Test
+    void readsOriginChunkByChunkUntilLastRange() {
+        final AtomicInteger read = new AtomicInteger();
+        final AtomicLong demand = new AtomicLong();
+        final HttpResponse<Buffer> rsp = this.get(
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK,
+                new Headers.From("Content-Length", String.valueOf(1024 * 1024)),
+                Flowable.range(0, 1024).map(idx -> ByteBuffer.allocate(1024))
+                    .doOnNext(chunk -> read.incrementAndGet())
+                    .doOnRequest(num -> demand.accumulateAndGet(num, Math::max))
+            ),
+            "bytes=1500-2047"
+        );
+        MatcherAssert.assertThat("Body is range", rsp.body().length(), new IsEqual<>(548));
+        MatcherAssert.assertThat("Origin is read by one chunk", demand.get(), new IsEqual<>(1L));
+        MatcherAssert.assertThat("Origin is cancelled after range", read.get(), new IsEqual<>(2));
+    }
+
+    /**
+     * Start server and send request with range.
+     * @param slice Slice
+     * @param range Range header value
+     * @return Response
+     */
+    private HttpResponse<Buffer> get(final Slice slice, final String range) {
+        this.server = new VertxSliceServer(this.vertx, slice, new HttpServerOptions().setPort(0));
+        return this.client.get(this.server.start(), RangeConnectionTest.HOST, "/")
+            .putHeader("Range", range)
+            .rxSend().blockingGet();
+    }
+
+    /**
+     * Slice which responds with body in several chunks.
+     * @return Slice
+     */
+    private static Slice chunked() {
+        return (line, headers, body) -> connection -> connection.accept(
+            RsStatus.OK,
+            new Headers.From(
+                new Header("Content-Length", "10"),
+                new Header("ETag", "\"current\"")
+            ),
+            Flowable.fromArray("012", "3456", "789").map(
+                str -> ByteBuffer.wrap(str.getBytes(StandardCharsets.US_ASCII))
+            )
+        );
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Test for {@link RequestBody} used by {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class RequestBodyTest {
+
+    /**
+     * Size of uploaded body.
+     */
+    private static final long SIZE = 64L * 1024 * 1024;
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * HTTP client.
+     */
+    private HttpClient client;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.client = this.vertx.getDelegate().createHttpClient();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.client.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void stopsReadingWithoutDemand() throws Exception {
+        final AtomicLong consumed = new AtomicLong();
+        final AtomicReference<Subscription> sub = new AtomicReference<>();
+        final CompletableFuture<Void> finished = new CompletableFuture<>();
+        final int port = this.start(
+            (line, headers, body) -> connection -> {
+                body.subscribe(
+                    new Subscriber<ByteBuffer>() {
+                        @Override
+                        public void onSubscribe(final Subscription subscription) {
+                            sub.set(subscription);
+                            subscription.request(1L);
+                        }
+
+                        @Override
+                        public void onNext(final ByteBuffer item) {
+                            if (consumed.addAndGet(item.remaining()) < 1024L * 1024) {
+                                sub.get().request(1L);
+                            }
+                        }
+
+                        @Override
+                        public void onError(final Throwable err) {
+                            finished.completeExceptionally(err);
+                        }
+
+                        @Override
+                        public void onComplete() {
+                            finished.complete(null);
+                        }
+                    }
+                );
+                return finished.thenCompose(
+                    ignored -> connection.accept(RsStatus.OK, Headers.EMPTY, Flowable.empty())
+                );
+            }
+        );
+        final AtomicLong written = new AtomicLong();
+        final CompletableFuture<Integer> status = this.upload(port, written);
+        TimeUnit.SECONDS.sleep(1L);
+        final long stalled = written.get();
+        TimeUnit.MILLISECONDS.sleep(500L);
+        MatcherAssert.assertThat(
+            "Client is blocked when slice has no demand",
+            written.get(),
+            new IsEqual<>(stalled)
+        );
+        MatcherAssert.assertThat(
+            "Server doesn't buffer the body",
+            stalled - consumed.get(),
+            Matchers.lessThan(RequestBodyTest.SIZE / 4)
+        );
+        sub.get().request(Long.MAX_VALUE);
+        MatcherAssert.assertThat(
+            "Upload is finished after demand is resumed",
+            status.get(1L, TimeUnit.MINUTES),
+            new IsEqual<>(200)
+        );
+        MatcherAssert.assertThat(
+            "Whole body is received",
+            consumed.get(),
+            new IsEqual<>(RequestBodyTest.SIZE)
+        );
+    }
+
+    @Test
+    void rejectsSecondSubscriber() throws Exception {
+        final int port = this.start(
+            (line, headers, body) -> connection -> {
+                final CompletableFuture<String> second = new CompletableFuture<>();
+                Flowable.fromPublisher(body).subscribe();
+                Flowable.fromPublisher(body).subscribe(
+                    item -> second.complete("emitted"),
+                    err -> second.complete(err.getMessage()),
+                    () -> second.complete("completed")
+                );
+                return second.thenCompose(
+                    msg -> connection.accept(
+                        RsStatus.OK, Headers.EMPTY,
+                        Flowable.just(ByteBuffer.wrap(msg.getBytes(StandardCharsets.UTF_8)))
+                    )
+                );
+            }
+        );
+        final String body = this.client.request(HttpMethod.PUT, port, "localhost", "/")
+            .compose(req -> req.send(Buffer.buffer("data")))
+            .compose(rsp -> rsp.body())
+            .toCompletionStage().toCompletableFuture().get(1L, TimeUnit.MINUTES).toString();
+        MatcherAssert.assertThat(body, Matchers.containsString("only once"));
+    }
+
+    @Test
+    void failsBodyWhenClientDisconnects() throws Exception {
+        final CompletableFuture<Throwable> error = new CompletableFuture<>();
+        final int port = this.start(
+            (line, headers, body) -> connection -> {
+                Flowable.fromPublisher(body).ignoreElements()
+                    .subscribe(() -> error.complete(null), error::complete);
+                return new CompletableFuture<>();
+            }
+        );
+        try (Socket socket = new Socket("localhost", port)) {
+            final OutputStream out = socket.getOutputStream();
+            out.write(
+                String.join(
+                    "\r\n", "PUT /upload HTTP/1.1", "Host: localhost",
+                    String.format("Content-Length: %d", RequestBodyTest.SIZE), "", "partial"
+                ).getBytes(StandardCharsets.US_ASCII)
+            );
+            out.flush();
+            TimeUnit.MILLISECONDS.sleep(100L);
+        }
+        MatcherAssert.assertThat(
+            "Body fails when client disconnects",
+            error.get(10L, TimeUnit.SECONDS),
+            Matchers.notNullValue()
+        );
+    }
+
+    /**
+     * Start server.
+     * @param slice Slice
+     * @return Port
+     */
+    private int start(final Slice slice) {
+        this.server = new VertxSliceServer(
+            this.vertx, slice, new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setRequestPrefetch(2)
+        );
+        return this.server.start();
+    }
+
+    /**
+     * Upload body of {@link #SIZE} bytes, write it while client write
+     * queue isn't full.
+     * @param port Server port
+     * @param written Counter of bytes written to client
+     * @return Response status
+     */
+    private CompletableFuture<Integer> upload(final int port, final AtomicLong written) {
+        final CompletableFuture<Integer> res = new CompletableFuture<>();
+        final Buffer chunk = Buffer.buffer(new byte[64 * 1024]);
+        this.client.request(HttpMethod.PUT, port, "localhost", "/upload").onSuccess(
+            req -> {
+                req.putHeader("Content-Length", String.valueOf(RequestBodyTest.SIZE));
+                req.response().onSuccess(rsp -> res.complete(rsp.statusCode()))
+                    .onFailure(res::completeExceptionally);
+                RequestBodyTest.write(req, chunk, written);
+            }
+        ).onFailure(res::completeExceptionally);
+        return res;
+    }
+
+    /**
+     * Write chunks to request until write queue is full or body is written.
+     * @param req Client request
+     * @param chunk Chunk to write
+     * @param written Counter of bytes written
+     */
+    private static void write(final HttpClientRequest req, final Buffer chunk,
+        final AtomicLong written) {
+        while (!req.writeQueueFull() && written.get() < RequestBodyTest.SIZE) {
+            req.write(chunk);
+            written.addAndGet(chunk.length());
+        }
+        if (written.get() < RequestBodyTest.SIZE) {
+            req.drainHandler(ignored -> RequestBodyTest.write(req, chunk, written));
+        } else {
+            req.end();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import io.vertx.core.MultiMap;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpVersion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsSame;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link RequestHeaders} and request line of {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ */
+final class RequestHeadersTest {
+
+    @Test
+    void keepsAllHeadersInOrder() {
+        final RequestHeaders headers = new RequestHeaders(
+            MultiMap.caseInsensitiveMultiMap()
+                .add("Accept", "text/html")
+                .add("Host", "localhost")
+                .add("accept", "text/xml")
+        );
+        final List<String> list = new ArrayList<>(3);
+        for (final Map.Entry<String, String> header : headers) {
+            list.add(String.format("%s: %s", header.getKey(), header.getValue()));
+        }
+        MatcherAssert.assertThat(
+            list,
+            Matchers.contains("Accept: text/html", "Host: localhost", "accept: text/xml")
+        );
+    }
+
+    @Test
+    void reusesEntriesOnIteration() {
+        final RequestHeaders headers = new RequestHeaders(
+            MultiMap.caseInsensitiveMultiMap().add("Host", "localhost")
+        );
+        MatcherAssert.assertThat(
+            headers.iterator().next(), new IsSame<>(headers.iterator().next())
+        );
+    }
+
+    @Test
+    void buildsRequestLine() {
+        MatcherAssert.assertThat(
+            VertxSliceServer.line(HttpMethod.PUT, "/a/b?c=d", HttpVersion.HTTP_2),
+            new IsEqual<>("PUT /a/b?c=d HTTP/2\r\n")
+        );
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.IsNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ResponseCache} used by {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class ResponseCacheTest {
+
+    /**
+     * Host to send requests to.
+     */
+    private static final String HOST = "localhost";
+
+    /**
+     * Response body.
+     */
+    private static final String BODY = "artifact";
+
+    /**
+     * Entity tag of response.
+     */
+    private static final String ETAG = "\"abc\"";
+
+    /**
+     * Cookie of origin response.
+     */
+    private static final String COOKIE = "session=secret";
+
+    /**
+     * Date of origin response.
+     */
+    private static final String DATE = "Thu, 01 Jan 2015 00:00:00 GMT";
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * HTTP client.
+     */
+    private WebClient client;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Number of slice invocations.
+     */
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.client = WebClient.create(this.vertx);
+        this.calls = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.client.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void servesCachedResponseWithoutSlice() {
+        final ResponseCache cache = new ResponseCache(1024L * 1024L);
+        final int port = this.start(cache, "public, max-age=3600, immutable");
+        for (int idx = 0; idx < 3; ++idx) {
+            MatcherAssert.assertThat(
+                this.client.get(port, ResponseCacheTest.HOST, "/a.jar").rxSend().blockingGet()
+                    .bodyAsString(),
+                new IsEqual<>(ResponseCacheTest.BODY)
+            );
+        }
+        MatcherAssert.assertThat("Slice was invoked once", this.calls.get(), new IsEqual<>(1));
+        MatcherAssert.assertThat(
+            "Cache holds response body",
+            cache.size(),
+            new IsEqual<>((long) ResponseCacheTest.BODY.length())
+        );
+    }
+
+    @Test
+    void answersConditionalRequestFromCache() {
+        final int port = this.start(
+            new ResponseCache(1024L * 1024L), "max-age=3600"
+        );
+        this.client.get(port, ResponseCacheTest.HOST, "/b.jar").rxSend().blockingGet();
+        final HttpResponse<Buffer> rsp = this.client.get(port, ResponseCacheTest.HOST, "/b.jar")
+            .putHeader("If-None-Match", ResponseCacheTest.ETAG)
+            .rxSend().blockingGet();
+        MatcherAssert.assertThat(
+            "Status is not modified",
+            rsp.statusCode(),
+            new IsEqual<>(HttpURLConnection.HTTP_NOT_MODIFIED)
+        );
+        MatcherAssert.assertThat(
+            "ETag is sent",
+            rsp.getHeader("ETag"),
+            new IsEqual<>(ResponseCacheTest.ETAG)
+        );
+        MatcherAssert.assertThat("Slice was invoked once", this.calls.get(), new IsEqual<>(1));
+    }
+
+    @Test
+    void doesNotReplayResponseSpecificHeaders() {
+        final int port = this.start(new ResponseCache(1024L * 1024L), "public, max-age=3600");
+        MatcherAssert.assertThat(
+            "Origin response has cookie",
+            this.client.get(port, ResponseCacheTest.HOST, "/d.jar").rxSend().blockingGet()
+                .getHeader("Set-Cookie"),
+            new IsEqual<>(ResponseCacheTest.COOKIE)
+        );
+        final HttpResponse<Buffer> cached = this.client.get(port, ResponseCacheTest.HOST, "/d.jar")
+            .rxSend().blockingGet();
+        MatcherAssert.assertThat("Slice was invoked once", this.calls.get(), new IsEqual<>(1));
+        MatcherAssert.assertThat(
+            "Cookie is not replayed", cached.getHeader("Set-Cookie"), new IsNull<>()
+        );
+        MatcherAssert.assertThat(
+            "Date is not replayed",
+            cached.getHeader("Date"),
+            new IsNot<>(new IsEqual<>(ResponseCacheTest.DATE))
+        );
+    }
+
+    @Test
+    void doesNotCacheNoStoreResponse() {
+        final ResponseCache cache = new ResponseCache(1024L * 1024L);
+        final int port = this.start(cache, "no-store");
+        this.client.get(port, ResponseCacheTest.HOST, "/c").rxSend().blockingGet();
+        this.client.get(port, ResponseCacheTest.HOST, "/c").rxSend().blockingGet();
+        MatcherAssert.assertThat("Slice was invoked twice", this.calls.get(), new IsEqual<>(2));
+        MatcherAssert.assertThat("Cache is empty", cache.count(), new IsEqual<>(0));
+    }
+
+    @Test
+    void doesNotEvictPopularResponse() {
+        final ResponseCache cache = new ResponseCache(
+            ResponseCacheTest.BODY.length(), ResponseCacheTest.BODY.length(),
+            Collections.emptyList()
+        );
+        final int port = this.start(cache, "max-age=3600");
+        for (int idx = 0; idx < 3; ++idx) {
+            this.client.get(port, ResponseCacheTest.HOST, "/popular").rxSend().blockingGet();
+        }
+        this.client.get(port, ResponseCacheTest.HOST, "/rare").rxSend().blockingGet();
+        this.client.get(port, ResponseCacheTest.HOST, "/popular").rxSend().blockingGet();
+        MatcherAssert.assertThat(
+            "Popular response was served from cache",
+            this.calls.get(),
+            new IsEqual<>(2)
+        );
+    }
+
+    /**
+     * Start server with slice which responds with cacheable body.
+     * @param cache Response cache
+     * @param control Value of {@code Cache-Control} response header
+     * @return Server port
+     */
+    private int start(final ResponseCache cache, final String control) {
+        final byte[] body = ResponseCacheTest.BODY.getBytes(StandardCharsets.UTF_8);
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, rqbody) -> {
+                this.calls.incrementAndGet();
+                return connection -> connection.accept(
+                    RsStatus.OK,
+                    new Headers.From(
+                        new Header("Content-Length", String.valueOf(body.length)),
+                        new Header("Cache-Control", control),
+                        new Header("ETag", ResponseCacheTest.ETAG),
+                        new Header("Set-Cookie", ResponseCacheTest.COOKIE),
+                        new Header("Date", ResponseCacheTest.DATE)
+                    ),
+                    Flowable.just(ByteBuffer.wrap(body))
+                );
+            },
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setResponseCache(cache)
+        );
+        return this.server.start();
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link ResponseWriter}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class ResponseWriterTest {
+
+    /**
+     * Raw HTTP request.
+     */
+    private static final String REQUEST = "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    /**
+     * Chunk size.
+     */
+    private static final int CHUNK = 64 * 1024;
+
+    /**
+     * Total body size.
+     */
+    private static final long TOTAL = 256L * 1024 * 1024;
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.vertx.close();
+    }
+
+    @Test
+    void boundsBufferedBodyForSlowReader() throws Exception {
+        final AtomicLong emitted = new AtomicLong();
+        final byte[] chunk = new byte[ResponseWriterTest.CHUNK];
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK,
+                new Headers.From("Content-Length", String.valueOf(ResponseWriterTest.TOTAL)),
+                Flowable.<ByteBuffer>generate(
+                    emitter -> {
+                        if (emitted.addAndGet(chunk.length) > ResponseWriterTest.TOTAL) {
+                            emitter.onComplete();
+                        } else {
+                            emitter.onNext(ByteBuffer.wrap(chunk));
+                        }
+                    }
+                )
+            ),
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setWriteQueueMaxSize(ResponseWriterTest.CHUNK)
+        );
+        final int port = this.server.start();
+        try (Socket socket = new Socket()) {
+            socket.setReceiveBufferSize(ResponseWriterTest.CHUNK);
+            socket.connect(new InetSocketAddress("localhost", port));
+            final OutputStream out = socket.getOutputStream();
+            out.write(ResponseWriterTest.REQUEST.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            final InputStream input = socket.getInputStream();
+            MatcherAssert.assertThat(input.read(new byte[1024]), Matchers.greaterThan(0));
+            TimeUnit.SECONDS.sleep(1L);
+            MatcherAssert.assertThat(
+                "Body is not pulled from slice faster than client reads it",
+                emitted.get(),
+                Matchers.lessThan(ResponseWriterTest.TOTAL / 8)
+            );
+        }
+    }
+
+    @Test
+    void coalescesSmallChunks() throws Exception {
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK,
+                Headers.EMPTY,
+                Flowable.range(0, 1000).map(
+                    idx -> ByteBuffer.wrap("0123456789".getBytes(StandardCharsets.US_ASCII))
+                )
+            ),
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setCoalescing(4096, Duration.ofSeconds(1L))
+        );
+        final List<Integer> frames = ResponseWriterTest.frames(this.server.start());
+        MatcherAssert.assertThat(
+            "First chunk is written as is",
+            frames.get(0),
+            new IsEqual<>(10)
+        );
+        MatcherAssert.assertThat(
+            "Small chunks are written together",
+            frames.size(),
+            Matchers.lessThan(10)
+        );
+        MatcherAssert.assertThat(
+            "Whole body is written",
+            frames.stream().mapToInt(Integer::intValue).sum(),
+            new IsEqual<>(10_000)
+        );
+    }
+
+    @Test
+    void writesCoalescedChunksAfterDelay() throws Exception {
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK,
+                Headers.EMPTY,
+                Flowable.concat(
+                    Flowable.just("first", "second").map(
+                        text -> ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII))
+                    ),
+                    Flowable.<ByteBuffer>never().take(1L, TimeUnit.MINUTES)
+                )
+            ),
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setCoalescing(4096, Duration.ofMillis(50L))
+        );
+        final int port = this.server.start();
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", port));
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(10L));
+            final OutputStream out = socket.getOutputStream();
+            out.write(ResponseWriterTest.REQUEST.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            final InputStream input = socket.getInputStream();
+            final StringBuilder received = new StringBuilder();
+            final byte[] buf = new byte[1024];
+            while (received.indexOf("second") < 0) {
+                final int len = input.read(buf);
+                MatcherAssert.assertThat("Connection is open", len, Matchers.greaterThan(0));
+                received.append(new String(buf, 0, len, StandardCharsets.US_ASCII));
+            }
+            MatcherAssert.assertThat(received.toString(), Matchers.containsString("first"));
+        }
+    }
+
+    @Test
+    void cancelsBodyWhenClientDisconnects() throws Exception {
+        final CompletableFuture<Void> cancelled = new CompletableFuture<>();
+        final CompletableFuture<Throwable> accepted = new CompletableFuture<>();
+        final byte[] chunk = new byte[ResponseWriterTest.CHUNK];
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> {
+                final CompletionStage<Void> res = connection.accept(
+                    RsStatus.OK,
+                    Headers.EMPTY,
+                    Flowable.<ByteBuffer>generate(
+                        emitter -> emitter.onNext(ByteBuffer.wrap(chunk))
+                    ).doOnCancel(() -> cancelled.complete(null))
+                );
+                res.whenComplete((nothing, err) -> accepted.complete(err));
+                return res;
+            }
+        );
+        final int port = this.server.start();
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", port));
+            final OutputStream out = socket.getOutputStream();
+            out.write(ResponseWriterTest.REQUEST.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            MatcherAssert.assertThat(
+                socket.getInputStream().read(new byte[1024]), Matchers.greaterThan(0)
+            );
+        }
+        cancelled.get(10L, TimeUnit.SECONDS);
+        MatcherAssert.assertThat(
+            "Response completion fails",
+            accepted.get(10L, TimeUnit.SECONDS),
+            Matchers.notNullValue()
+        );
+    }
+
+    /**
+     * Request body with raw socket and read sizes of chunks of chunked encoding.
+     * @param port Server port
+     * @return Chunk sizes
+     * @throws IOException On error
+     */
+    private static List<Integer> frames(final int port) throws IOException {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", port));
+            socket.setSoTimeout((int) TimeUnit.SECONDS.toMillis(10L));
+            final OutputStream out = socket.getOutputStream();
+            out.write(ResponseWriterTest.REQUEST.getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            final DataInputStream input = new DataInputStream(
+                new BufferedInputStream(socket.getInputStream())
+            );
+            String line = ResponseWriterTest.line(input);
+            while (!line.isEmpty()) {
+                line = ResponseWriterTest.line(input);
+            }
+            final List<Integer> res = new ArrayList<>(10);
+            int size = Integer.parseInt(ResponseWriterTest.line(input), 16);
+            while (size > 0) {
+                res.add(size);
+                input.readFully(new byte[size]);
+                ResponseWriterTest.line(input);
+                size = Integer.parseInt(ResponseWriterTest.line(input), 16);
+            }
+            return res;
+        }
+    }
+
+    /**
+     * Read line terminated with CRLF.
+     * @param input Input
+     * @return Line without CRLF
+     * @throws IOException On error
+     */
+    private static String line(final InputStream input) throws IOException {
+        final StringBuilder res = new StringBuilder();
+        int chr = input.read();
+        while (chr != '\n') {
+            if (chr < 0) {
+                throw new EOFException();
+            }
+            if (chr != '\r') {
+                res.append((char) chr);
+            }
+            chr = input.read();
+        }
+        return res.toString();
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link RollingFileSink}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class RollingFileSinkTest {
+
+    @Test
+    void rollsFilesOver(@TempDir final Path dir) throws IOException {
+        final Path file = dir.resolve("access.log");
+        try (RollingFileSink sink = new RollingFileSink(file, 20L, 2)) {
+            for (int idx = 0; idx < 8; ++idx) {
+                sink.write(String.format("line %d", idx));
+            }
+            sink.flush();
+        }
+        MatcherAssert.assertThat(
+            "Current file has the last lines",
+            new String(Files.readAllBytes(file), StandardCharsets.UTF_8),
+            Matchers.equalTo("line 6\nline 7\n")
+        );
+        MatcherAssert.assertThat(
+            "Newest rolled over file has previous lines",
+            new String(
+                Files.readAllBytes(dir.resolve("access.log.1")), StandardCharsets.UTF_8
+            ),
+            Matchers.equalTo("line 3\nline 4\nline 5\n")
+        );
+        MatcherAssert.assertThat(
+            "Older files are deleted",
+            Files.exists(dir.resolve("access.log.3")),
+            Matchers.is(false)
+        );
+    }
+}
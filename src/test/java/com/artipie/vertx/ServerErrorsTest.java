@@ -0,0 +1,139 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.hamcrest.core.IsNot;
+import org.hamcrest.core.StringContains;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for default {@link ServerErrors} of {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ */
+final class ServerErrorsTest {
+
+    /**
+     * Host to send requests to.
+     */
+    private static final String HOST = "localhost";
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * HTTP client.
+     */
+    private WebClient client;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.client = WebClient.create(this.vertx);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.client.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void hidesInternalsOfError() {
+        final int port = this.start(
+            (line, headers, body) -> {
+                throw new IllegalStateException("Secret internals");
+            }
+        );
+        final HttpResponse<Buffer> rsp = this.client.get(port, ServerErrorsTest.HOST, "/")
+            .rxSend().blockingGet();
+        MatcherAssert.assertThat(
+            "Status is internal error",
+            rsp.statusCode(),
+            new IsEqual<>(HttpURLConnection.HTTP_INTERNAL_ERROR)
+        );
+        MatcherAssert.assertThat(
+            "Body contains error ID",
+            rsp.bodyAsString(),
+            new StringContains(rsp.getHeader(LeanErrors.HEADER))
+        );
+        MatcherAssert.assertThat(
+            "Body doesn't contain error details",
+            rsp.bodyAsString(),
+            new IsNot<>(Matchers.containsString("Secret"))
+        );
+    }
+
+    @Test
+    void respondsToLinkageError() {
+        final int port = this.start(
+            (line, headers, body) -> {
+                throw new NoClassDefFoundError("com/example/Missing");
+            }
+        );
+        MatcherAssert.assertThat(
+            this.client.get(port, ServerErrorsTest.HOST, "/").rxSend().blockingGet()
+                .statusCode(),
+            new IsEqual<>(HttpURLConnection.HTTP_INTERNAL_ERROR)
+        );
+    }
+
+    @Test
+    void resetsConnectionWhenHeadersWereSent() {
+        final int port = this.start(
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK,
+                Headers.EMPTY,
+                Flowable.concat(
+                    Flowable.just(ByteBuffer.wrap(new byte[]{'o', 'k'})),
+                    Flowable.error(new IllegalStateException("Storage failed"))
+                )
+            )
+        );
+        Assertions.assertThrows(
+            RuntimeException.class,
+            () -> this.client.get(port, ServerErrorsTest.HOST, "/").rxSend().blockingGet()
+        );
+    }
+
+    /**
+     * Start server with default options.
+     * @param slice Slice
+     * @return Port
+     */
+    private int start(final Slice slice) {
+        this.server = new VertxSliceServer(
+            this.vertx, slice, new HttpServerOptions().setPort(0)
+        );
+        return this.server.start();
+    }
+}
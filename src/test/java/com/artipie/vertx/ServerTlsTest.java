@@ -0,0 +1,256 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.net.PemKeyCertOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.security.cert.X509Certificate;
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocket;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Test for {@link ServerTls} used by {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class ServerTlsTest {
+
+    /**
+     * Request to send.
+     */
+    private static final String REQUEST = "GET / HTTP/1.1\r\nHost: localhost\r\n\r\n";
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Server TLS.
+     */
+    private ServerTls tls;
+
+    /**
+     * Certificate file.
+     */
+    private Path cert;
+
+    /**
+     * Private key file.
+     */
+    private Path key;
+
+    /**
+     * Server port.
+     */
+    private int port;
+
+    @BeforeEach
+    void setUp(@TempDir final Path dir) throws IOException {
+        this.cert = dir.resolve("server.crt");
+        this.key = dir.resolve("server.key");
+        ServerTlsTest.install("localhost", this.cert, this.key);
+        this.vertx = Vertx.vertx();
+        this.tls = new ServerTls(
+            new PemKeyCertOptions()
+                .setCertPath(this.cert.toString())
+                .setKeyPath(this.key.toString())
+        );
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK,
+                new Headers.From("Content-Length", "2"),
+                Flowable.just(ByteBuffer.wrap("ok".getBytes(StandardCharsets.US_ASCII)))
+            ),
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setTls(this.tls)
+        );
+        this.port = this.server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void servesOverTls() throws Exception {
+        try (SSLSocket socket = this.connect()) {
+            MatcherAssert.assertThat(
+                "Response is sent",
+                ServerTlsTest.get(socket),
+                Matchers.startsWith("HTTP/1.1 200 OK")
+            );
+            MatcherAssert.assertThat(
+                "Certificate is served",
+                ServerTlsTest.organization(socket),
+                Matchers.containsString("O=localhost")
+            );
+        }
+    }
+
+    @Test
+    void reloadsCertificateWithoutDroppingConnections() throws Exception {
+        try (SSLSocket old = this.connect()) {
+            ServerTlsTest.get(old);
+            ServerTlsTest.install("renewed", this.cert, this.key);
+            this.tls.reload();
+            try (SSLSocket renewed = this.connect()) {
+                ServerTlsTest.get(renewed);
+                MatcherAssert.assertThat(
+                    "New connection gets new certificate",
+                    ServerTlsTest.organization(renewed),
+                    Matchers.containsString("O=renewed")
+                );
+            }
+            MatcherAssert.assertThat(
+                "Established connection is served",
+                ServerTlsTest.get(old),
+                Matchers.startsWith("HTTP/1.1 200 OK")
+            );
+            MatcherAssert.assertThat(
+                "Established connection keeps old certificate",
+                ServerTlsTest.organization(old),
+                Matchers.containsString("O=localhost")
+            );
+        }
+    }
+
+    @Test
+    void keepsCertificateIfReloadFails() throws Exception {
+        Files.write(this.cert, "not a certificate".getBytes(StandardCharsets.US_ASCII));
+        Assertions.assertThrows(IllegalStateException.class, this.tls::reload);
+        try (SSLSocket socket = this.connect()) {
+            ServerTlsTest.get(socket);
+            MatcherAssert.assertThat(
+                ServerTlsTest.organization(socket),
+                Matchers.containsString("O=localhost")
+            );
+        }
+    }
+
+    /**
+     * Connect to server with a new TLS session.
+     * @return Socket
+     * @throws IOException On error
+     * @throws GeneralSecurityException On error
+     */
+    private SSLSocket connect() throws IOException, GeneralSecurityException {
+        final SSLContext ctx = SSLContext.getInstance("TLS");
+        ctx.init(null, new TrustManager[]{new TrustAll()}, new SecureRandom());
+        final SSLSocket socket = (SSLSocket) ctx.getSocketFactory()
+            .createSocket("localhost", this.port);
+        socket.setSoTimeout(5000);
+        socket.startHandshake();
+        return socket;
+    }
+
+    /**
+     * Send request and read response with two bytes body.
+     * @param socket Socket
+     * @return Response
+     * @throws IOException On error
+     */
+    private static String get(final SSLSocket socket) throws IOException {
+        final OutputStream out = socket.getOutputStream();
+        out.write(ServerTlsTest.REQUEST.getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+        final InputStream input = socket.getInputStream();
+        final StringBuilder rsp = new StringBuilder();
+        while (!rsp.toString().endsWith("\r\n\r\nok")) {
+            final int next = input.read();
+            if (next < 0) {
+                break;
+            }
+            rsp.append((char) next);
+        }
+        return rsp.toString();
+    }
+
+    /**
+     * Subject of server certificate.
+     * @param socket Socket
+     * @return Subject name
+     * @throws IOException On error
+     */
+    private static String organization(final SSLSocket socket) throws IOException {
+        return ((X509Certificate) socket.getSession().getPeerCertificates()[0])
+            .getSubjectX500Principal().getName();
+    }
+
+    /**
+     * Copy certificate and key from test resources.
+     * @param name Resource name
+     * @param cert Certificate file
+     * @param key Private key file
+     * @throws IOException On error
+     */
+    private static void install(final String name, final Path cert, final Path key)
+        throws IOException {
+        try (InputStream crt = ServerTlsTest.class.getResourceAsStream(
+            String.format("/tls/%s.crt", name)
+        )) {
+            Files.copy(crt, cert, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (InputStream pem = ServerTlsTest.class.getResourceAsStream(
+            String.format("/tls/%s.key", name)
+        )) {
+            Files.copy(pem, key, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Trust manager which trusts self-signed test certificates.
+     * @since 0.4
+     */
+    private static final class TrustAll implements X509TrustManager {
+
+        @Override
+        public void checkClientTrusted(final X509Certificate[] chain, final String auth) {
+            // all clients are trusted
+        }
+
+        @Override
+        public void checkServerTrusted(final X509Certificate[] chain, final String auth) {
+            // all servers are trusted
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
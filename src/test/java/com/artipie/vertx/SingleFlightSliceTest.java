@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.reactivex.Single;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import io.vertx.reactivex.core.buffer.Buffer;
+import io.vertx.reactivex.ext.web.client.HttpResponse;
+import io.vertx.reactivex.ext.web.client.WebClient;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SingleFlightSlice} used by {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class SingleFlightSliceTest {
+
+    /**
+     * Host to send requests to.
+     */
+    private static final String HOST = "localhost";
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * HTTP client.
+     */
+    private WebClient client;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Number of slice invocations.
+     */
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.client = WebClient.create(this.vertx);
+        this.calls = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (this.server != null) {
+            this.server.close();
+        }
+        this.client.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void invokesSliceOnceForConcurrentRequests() {
+        final int port = this.start();
+        final List<Single<HttpResponse<Buffer>>> requests = new ArrayList<>(5);
+        for (int idx = 0; idx < 5; ++idx) {
+            requests.add(this.client.get(port, SingleFlightSliceTest.HOST, "/new.jar").rxSend());
+        }
+        final List<String> bodies = Single.merge(requests)
+            .map(HttpResponse::bodyAsString).toList().blockingGet();
+        MatcherAssert.assertThat(
+            "All requests got the body",
+            bodies,
+            Matchers.everyItem(new IsEqual<>("one-two-three"))
+        );
+        MatcherAssert.assertThat("Slice was invoked once", this.calls.get(), new IsEqual<>(1));
+    }
+
+    @Test
+    void invokesSliceForDifferentRequests() {
+        final int port = this.start();
+        Single.merge(
+            this.client.get(port, SingleFlightSliceTest.HOST, "/a").rxSend(),
+            this.client.get(port, SingleFlightSliceTest.HOST, "/b").rxSend(),
+            this.client.get(port, SingleFlightSliceTest.HOST, "/a")
+                .putHeader("Authorization", "Basic Zm9vOmJhcg==").rxSend()
+        ).toList().blockingGet();
+        MatcherAssert.assertThat(this.calls.get(), new IsEqual<>(3));
+    }
+
+    /**
+     * Start server with slice which responds after a delay.
+     * @return Server port
+     */
+    private int start() {
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> {
+                this.calls.incrementAndGet();
+                final CompletableFuture<Void> delay = new CompletableFuture<>();
+                this.vertx.setTimer(500L, ignored -> delay.complete(null));
+                return delay.thenCompose(
+                    ignored -> connection.accept(
+                        RsStatus.OK,
+                        Headers.EMPTY,
+                        Flowable.fromArray("one", "-two", "-three").map(
+                            str -> ByteBuffer.wrap(str.getBytes(StandardCharsets.UTF_8))
+                        )
+                    )
+                );
+            },
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setSingleFlight(4)
+        );
+        return this.server.start();
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.Slice;
+import com.artipie.http.headers.Header;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link SliceRouter}.
+ *
+ * @since 0.4
+ */
+final class SliceRouterTest {
+
+    @Test
+    void routesToLongestPrefix() {
+        final SliceRouter router = new SliceRouter()
+            .mount("/maven", SliceRouterTest.named("maven"))
+            .mount("/maven/snapshots", SliceRouterTest.named("snapshots"));
+        MatcherAssert.assertThat(
+            "Longest prefix wins",
+            SliceRouterTest.get(router, "/maven/snapshots/a/b.jar?x=1", "any"),
+            new IsEqual<>("snapshots")
+        );
+        MatcherAssert.assertThat(
+            "Shorter prefix matches other paths",
+            SliceRouterTest.get(router, "/maven/releases/a.jar", "any"),
+            new IsEqual<>("maven")
+        );
+        MatcherAssert.assertThat(
+            "Prefix matches whole segments only",
+            SliceRouterTest.get(router, "/mavenx/a.jar", "any"),
+            new IsEqual<>("404")
+        );
+    }
+
+    @Test
+    void routesByHost() {
+        final SliceRouter router = new SliceRouter()
+            .mount("/", SliceRouterTest.named("default"))
+            .mount("npm.example.com", "/", SliceRouterTest.named("npm"));
+        MatcherAssert.assertThat(
+            "Host mounts are used for their host",
+            SliceRouterTest.get(router, "/lodash", "NPM.example.com:8080"),
+            new IsEqual<>("npm")
+        );
+        MatcherAssert.assertThat(
+            "Any host mounts are used for other hosts",
+            SliceRouterTest.get(router, "/lodash", "maven.example.com"),
+            new IsEqual<>("default")
+        );
+    }
+
+    @Test
+    void routesAbsoluteUri() {
+        MatcherAssert.assertThat(
+            SliceRouterTest.get(
+                new SliceRouter().mount("/pypi", SliceRouterTest.named("pypi")),
+                "http://example.com/pypi/simple", "example.com"
+            ),
+            new IsEqual<>("pypi")
+        );
+    }
+
+    @Test
+    void swapsMounts() {
+        final SliceRouter router = new SliceRouter()
+            .mount("/repo", SliceRouterTest.named("old"))
+            .mount("/repo/nested", SliceRouterTest.named("nested"));
+        router.mount("/repo", SliceRouterTest.named("new"));
+        MatcherAssert.assertThat(
+            "Mount is replaced",
+            SliceRouterTest.get(router, "/repo/file", "any"),
+            new IsEqual<>("new")
+        );
+        router.unmount("/repo");
+        MatcherAssert.assertThat(
+            "Mount is removed",
+            SliceRouterTest.get(router, "/repo/file", "any"),
+            new IsEqual<>("404")
+        );
+        MatcherAssert.assertThat(
+            "Nested mount stays",
+            SliceRouterTest.get(router, "/repo/nested/file", "any"),
+            new IsEqual<>("nested")
+        );
+    }
+
+    /**
+     * Send GET request to router.
+     * @param router Router
+     * @param uri Request URI
+     * @param host Host header
+     * @return Body of response or status code if body is empty
+     */
+    private static String get(final SliceRouter router, final String uri, final String host) {
+        final CompletableFuture<String> res = new CompletableFuture<>();
+        router.response(
+            String.format("GET %s HTTP/1.1\r\n", uri),
+            new Headers.From(new Header("Host", host)),
+            Flowable.empty()
+        ).send(
+            (status, headers, body) -> {
+                Flowable.fromPublisher(body)
+                    .map(buf -> StandardCharsets.UTF_8.decode(buf).toString())
+                    .reduce(String::concat)
+                    .toSingle(status.code())
+                    .subscribe(res::complete, res::completeExceptionally);
+                return res.thenAccept(ignored -> { });
+            }
+        );
+        return res.join();
+    }
+
+    /**
+     * Slice which responds with its name.
+     * @param name Name
+     * @return Slice
+     */
+    private static Slice named(final String name) {
+        return (line, headers, body) -> connection -> connection.accept(
+            RsStatus.OK,
+            Headers.EMPTY,
+            Flowable.just(ByteBuffer.wrap(name.getBytes(StandardCharsets.UTF_8)))
+        );
+    }
+}
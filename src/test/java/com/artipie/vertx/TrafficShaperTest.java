@@ -0,0 +1,182 @@
+/*
+ * The MIT License (MIT) Copyright (c) 2020-2022 artipie.com
+ * https://github.com/artipie/vertx-server/blob/master/LICENSE.txt
+ */
+package com.artipie.vertx;
+
+import com.artipie.http.Headers;
+import com.artipie.http.rs.RsStatus;
+import io.reactivex.Flowable;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.reactivex.core.Vertx;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.hamcrest.MatcherAssert;
+import org.hamcrest.Matchers;
+import org.hamcrest.core.IsEqual;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for {@link TrafficShaper} used by {@link VertxSliceServer}.
+ *
+ * @since 0.4
+ * @checkstyle MagicNumberCheck (500 lines)
+ */
+final class TrafficShaperTest {
+
+    /**
+     * Rate limit in bytes per second.
+     */
+    private static final long RATE = 256L * 1024L;
+
+    /**
+     * Size of bulk response.
+     */
+    private static final int BULK = 512 * 1024;
+
+    /**
+     * Vertx instance.
+     */
+    private Vertx vertx;
+
+    /**
+     * Server instance.
+     */
+    private VertxSliceServer server;
+
+    /**
+     * Server port.
+     */
+    private int port;
+
+    @BeforeEach
+    void setUp() {
+        this.vertx = Vertx.vertx();
+        this.server = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> {
+                final int size;
+                if (line.contains("/bulk")) {
+                    size = TrafficShaperTest.BULK;
+                } else {
+                    size = 8 * 1024;
+                }
+                final Headers hdrs;
+                if (line.contains("/chunked")) {
+                    hdrs = Headers.EMPTY;
+                } else {
+                    hdrs = new Headers.From("Content-Length", String.valueOf(size));
+                }
+                return connection.accept(
+                    RsStatus.OK, hdrs, Flowable.just(ByteBuffer.allocate(size))
+                );
+            },
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setTrafficShaper(
+                new TrafficShaper().setGlobalRate(TrafficShaperTest.RATE, 16L * 1024L)
+            )
+        );
+        this.port = this.server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        this.server.close();
+        this.vertx.close();
+    }
+
+    @Test
+    void limitsRateOfResponses() throws Exception {
+        final long start = System.nanoTime();
+        MatcherAssert.assertThat(
+            "Bulk response is received",
+            this.get("/bulk"),
+            new IsEqual<>((long) TrafficShaperTest.BULK)
+        );
+        MatcherAssert.assertThat(
+            "Bulk response is sent at limited rate",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+            Matchers.greaterThanOrEqualTo(1500L)
+        );
+    }
+
+    @Test
+    void sendsSmallResponsesDuringBulkTransfer() throws Exception {
+        this.assertBoundedDuringBulk("/small");
+    }
+
+    @Test
+    void interleavesChunkedResponsesWithBulkTransfer() throws Exception {
+        this.assertBoundedDuringBulk("/chunked");
+    }
+
+    /**
+     * Check that requests take bounded time while bulk response is sent.
+     * @param path Path of requests
+     * @throws Exception On error
+     */
+    private void assertBoundedDuringBulk(final String path) throws Exception {
+        final CompletableFuture<Long> bulk = CompletableFuture.supplyAsync(
+            () -> {
+                try {
+                    return this.get("/bulk");
+                } catch (final IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }
+        );
+        Thread.sleep(300L);
+        for (int idx = 0; idx < 5; ++idx) {
+            final long start = System.nanoTime();
+            MatcherAssert.assertThat(
+                "Response is received",
+                this.get(path),
+                new IsEqual<>(8L * 1024L)
+            );
+            MatcherAssert.assertThat(
+                "Response is not queued behind bulk response",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                Matchers.lessThan(500L)
+            );
+        }
+        MatcherAssert.assertThat(
+            "Bulk transfer is still in progress",
+            bulk.isDone(),
+            new IsEqual<>(false)
+        );
+        MatcherAssert.assertThat(
+            "Bulk response is received",
+            bulk.get(10L, TimeUnit.SECONDS),
+            new IsEqual<>((long) TrafficShaperTest.BULK)
+        );
+    }
+
+    /**
+     * Send GET request.
+     * @param path Request path
+     * @return Number of bytes in response body
+     * @throws IOException On error
+     */
+    private long get(final String path) throws IOException {
+        final HttpURLConnection con = (HttpURLConnection) new URL(
+            String.format("http://localhost:%d%s", this.port, path)
+        ).openConnection();
+        long res = 0L;
+        try (InputStream input = con.getInputStream()) {
+            final byte[] buf = new byte[8192];
+            for (int read = input.read(buf); read >= 0; read = input.read(buf)) {
+                res += read;
+            }
+        } finally {
+            con.disconnect();
+        }
+        return res;
+    }
+}
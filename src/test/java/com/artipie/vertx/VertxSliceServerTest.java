@@ -10,6 +10,7 @@ import com.artipie.http.rs.RsStatus;
 import io.netty.handler.codec.http.HttpHeaderNames;
 import io.reactivex.Flowable;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.ext.web.client.WebClientOptions;
 import io.vertx.reactivex.core.Vertx;
 import io.vertx.reactivex.core.buffer.Buffer;
 import io.vertx.reactivex.ext.web.client.HttpResponse;
@@ -20,7 +21,9 @@ import java.net.ServerSocket;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import org.hamcrest.Description;
 import org.hamcrest.Matcher;
 import org.hamcrest.MatcherAssert;
@@ -39,6 +42,7 @@ import org.junit.jupiter.api.Test;
  * Ensure that {@link VertxSliceServer} works correctly.
  *
  * @since 0.1
+ * @checkstyle MagicNumberCheck (500 lines)
  */
 @SuppressWarnings("PMD.TooManyMethods")
 public final class VertxSliceServerTest {
@@ -258,8 +262,84 @@ public final class VertxSliceServerTest {
         Assertions.assertEquals("Server was already started", err.getMessage());
     }
 
+    @Test
+    void serverHandlesRequestsOnSeveralInstances() {
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+        final VertxSliceServer srv = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> {
+                threads.add(Thread.currentThread().getName());
+                return connection -> connection.accept(
+                    RsStatus.OK, new Headers.From(headers), Flowable.empty()
+                );
+            },
+            new HttpServerOptions().setPort(0),
+            new SliceServerOptions().setInstances(2)
+        );
+        this.server = srv;
+        final int prt = srv.start();
+        final WebClient single = WebClient.create(
+            this.vertx, new WebClientOptions().setKeepAlive(false)
+        );
+        try {
+            for (int idx = 0; idx < 4; ++idx) {
+                MatcherAssert.assertThat(
+                    single.get(prt, VertxSliceServerTest.HOST, "/instances")
+                        .rxSend().blockingGet().statusCode(),
+                    new IsEqual<>(HttpURLConnection.HTTP_OK)
+                );
+            }
+        } finally {
+            single.close();
+        }
+        MatcherAssert.assertThat(threads, Matchers.hasSize(2));
+    }
+
+    @Test
+    void servesWithSocketOptions() {
+        final String expected = "tuned";
+        final VertxSliceServer srv = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK, Headers.EMPTY, Flowable.just(ByteBuffer.wrap(expected.getBytes()))
+            ),
+            new HttpServerOptions().setPort(this.port),
+            new SliceServerOptions().setNativeTransport(true).setTcpQuickAck(true)
+                .setSocketBuffers(128 * 1024, 64 * 1024)
+        );
+        srv.start();
+        this.server = srv;
+        MatcherAssert.assertThat(
+            this.client.get(this.port, VertxSliceServerTest.HOST, "/").rxSend().blockingGet()
+                .bodyAsString(),
+            new IsEqual<>(expected)
+        );
+    }
+
+    @Test
+    void stopsAllInstances() {
+        final VertxSliceServer srv = new VertxSliceServer(
+            this.vertx,
+            (line, headers, body) -> connection -> connection.accept(
+                RsStatus.OK, new Headers.From(headers), Flowable.empty()
+            ),
+            new HttpServerOptions().setPort(this.port),
+            new SliceServerOptions().setInstances(3)
+        );
+        MatcherAssert.assertThat(srv.start(), new IsEqual<>(this.port));
+        srv.stop();
+        Assertions.assertThrows(
+            RuntimeException.class,
+            () -> this.client.get(this.port, VertxSliceServerTest.HOST, "/")
+                .rxSend().blockingGet()
+        );
+    }
+
     private void start(final Slice slice) {
-        final VertxSliceServer srv = new VertxSliceServer(this.vertx, slice, this.port);
+        final VertxSliceServer srv = new VertxSliceServer(
+            this.vertx, slice, new HttpServerOptions().setPort(this.port),
+            new SliceServerOptions().setErrors(ServerErrors.VERBOSE)
+        );
         srv.start();
         this.server = srv;
     }